@@ -1,7 +1,10 @@
 package com.cwiesse.horarios.controller;
 
 import com.cwiesse.horarios.dao.AulaDao;
+import com.cwiesse.horarios.dao.FiltroListado;
+import com.cwiesse.horarios.dao.Pagina;
 import com.cwiesse.horarios.dao.impl.AulaDaoImpl;
+import com.cwiesse.horarios.dao.impl.VersionDatos;
 import com.cwiesse.horarios.model.Aula;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,7 +15,6 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -45,7 +47,9 @@ public class AulaController extends HttpServlet {
         
         switch (action) {
             case "listar":
-                listarAulas(request, response);
+                if (!RespuestaCondicional.noModificado(request, response, VersionDatos.AULA)) {
+                    listarAulas(request, response);
+                }
                 break;
             case "nuevo":
                 mostrarFormularioNuevo(request, response);
@@ -87,12 +91,15 @@ public class AulaController extends HttpServlet {
     private void listarAulas(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         
-        List<Aula> aulas = aulaDao.listarTodas();
+        FiltroListado filtro = new FiltroListado();
+        filtro.setEstado(Paginacion.booleano(request, "estado"));
+        
+        Pagina<Aula> pagina = aulaDao.listarPagina(filtro, Paginacion.clave(request), Paginacion.tamanoPagina());
         
-        request.setAttribute("aulas", aulas);
-        request.setAttribute("totalAulas", aulas.size());
+        request.setAttribute("aulas", pagina.getItems());
+        Paginacion.publicar(request, pagina, "estado");
         
-        logger.debug("Listando {} aulas", aulas.size());
+        logger.debug("Listando página de {} aulas", pagina.getItems().size());
         
         request.getRequestDispatcher("/WEB-INF/views/aulas/listar.jsp").forward(request, response);
     }
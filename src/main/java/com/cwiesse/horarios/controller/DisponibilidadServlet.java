@@ -0,0 +1,181 @@
+package com.cwiesse.horarios.controller;
+
+import com.cwiesse.horarios.dao.AulaDao;
+import com.cwiesse.horarios.dao.impl.AulaDaoImpl;
+import com.cwiesse.horarios.model.Aula;
+import com.cwiesse.horarios.model.Horario;
+import com.cwiesse.horarios.service.CatalogoCache;
+import com.cwiesse.horarios.service.OcupacionSemanal;
+import com.cwiesse.horarios.service.OcupacionSemanal.Franja;
+import com.cwiesse.horarios.util.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Servlet que devuelve (en JSON) las franjas libres de la semana para un
+ * docente y la sección de un curso, en un aula dada o en cualquier aula
+ * activa con la capacidad mínima pedida.
+ * Se calcula con la ocupación semanal en memoria, sin consultas por franja.
+ * 
+ * Parámetros: docenteId, cursoId, duracion (minutos), aulaId (opcional),
+ * capacidad (opcional, si no hay aulaId).
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+@WebServlet(name = "DisponibilidadServlet", urlPatterns = {"/horarios/disponibilidad"})
+public class DisponibilidadServlet extends HttpServlet {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DisponibilidadServlet.class);
+    private AulaDao aulaDao;
+    private OcupacionSemanal ocupacion;
+    private LocalTime jornadaInicio;
+    private LocalTime jornadaFin;
+    
+    @Override
+    public void init() throws ServletException {
+        aulaDao = new AulaDaoImpl();
+        ocupacion = OcupacionSemanal.getInstance();
+        jornadaInicio = AppConfig.getHora("horario.jornada.inicio", LocalTime.of(7, 30));
+        jornadaFin = AppConfig.getHora("horario.jornada.fin", LocalTime.of(15, 30));
+        logger.info("DisponibilidadServlet inicializado (jornada {}-{})", jornadaInicio, jornadaFin);
+    }
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        
+        Integer docenteId = leerEntero(request, "docenteId");
+        Integer cursoId = leerEntero(request, "cursoId");
+        Integer aulaId = leerEntero(request, "aulaId");
+        Integer capacidad = leerEntero(request, "capacidad");
+        Integer duracion = leerEntero(request, "duracion");
+        
+        if (docenteId == null || cursoId == null || duracion == null || duracion <= 0) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                               "docenteId, cursoId y duracion son obligatorios");
+            return;
+        }
+        if (!ocupacion.isCargada()) {
+            // Sin la ocupación cargada todas las franjas saldrían libres
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                               "La ocupación de horarios aún no está cargada");
+            return;
+        }
+        
+        // Aulas candidatas: la indicada o las activas con capacidad suficiente
+        List<Aula> aulas = new ArrayList<>();
+        if (aulaId != null) {
+            aulaDao.buscarPorId(aulaId).ifPresent(aulas::add);
+        } else {
+            for (Aula aula : CatalogoCache.getInstance().aulasActivas()) {
+                if (capacidad == null || (aula.getCapacidad() != null && aula.getCapacidad() >= capacidad)) {
+                    aulas.add(aula);
+                }
+            }
+        }
+        
+        StringBuilder json = new StringBuilder(4096);
+        json.append("{\"duracion\":").append(duracion)
+            .append(",\"jornada\":{\"inicio\":\"").append(jornadaInicio)
+            .append("\",\"fin\":\"").append(jornadaFin).append("\"}")
+            .append(",\"dias\":[");
+        
+        Horario.Dia[] dias = Horario.Dia.values();
+        for (int d = 0; d < dias.length; d++) {
+            Horario.Dia dia = dias[d];
+            List<FranjaAula> franjas = new ArrayList<>();
+            for (Aula aula : aulas) {
+                long[] ocupados = ocupacion.ocupacionCombinada(dia, docenteId, aula.getId(), cursoId);
+                for (Franja f : OcupacionSemanal.franjasLibres(ocupados, jornadaInicio, jornadaFin, duracion)) {
+                    franjas.add(new FranjaAula(f, aula));
+                }
+            }
+            franjas.sort(Comparator.comparing((FranjaAula f) -> f.franja.getInicio())
+                                   .thenComparing(f -> f.aula.getCodigo()));
+            
+            if (d > 0) {
+                json.append(',');
+            }
+            json.append("{\"dia\":\"").append(dia.name())
+                .append("\",\"nombre\":\"").append(escapar(dia.getNombre()))
+                .append("\",\"franjas\":[");
+            for (int i = 0; i < franjas.size(); i++) {
+                FranjaAula f = franjas.get(i);
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"inicio\":\"").append(f.franja.getInicio())
+                    .append("\",\"fin\":\"").append(f.franja.getFin())
+                    .append("\",\"aulaId\":").append(f.aula.getId())
+                    .append(",\"aula\":\"").append(escapar(f.aula.getCodigo()))
+                    .append("\"}");
+            }
+            json.append("]}");
+        }
+        json.append("]}");
+        
+        response.setContentType("application/json;charset=UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        response.getWriter().write(json.toString());
+        
+        logger.debug("Disponibilidad docente {} curso {}: {} aulas evaluadas", docenteId, cursoId, aulas.size());
+    }
+    
+    private static Integer leerEntero(HttpServletRequest request, String nombre) {
+        String valor = request.getParameter(nombre);
+        if (valor == null || valor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private static String escapar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(texto.length());
+        for (char c : texto.toCharArray()) {
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.toString();
+    }
+    
+    private static final class FranjaAula {
+        final Franja franja;
+        final Aula aula;
+        
+        FranjaAula(Franja franja, Aula aula) {
+            this.franja = franja;
+            this.aula = aula;
+        }
+    }
+}
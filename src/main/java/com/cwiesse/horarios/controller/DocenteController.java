@@ -1,7 +1,10 @@
 package com.cwiesse.horarios.controller;
 
 import com.cwiesse.horarios.dao.DocenteDao;
+import com.cwiesse.horarios.dao.FiltroListado;
+import com.cwiesse.horarios.dao.Pagina;
 import com.cwiesse.horarios.dao.impl.DocenteDaoImpl;
+import com.cwiesse.horarios.dao.impl.VersionDatos;
 import com.cwiesse.horarios.model.Docente;
 import com.cwiesse.horarios.util.Validation;
 import org.slf4j.Logger;
@@ -13,7 +16,6 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -49,7 +51,9 @@ public class DocenteController extends HttpServlet {
         
         switch (action) {
             case "listar":
-                listarDocentes(request, response);
+                if (!RespuestaCondicional.noModificado(request, response, VersionDatos.DOCENTE)) {
+                    listarDocentes(request, response);
+                }
                 break;
             case "nuevo":
                 mostrarFormularioNuevo(request, response);
@@ -95,17 +99,20 @@ public class DocenteController extends HttpServlet {
     }
     
     /**
-     * Lista todos los docentes
+     * Lista los docentes por páginas (filtro opcional por estado)
      */
     private void listarDocentes(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         
-        List<Docente> docentes = docenteDao.listarTodos();
+        FiltroListado filtro = new FiltroListado();
+        filtro.setEstado(Paginacion.booleano(request, "estado"));
+        
+        Pagina<Docente> pagina = docenteDao.listarPagina(filtro, Paginacion.clave(request), Paginacion.tamanoPagina());
         
-        request.setAttribute("docentes", docentes);
-        request.setAttribute("totalDocentes", docentes.size());
+        request.setAttribute("docentes", pagina.getItems());
+        Paginacion.publicar(request, pagina, "estado");
         
-        logger.debug("Listando {} docentes", docentes.size());
+        logger.debug("Listando página de {} docentes", pagina.getItems().size());
         
         request.getRequestDispatcher("/WEB-INF/views/docentes/listar.jsp").forward(request, response);
     }
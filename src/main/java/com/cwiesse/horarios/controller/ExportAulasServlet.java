@@ -2,6 +2,7 @@ package com.cwiesse.horarios.controller;
 
 import com.cwiesse.horarios.dao.AulaDao;
 import com.cwiesse.horarios.dao.impl.AulaDaoImpl;
+import com.cwiesse.horarios.dao.impl.VersionDatos;
 import com.cwiesse.horarios.model.Aula;
 import com.cwiesse.horarios.service.ExcelExportService;
 import org.slf4j.Logger;
@@ -41,6 +42,12 @@ public class ExportAulasServlet extends HttpServlet {
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         
+        // Sin cambios desde la última descarga: no se consulta la BD ni se arma el Excel
+        if (RespuestaCondicional.noModificado(request, response, VersionDatos.AULA)) {
+            logger.debug("Exportación de aulas sin cambios (304)");
+            return;
+        }
+        
         logger.info("Solicitud de exportación de aulas a Excel");
         
         try {
@@ -2,6 +2,7 @@ package com.cwiesse.horarios.controller;
 
 import com.cwiesse.horarios.dao.DocenteDao;
 import com.cwiesse.horarios.dao.impl.DocenteDaoImpl;
+import com.cwiesse.horarios.dao.impl.VersionDatos;
 import com.cwiesse.horarios.model.Docente;
 import com.cwiesse.horarios.service.ExcelExportService;
 import org.slf4j.Logger;
@@ -41,6 +42,12 @@ public class ExportDocentesServlet extends HttpServlet {
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         
+        // Sin cambios desde la última descarga: no se consulta la BD ni se arma el Excel
+        if (RespuestaCondicional.noModificado(request, response, VersionDatos.DOCENTE)) {
+            logger.debug("Exportación de docentes sin cambios (304)");
+            return;
+        }
+        
         logger.info("Solicitud de exportación de docentes a Excel");
         
         try {
@@ -1,9 +1,11 @@
 package com.cwiesse.horarios.controller;
 
+import com.cwiesse.horarios.dao.FiltroListado;
 import com.cwiesse.horarios.dao.HorarioDao;
-import com.cwiesse.horarios.dao.impl.HorarioDaoImpl;
-import com.cwiesse.horarios.model.Horario;
+import com.cwiesse.horarios.dao.impl.DaoFactory;
+import com.cwiesse.horarios.dao.impl.VersionDatos;
 import com.cwiesse.horarios.service.ExcelExportService;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,12 +14,10 @@ import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 /**
  * Servlet para exportar horarios a Excel.
@@ -33,7 +33,7 @@ public class ExportHorariosServlet extends HttpServlet {
     
     @Override
     public void init() throws ServletException {
-        horarioDao = new HorarioDaoImpl();
+        horarioDao = DaoFactory.horarioDao();
         logger.info("ExportHorariosServlet inicializado");
     }
     
@@ -41,41 +41,49 @@ public class ExportHorariosServlet extends HttpServlet {
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         
+        // Sin cambios desde la última descarga: no se consulta la BD ni se arma el Excel
+        if (RespuestaCondicional.noModificado(request, response, VersionDatos.HORARIO, VersionDatos.DOCENTE,
+                VersionDatos.AULA, VersionDatos.CURSO)) {
+            logger.debug("Exportación de horarios sin cambios (304)");
+            return;
+        }
+        
         logger.info("Solicitud de exportación de horarios a Excel");
         
-        try {
-            // Obtener todos los horarios
-            List<Horario> horarios = horarioDao.listarTodos();
+        // Lectura y escritura por streaming: no se carga la lista completa
+        try (SXSSFWorkbook libro = ExcelExportService.exportarHorariosExcel(horarioDao, new FiltroListado())) {
+            
+            if (libro == null) {
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                    "Error al leer los horarios");
+                return;
+            }
             
-            if (horarios.isEmpty()) {
+            int registros = libro.getSheetAt(0).getLastRowNum() - 3;
+            if (registros <= 0) {
                 logger.warn("No hay horarios para exportar");
                 response.sendError(HttpServletResponse.SC_NO_CONTENT, "No hay horarios para exportar");
                 return;
             }
             
-            // Generar Excel
-            ByteArrayOutputStream excelStream = ExcelExportService.exportarHorariosExcel(horarios);
-            
             // Configurar respuesta para descarga
-            String fileName = "Horarios_" + 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + 
+            String fileName = "Horarios_" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) +
                 ".xlsx";
             
             response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
             response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
-            response.setContentLength(excelStream.size());
             
-            // Escribir archivo al response
+            // Escribir archivo directamente al response (sin buffer intermedio)
             OutputStream out = response.getOutputStream();
-            excelStream.writeTo(out);
+            libro.write(out);
             out.flush();
-            out.close();
             
-            logger.info("Excel de horarios generado y enviado: {} ({} bytes)", fileName, excelStream.size());
+            logger.info("Excel de horarios generado y enviado: {} ({} registros)", fileName, registros);
             
         } catch (Exception e) {
             logger.error("Error al exportar horarios: {}", e.getMessage(), e);
-            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, 
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
                 "Error al generar el archivo Excel");
         }
     }
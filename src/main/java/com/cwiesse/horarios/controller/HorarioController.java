@@ -1,17 +1,21 @@
 package com.cwiesse.horarios.controller;
 
+import com.cwiesse.horarios.dao.ClavePagina;
+import com.cwiesse.horarios.dao.FiltroListado;
 import com.cwiesse.horarios.dao.HorarioDao;
-import com.cwiesse.horarios.dao.DocenteDao;
-import com.cwiesse.horarios.dao.AulaDao;
-import com.cwiesse.horarios.dao.CursoDao;
-import com.cwiesse.horarios.dao.impl.HorarioDaoImpl;
-import com.cwiesse.horarios.dao.impl.DocenteDaoImpl;
-import com.cwiesse.horarios.dao.impl.AulaDaoImpl;
-import com.cwiesse.horarios.dao.impl.CursoDaoImpl;
+import com.cwiesse.horarios.dao.Pagina;
+import com.cwiesse.horarios.dao.ResultadoGuardado;
+import com.cwiesse.horarios.dao.impl.DaoFactory;
+import com.cwiesse.horarios.dao.impl.VersionDatos;
 import com.cwiesse.horarios.model.Horario;
+import com.cwiesse.horarios.model.HorarioResumen;
 import com.cwiesse.horarios.model.Docente;
 import com.cwiesse.horarios.model.Aula;
 import com.cwiesse.horarios.model.Curso;
+import com.cwiesse.horarios.service.CatalogoCache;
+import com.cwiesse.horarios.service.HorarioIndex;
+import com.cwiesse.horarios.service.HorarioSnapshot;
+import com.cwiesse.horarios.util.UnitOfWork;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,8 +25,12 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.sql.SQLException;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -35,17 +43,21 @@ import java.util.Optional;
 public class HorarioController extends HttpServlet {
     
     private static final Logger logger = LoggerFactory.getLogger(HorarioController.class);
+    // Máximo de choques que se muestran en el formulario
+    private static final int LIMITE_CHOQUES = 10;
+    // Datos que muestra el listado (ETag): horarios con nombres de docente, aula y curso
+    private static final String[] DATOS_LISTADO = {
+        VersionDatos.HORARIO, VersionDatos.DOCENTE, VersionDatos.AULA, VersionDatos.CURSO
+    };
     private HorarioDao horarioDao;
-    private DocenteDao docenteDao;
-    private AulaDao aulaDao;
-    private CursoDao cursoDao;
+    private HorarioIndex horarioIndex;
+    private CatalogoCache catalogos;
     
     @Override
     public void init() throws ServletException {
-        horarioDao = new HorarioDaoImpl();
-        docenteDao = new DocenteDaoImpl();
-        aulaDao = new AulaDaoImpl();
-        cursoDao = new CursoDaoImpl();
+        horarioDao = DaoFactory.horarioDao();
+        horarioIndex = HorarioIndex.getInstance();
+        catalogos = CatalogoCache.getInstance();
         logger.info("HorarioController inicializado");
     }
     
@@ -61,7 +73,14 @@ public class HorarioController extends HttpServlet {
         
         switch (action) {
             case "listar":
-                listarHorarios(request, response);
+                if (!RespuestaCondicional.noModificado(request, response, DATOS_LISTADO)) {
+                    listarHorarios(request, response);
+                }
+                break;
+            case "semana":
+                if (!RespuestaCondicional.noModificado(request, response, DATOS_LISTADO)) {
+                    mostrarSemana(request, response);
+                }
                 break;
             case "nuevo":
                 mostrarFormularioNuevo(request, response);
@@ -103,21 +122,86 @@ public class HorarioController extends HttpServlet {
     private void listarHorarios(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         
-        List<Horario> horarios = horarioDao.listarTodos();
+        FiltroListado filtro = new FiltroListado();
+        filtro.setDia(Paginacion.enumerado(request, "dia", Horario.Dia.class));
+        filtro.setNivel(Paginacion.enumerado(request, "nivel", Curso.Nivel.class));
+        filtro.setGrado(Paginacion.entero(request, "grado"));
+        filtro.setDocenteId(Paginacion.entero(request, "docenteId"));
+        filtro.setAulaId(Paginacion.entero(request, "aulaId"));
+        
+        // La vista en memoria evita la consulta; mientras no se cargue, la BD
+        ClavePagina clave = Paginacion.clave(request);
+        int limite = Paginacion.tamanoPagina();
+        Pagina<HorarioResumen> pagina = HorarioSnapshot.getInstance().actual()
+                .map(v -> v.listarPagina(filtro, clave, limite))
+                .orElseGet(() -> horarioDao.listarPagina(filtro, clave, limite));
         
-        request.setAttribute("horarios", horarios);
-        request.setAttribute("totalHorarios", horarios.size());
+        request.setAttribute("horarios", pagina.getItems());
+        Paginacion.publicar(request, pagina, "dia", "nivel", "grado", "docenteId", "aulaId");
         
-        logger.debug("Listando {} horarios", horarios.size());
+        // Combos del filtro
+        request.setAttribute("docentes", catalogos.docentesActivos());
+        request.setAttribute("aulas", catalogos.aulasActivas());
+        request.setAttribute("dias", Horario.Dia.values());
+        
+        logger.debug("Listando página de {} horarios", pagina.getItems().size());
         
         request.getRequestDispatcher("/WEB-INF/views/horarios/listar.jsp").forward(request, response);
     }
     
+    /**
+     * Horario semanal de un docente, un aula o un curso (parámetro docenteId,
+     * aulaId o cursoId), agrupado por día. Las listas salen de la caché de
+     * horarios por recurso.
+     */
+    private void mostrarSemana(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        
+        Integer docenteId = Paginacion.entero(request, "docenteId");
+        Integer aulaId = Paginacion.entero(request, "aulaId");
+        Integer cursoId = Paginacion.entero(request, "cursoId");
+        
+        List<Horario> horarios;
+        String titulo;
+        if (docenteId != null) {
+            horarios = horarioDao.listarPorDocente(docenteId);
+            titulo = horarios.isEmpty() ? "Docente" : "Docente " + horarios.get(0).getDocente().getNombreCompleto();
+        } else if (aulaId != null) {
+            horarios = horarioDao.listarPorAula(aulaId);
+            titulo = horarios.isEmpty() ? "Aula" : "Aula " + horarios.get(0).getAula().getCodigo();
+        } else if (cursoId != null) {
+            horarios = horarioDao.listarPorCurso(cursoId);
+            titulo = horarios.isEmpty() ? "Curso" : "Curso " + horarios.get(0).getCurso().getNombre();
+        } else {
+            response.sendRedirect(request.getContextPath() + "/horarios?action=listar");
+            return;
+        }
+        
+        // Las listas vienen ordenadas por día y hora de inicio
+        Map<Horario.Dia, List<Horario>> porDia = new EnumMap<>(Horario.Dia.class);
+        for (Horario horario : horarios) {
+            porDia.computeIfAbsent(horario.getDia(), d -> new ArrayList<>()).add(horario);
+        }
+        
+        request.setAttribute("titulo", titulo);
+        request.setAttribute("total", horarios.size());
+        request.setAttribute("porDia", porDia);
+        request.setAttribute("dias", Horario.Dia.values());
+        
+        request.getRequestDispatcher("/WEB-INF/views/horarios/semana.jsp").forward(request, response);
+    }
+    
     private void mostrarFormularioNuevo(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         
-        // Cargar listas para los combos
-        cargarDatosFormulario(request);
+        // Cargar listas para los combos (una sola conexión para las tres consultas)
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            cargarDatosFormulario(request);
+            // Solo lecturas: el commit cierra la transacción sin el rollback de close()
+            uow.commit();
+        } catch (SQLException e) {
+            logger.error("Error al cargar datos del formulario: {}", e.getMessage());
+        }
         
         request.getRequestDispatcher("/WEB-INF/views/horarios/formulario.jsp").forward(request, response);
     }
@@ -134,11 +218,21 @@ public class HorarioController extends HttpServlet {
         
         try {
             Integer id = Integer.parseInt(idStr);
-            Optional<Horario> horarioOpt = horarioDao.buscarPorId(id);
+            Optional<Horario> horarioOpt;
+            
+            try (UnitOfWork uow = UnitOfWork.iniciar()) {
+                horarioOpt = horarioDao.buscarPorId(id);
+                if (horarioOpt.isPresent()) {
+                    cargarDatosFormulario(request);
+                }
+                uow.commit();
+            } catch (SQLException e) {
+                logger.error("Error al cargar horario {}: {}", id, e.getMessage());
+                horarioOpt = Optional.empty();
+            }
             
             if (horarioOpt.isPresent()) {
                 request.setAttribute("horario", horarioOpt.get());
-                cargarDatosFormulario(request);
                 request.getRequestDispatcher("/WEB-INF/views/horarios/formulario.jsp").forward(request, response);
             } else {
                 request.setAttribute("error", "Horario no encontrado");
@@ -150,82 +244,95 @@ public class HorarioController extends HttpServlet {
         }
     }
     
+    /**
+     * Crea un horario. Las validaciones de choque, la inserción y, si hay error,
+     * la carga de los combos usan una sola conexión y una sola transacción.
+     */
     private void crearHorario(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         
-        try {
-            // Obtener parámetros
-            Integer docenteId = Integer.parseInt(request.getParameter("docenteId"));
-            Integer aulaId = Integer.parseInt(request.getParameter("aulaId"));
-            Integer cursoId = Integer.parseInt(request.getParameter("cursoId"));
-            String diaStr = request.getParameter("dia");
-            String horaInicioStr = request.getParameter("horaInicio");
-            String horaFinStr = request.getParameter("horaFin");
-            
-            // Validar campos
-            if (diaStr == null || horaInicioStr == null || horaFinStr == null) {
-                request.setAttribute("error", "Todos los campos son obligatorios");
-                cargarDatosFormulario(request);
-                request.getRequestDispatcher("/WEB-INF/views/horarios/formulario.jsp").forward(request, response);
-                return;
-            }
-            
-            LocalTime horaInicio = LocalTime.parse(horaInicioStr);
-            LocalTime horaFin = LocalTime.parse(horaFinStr);
-            
-            // Validar que hora inicio < hora fin
-            if (!horaInicio.isBefore(horaFin)) {
-                request.setAttribute("error", "La hora de inicio debe ser menor que la hora de fin");
-                cargarDatosFormulario(request);
-                request.getRequestDispatcher("/WEB-INF/views/horarios/formulario.jsp").forward(request, response);
-                return;
-            }
-            
-            // Validar choque de docente
-            if (horarioDao.existeChoqueDocente(docenteId, diaStr, horaInicioStr, horaFinStr, null)) {
-                request.setAttribute("error", "El docente ya tiene un horario asignado en ese día y hora");
-                cargarDatosFormulario(request);
-                request.getRequestDispatcher("/WEB-INF/views/horarios/formulario.jsp").forward(request, response);
-                return;
-            }
-            
-            // Validar choque de aula
-            if (horarioDao.existeChoqueAula(aulaId, diaStr, horaInicioStr, horaFinStr, null)) {
-                request.setAttribute("error", "El aula ya está ocupada en ese día y hora");
-                cargarDatosFormulario(request);
-                request.getRequestDispatcher("/WEB-INF/views/horarios/formulario.jsp").forward(request, response);
-                return;
+        String error;
+        
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            try {
+                error = validarYCrear(request);
+                if (error == null) {
+                    uow.commit();
+                }
+            } catch (Exception e) {
+                logger.error("Error al crear horario: {}", e.getMessage());
+                error = "Error al procesar los datos: " + e.getMessage();
+                uow.rollback();
             }
             
-            // Crear horario
-            Horario horario = new Horario();
-            horario.setDocenteId(docenteId);
-            horario.setAulaId(aulaId);
-            horario.setCursoId(cursoId);
-            horario.setDia(Horario.Dia.valueOf(diaStr));
-            horario.setHoraInicio(horaInicio);
-            horario.setHoraFin(horaFin);
-            
-            boolean creado = horarioDao.insertar(horario);
-            
-            if (creado) {
-                logger.info("Horario creado: {} {}-{}", diaStr, horaInicioStr, horaFinStr);
-                request.getSession().setAttribute("mensaje", "Horario creado exitosamente");
-                response.sendRedirect(request.getContextPath() + "/horarios?action=listar");
-            } else {
-                request.setAttribute("error", "Error al crear el horario");
+            if (error != null) {
                 cargarDatosFormulario(request);
-                request.getRequestDispatcher("/WEB-INF/views/horarios/formulario.jsp").forward(request, response);
             }
-            
-        } catch (Exception e) {
+        } catch (SQLException e) {
             logger.error("Error al crear horario: {}", e.getMessage());
-            request.setAttribute("error", "Error al procesar los datos: " + e.getMessage());
-            cargarDatosFormulario(request);
+            error = "Error al procesar los datos: " + e.getMessage();
+        }
+        
+        if (error == null) {
+            request.getSession().setAttribute("mensaje", "Horario creado exitosamente");
+            response.sendRedirect(request.getContextPath() + "/horarios?action=listar");
+        } else {
+            request.setAttribute("error", error);
             request.getRequestDispatcher("/WEB-INF/views/horarios/formulario.jsp").forward(request, response);
         }
     }
     
+    /**
+     * Valida los datos del formulario e inserta el horario
+     * 
+     * @return null si se creó, o el mensaje de error a mostrar
+     */
+    private String validarYCrear(HttpServletRequest request) {
+        // Obtener parámetros
+        Integer docenteId = Integer.parseInt(request.getParameter("docenteId"));
+        Integer aulaId = Integer.parseInt(request.getParameter("aulaId"));
+        Integer cursoId = Integer.parseInt(request.getParameter("cursoId"));
+        String diaStr = request.getParameter("dia");
+        String horaInicioStr = request.getParameter("horaInicio");
+        String horaFinStr = request.getParameter("horaFin");
+        
+        // Validar campos
+        if (diaStr == null || horaInicioStr == null || horaFinStr == null) {
+            return "Todos los campos son obligatorios";
+        }
+        
+        LocalTime horaInicio = LocalTime.parse(horaInicioStr);
+        LocalTime horaFin = LocalTime.parse(horaFinStr);
+        
+        // Validar que hora inicio < hora fin
+        if (!horaInicio.isBefore(horaFin)) {
+            return "La hora de inicio debe ser menor que la hora de fin";
+        }
+        
+        // Crear horario
+        Horario horario = new Horario();
+        horario.setDocenteId(docenteId);
+        horario.setAulaId(aulaId);
+        horario.setCursoId(cursoId);
+        horario.setDia(Horario.Dia.valueOf(diaStr));
+        horario.setHoraInicio(horaInicio);
+        horario.setHoraFin(horaFin);
+        
+        // Verificar choques e insertar de forma atómica
+        ResultadoGuardado resultado = guardar(horario, false);
+        if (!resultado.isGuardado()) {
+            request.setAttribute("choques", resultado.getChoques());
+            return mensajeError(resultado, "Error al crear el horario");
+        }
+        
+        logger.info("Horario creado: {} {}-{}", diaStr, horaInicioStr, horaFinStr);
+        return null;
+    }
+    
+    /**
+     * Actualiza un horario en una sola conexión y transacción. El horario se
+     * lee una sola vez (el mapa de identidad evita consultas repetidas).
+     */
     private void actualizarHorario(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         
@@ -236,86 +343,148 @@ public class HorarioController extends HttpServlet {
             return;
         }
         
+        Integer id;
         try {
-            Integer id = Integer.parseInt(idStr);
-            Integer docenteId = Integer.parseInt(request.getParameter("docenteId"));
-            Integer aulaId = Integer.parseInt(request.getParameter("aulaId"));
-            Integer cursoId = Integer.parseInt(request.getParameter("cursoId"));
-            String diaStr = request.getParameter("dia");
-            String horaInicioStr = request.getParameter("horaInicio");
-            String horaFinStr = request.getParameter("horaFin");
-            
-            LocalTime horaInicio = LocalTime.parse(horaInicioStr);
-            LocalTime horaFin = LocalTime.parse(horaFinStr);
-            
-            // Validar que hora inicio < hora fin
-            if (!horaInicio.isBefore(horaFin)) {
-                request.setAttribute("error", "La hora de inicio debe ser menor que la hora de fin");
-                Optional<Horario> horarioOpt = horarioDao.buscarPorId(id);
-                if (horarioOpt.isPresent()) {
-                    request.setAttribute("horario", horarioOpt.get());
-                }
-                cargarDatosFormulario(request);
-                request.getRequestDispatcher("/WEB-INF/views/horarios/formulario.jsp").forward(request, response);
-                return;
-            }
-            
-            // Validar choque de docente (excluyendo este horario)
-            if (horarioDao.existeChoqueDocente(docenteId, diaStr, horaInicioStr, horaFinStr, id)) {
-                request.setAttribute("error", "El docente ya tiene un horario asignado en ese día y hora");
-                Optional<Horario> horarioOpt = horarioDao.buscarPorId(id);
-                if (horarioOpt.isPresent()) {
-                    request.setAttribute("horario", horarioOpt.get());
-                }
-                cargarDatosFormulario(request);
-                request.getRequestDispatcher("/WEB-INF/views/horarios/formulario.jsp").forward(request, response);
-                return;
-            }
-            
-            // Validar choque de aula (excluyendo este horario)
-            if (horarioDao.existeChoqueAula(aulaId, diaStr, horaInicioStr, horaFinStr, id)) {
-                request.setAttribute("error", "El aula ya está ocupada en ese día y hora");
-                Optional<Horario> horarioOpt = horarioDao.buscarPorId(id);
-                if (horarioOpt.isPresent()) {
-                    request.setAttribute("horario", horarioOpt.get());
-                }
-                cargarDatosFormulario(request);
-                request.getRequestDispatcher("/WEB-INF/views/horarios/formulario.jsp").forward(request, response);
-                return;
-            }
-            
+            id = Integer.parseInt(idStr);
+        } catch (NumberFormatException e) {
+            response.sendRedirect(request.getContextPath() + "/horarios?action=listar");
+            return;
+        }
+        
+        String error;
+        boolean encontrado = true;
+        
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
             Optional<Horario> horarioOpt = horarioDao.buscarPorId(id);
             
             if (horarioOpt.isEmpty()) {
-                request.setAttribute("error", "Horario no encontrado");
-                listarHorarios(request, response);
-                return;
-            }
-            
-            Horario horario = horarioOpt.get();
-            horario.setDocenteId(docenteId);
-            horario.setAulaId(aulaId);
-            horario.setCursoId(cursoId);
-            horario.setDia(Horario.Dia.valueOf(diaStr));
-            horario.setHoraInicio(horaInicio);
-            horario.setHoraFin(horaFin);
-            
-            boolean actualizado = horarioDao.actualizar(horario);
-            
-            if (actualizado) {
-                logger.info("Horario actualizado: ID {}", id);
-                request.getSession().setAttribute("mensaje", "Horario actualizado exitosamente");
-                response.sendRedirect(request.getContextPath() + "/horarios?action=listar");
+                encontrado = false;
+                error = "Horario no encontrado";
             } else {
-                request.setAttribute("error", "Error al actualizar el horario");
+                Horario horario = horarioOpt.get();
                 request.setAttribute("horario", horario);
-                cargarDatosFormulario(request);
-                request.getRequestDispatcher("/WEB-INF/views/horarios/formulario.jsp").forward(request, response);
+                error = validarYActualizar(request, horario);
+                
+                if (error == null) {
+                    uow.commit();
+                } else {
+                    uow.rollback();
+                    cargarDatosFormulario(request);
+                }
             }
-            
         } catch (Exception e) {
             logger.error("Error al actualizar horario: {}", e.getMessage());
             response.sendRedirect(request.getContextPath() + "/horarios?action=listar");
+            return;
+        }
+        
+        if (!encontrado) {
+            request.setAttribute("error", error);
+            listarHorarios(request, response);
+        } else if (error == null) {
+            logger.info("Horario actualizado: ID {}", id);
+            request.getSession().setAttribute("mensaje", "Horario actualizado exitosamente");
+            response.sendRedirect(request.getContextPath() + "/horarios?action=listar");
+        } else {
+            request.setAttribute("error", error);
+            request.getRequestDispatcher("/WEB-INF/views/horarios/formulario.jsp").forward(request, response);
+        }
+    }
+    
+    /**
+     * Valida los datos del formulario y actualiza el horario recibido
+     * 
+     * @return null si se actualizó, o el mensaje de error a mostrar
+     */
+    private String validarYActualizar(HttpServletRequest request, Horario horario) {
+        Integer docenteId = Integer.parseInt(request.getParameter("docenteId"));
+        Integer aulaId = Integer.parseInt(request.getParameter("aulaId"));
+        Integer cursoId = Integer.parseInt(request.getParameter("cursoId"));
+        String diaStr = request.getParameter("dia");
+        String horaInicioStr = request.getParameter("horaInicio");
+        String horaFinStr = request.getParameter("horaFin");
+        
+        LocalTime horaInicio = LocalTime.parse(horaInicioStr);
+        LocalTime horaFin = LocalTime.parse(horaFinStr);
+        
+        // Validar que hora inicio < hora fin
+        if (!horaInicio.isBefore(horaFin)) {
+            return "La hora de inicio debe ser menor que la hora de fin";
+        }
+        
+        // El horario es el del mapa de identidad: sin docente, aula o curso
+        // anteriores, para que los listeners no tomen los de los IDs viejos
+        if (!docenteId.equals(horario.getDocenteId())) {
+            horario.setDocente(null);
+        }
+        if (!aulaId.equals(horario.getAulaId())) {
+            horario.setAula(null);
+        }
+        if (!cursoId.equals(horario.getCursoId())) {
+            horario.setCurso(null);
+        }
+        horario.setDocenteId(docenteId);
+        horario.setAulaId(aulaId);
+        horario.setCursoId(cursoId);
+        horario.setDia(Horario.Dia.valueOf(diaStr));
+        horario.setHoraInicio(horaInicio);
+        horario.setHoraFin(horaFin);
+        
+        // Verificar choques (excluyendo este horario) y actualizar de forma atómica
+        ResultadoGuardado resultado = guardar(horario, true);
+        if (!resultado.isGuardado()) {
+            request.setAttribute("choques", resultado.getChoques());
+            return mensajeError(resultado, "Error al actualizar el horario");
+        }
+        return null;
+    }
+    
+    /**
+     * Guarda el horario. Un choque evidente en el índice en memoria se responde
+     * con una sola consulta (para el detalle) y sin tomar bloqueos; la
+     * verificación dentro de la transacción sigue siendo la definitiva. Si la
+     * base de datos y el índice no coinciden, el índice se recarga.
+     */
+    private ResultadoGuardado guardar(Horario horario, boolean actualizar) {
+        boolean choqueEnIndice = horarioIndex.hayChoque(horario);
+        if (choqueEnIndice) {
+            Optional<List<Horario>> choques = horarioDao.buscarChoques(horario, LIMITE_CHOQUES);
+            if (!choques.isPresent()) {
+                return new ResultadoGuardado(ResultadoGuardado.Estado.ERROR);
+            }
+            if (!choques.get().isEmpty()) {
+                return ResultadoGuardado.choque(horario, choques.get());
+            }
+            horarioIndex.invalidar();
+        }
+        
+        ResultadoGuardado resultado = actualizar
+                ? horarioDao.actualizarSinChoque(horario)
+                : horarioDao.insertarSinChoque(horario);
+        
+        if (resultado.isChoque() && !choqueEnIndice && horarioIndex.isCargado()) {
+            horarioIndex.invalidar();
+        }
+        return resultado;
+    }
+    
+    /**
+     * Mensaje a mostrar cuando no se pudo guardar el horario
+     */
+    private String mensajeError(ResultadoGuardado resultado, String porDefecto) {
+        switch (resultado.getEstado()) {
+            case CHOQUE_DOCENTE:
+                return "El docente ya tiene un horario asignado en ese día y hora";
+            case CHOQUE_AULA:
+                return "El aula ya está ocupada en ese día y hora";
+            case CHOQUE_SECCION:
+                return "La sección ya tiene otro curso en ese día y hora";
+            case NO_ENCONTRADO:
+                return "Horario no encontrado";
+            case BLOQUEADO:
+                return "Otro usuario está guardando un horario del mismo docente o aula; intente nuevamente";
+            default:
+                return porDefecto;
         }
     }
     
@@ -352,9 +521,9 @@ public class HorarioController extends HttpServlet {
      * Carga las listas necesarias para los combos del formulario
      */
     private void cargarDatosFormulario(HttpServletRequest request) {
-        List<Docente> docentes = docenteDao.listarActivos();
-        List<Aula> aulas = aulaDao.listarActivas();
-        List<Curso> cursos = cursoDao.listarActivos();
+        List<Docente> docentes = catalogos.docentesActivos();
+        List<Aula> aulas = catalogos.aulasActivas();
+        List<Curso> cursos = catalogos.cursosActivos();
         
         request.setAttribute("docentes", docentes);
         request.setAttribute("aulas", aulas);
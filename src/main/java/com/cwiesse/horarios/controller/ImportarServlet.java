@@ -0,0 +1,93 @@
+package com.cwiesse.horarios.controller;
+
+import com.cwiesse.horarios.service.ExcelImportService;
+import com.cwiesse.horarios.service.ExcelImportService.TipoImportacion;
+import com.cwiesse.horarios.service.ReporteImportacion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.MultipartConfig;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.Part;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Servlet para importar docentes, aulas, cursos y horarios desde Excel.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+@WebServlet(name = "ImportarServlet", urlPatterns = {"/importar"})
+@MultipartConfig(maxFileSize = 20 * 1024 * 1024, fileSizeThreshold = 1024 * 1024)
+public class ImportarServlet extends HttpServlet {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ImportarServlet.class);
+    private static final String VISTA = "/WEB-INF/views/importar/formulario.jsp";
+    private ExcelImportService importService;
+    
+    @Override
+    public void init() throws ServletException {
+        importService = new ExcelImportService();
+        logger.info("ImportarServlet inicializado");
+    }
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        request.setAttribute("tipos", TipoImportacion.values());
+        request.getRequestDispatcher(VISTA).forward(request, response);
+    }
+    
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        
+        request.setAttribute("tipos", TipoImportacion.values());
+        
+        TipoImportacion tipo;
+        try {
+            tipo = TipoImportacion.valueOf(request.getParameter("tipo"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            request.setAttribute("error", "Seleccione qué desea importar");
+            request.getRequestDispatcher(VISTA).forward(request, response);
+            return;
+        }
+        
+        Part archivo = request.getPart("archivo");
+        if (archivo == null || archivo.getSize() == 0
+                || !archivo.getSubmittedFileName().toLowerCase().endsWith(".xlsx")) {
+            request.setAttribute("error", "Seleccione un archivo Excel (.xlsx)");
+            request.getRequestDispatcher(VISTA).forward(request, response);
+            return;
+        }
+        
+        // POI lee el .xlsx por streaming desde disco, no desde memoria
+        File temporal = File.createTempFile("importar-", ".xlsx");
+        try {
+            try (InputStream in = archivo.getInputStream()) {
+                Files.copy(in, temporal.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.info("Importando {} desde {} ({} bytes)", tipo, archivo.getSubmittedFileName(), archivo.getSize());
+            
+            ReporteImportacion reporte = importService.importar(tipo, temporal);
+            request.setAttribute("reporte", reporte);
+            
+        } catch (IOException e) {
+            logger.error("Error al importar {}: {}", tipo, e.getMessage(), e);
+            request.setAttribute("error", "No se pudo leer el archivo: " + e.getMessage());
+        } finally {
+            Files.deleteIfExists(temporal.toPath());
+        }
+        
+        request.setAttribute("tipoSeleccionado", tipo.name());
+        request.getRequestDispatcher(VISTA).forward(request, response);
+    }
+}
@@ -0,0 +1,103 @@
+package com.cwiesse.horarios.controller;
+
+import com.cwiesse.horarios.dao.impl.CachingHorarioDao;
+import com.cwiesse.horarios.dao.impl.DaoFactory;
+import com.cwiesse.horarios.service.CatalogoCache;
+import com.cwiesse.horarios.service.HorarioSnapshot;
+import com.cwiesse.horarios.util.DBConnection;
+import com.cwiesse.horarios.util.LockProvider;
+import com.cwiesse.horarios.util.PoolStats;
+import com.google.common.cache.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Servlet de monitoreo: expone los contadores internos en texto plano
+ * (clave=valor) para que puedan ser leídos por herramientas de monitoreo.
+ * Solo accesible para administradores.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+@WebServlet(name = "MonitoreoServlet", urlPatterns = {"/monitoreo"})
+public class MonitoreoServlet extends HttpServlet {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MonitoreoServlet.class);
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        
+        HttpSession session = request.getSession(false);
+        if (session == null || !"ADMIN".equals(session.getAttribute("rol"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        
+        response.setContentType("text/plain;charset=UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        PrintWriter out = response.getWriter();
+        
+        DBConnection db = DBConnection.getInstance();
+        PoolStats stats = db.getEstadisticas();
+        out.println("pool.origen=" + (db.isJndi() ? "jndi" : "interno"));
+        out.println("pool.activas=" + stats.getActivas());
+        out.println("pool.ociosas=" + stats.getOciosas());
+        out.println("pool.enEspera=" + stats.getEnEspera());
+        out.println("pool.total=" + stats.getTotal());
+        out.println("pool.prestamos=" + stats.getPrestamos());
+        out.println("pool.prestamo.p50Ms=" + String.format("%.3f", stats.getPrestamoP50Ms()));
+        out.println("pool.prestamo.p99Ms=" + String.format("%.3f", stats.getPrestamoP99Ms()));
+        out.println("pool.fugas.sentencias=" + stats.getSentenciasNoCerradas());
+        out.println("pool.fugas.retenidas=" + stats.getConexionesRetenidas());
+        
+        PoolStats lectura = db.getEstadisticasLectura();
+        if (lectura != null) {
+            out.println("lectura.activas=" + lectura.getActivas());
+            out.println("lectura.ociosas=" + lectura.getOciosas());
+            out.println("lectura.enEspera=" + lectura.getEnEspera());
+            out.println("lectura.total=" + lectura.getTotal());
+            out.println("lectura.prestamos=" + lectura.getPrestamos());
+            out.println("lectura.prestamo.p50Ms=" + String.format("%.3f", lectura.getPrestamoP50Ms()));
+            out.println("lectura.prestamo.p99Ms=" + String.format("%.3f", lectura.getPrestamoP99Ms()));
+            out.println("lectura.desviadas=" + db.getLecturasDesviadas());
+        }
+        
+        LockProvider bloqueos = db.getLockProvider();
+        out.println("bloqueos.esperas=" + bloqueos.getEspera().getTotal());
+        out.println("bloqueos.espera.p50Ms=" + String.format("%.3f", bloqueos.getEspera().percentilMs(50)));
+        out.println("bloqueos.espera.p99Ms=" + String.format("%.3f", bloqueos.getEspera().percentilMs(99)));
+        out.println("bloqueos.agotados=" + bloqueos.getTiemposAgotados());
+        
+        CacheStats catalogos = CatalogoCache.getInstance().getEstadisticas();
+        out.println("catalogos.aciertos=" + catalogos.hitCount());
+        out.println("catalogos.fallos=" + catalogos.missCount());
+        out.println("catalogos.tasaAciertos=" + String.format("%.3f", catalogos.hitRate()));
+        out.println("catalogos.desalojos=" + catalogos.evictionCount());
+        
+        CachingHorarioDao horarioCache = DaoFactory.getHorarioCache();
+        if (horarioCache != null) {
+            CacheStats horarios = horarioCache.getEstadisticas();
+            out.println("horarios.cache.aciertos=" + horarios.hitCount());
+            out.println("horarios.cache.fallos=" + horarios.missCount());
+            out.println("horarios.cache.tasaAciertos=" + String.format("%.3f", horarios.hitRate()));
+            out.println("horarios.cache.desalojos=" + horarios.evictionCount());
+        }
+        
+        HorarioSnapshot.getInstance().actual().ifPresent(vista -> {
+            out.println("horarios.vista.version=" + vista.getVersion());
+            out.println("horarios.vista.total=" + vista.getTotal());
+        });
+        
+        logger.debug("Estadísticas consultadas: {}", stats);
+    }
+}
@@ -0,0 +1,89 @@
+package com.cwiesse.horarios.controller;
+
+import com.cwiesse.horarios.dao.ClavePagina;
+import com.cwiesse.horarios.dao.Pagina;
+import com.cwiesse.horarios.util.AppConfig;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lectura de los parámetros de filtro y página de los listados.
+ * Los valores vacíos o inválidos se tratan como "sin filtro".
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+final class Paginacion {
+    
+    private Paginacion() {
+    }
+    
+    /**
+     * Filas por página (listado.tamanoPagina)
+     */
+    static int tamanoPagina() {
+        return Math.max(1, AppConfig.getEntero("listado.tamanoPagina", 50));
+    }
+    
+    /**
+     * Clave de la página pedida con los parámetros despues/antes (null para la primera)
+     */
+    static ClavePagina clave(HttpServletRequest request) {
+        String antes = request.getParameter("antes");
+        if (antes != null && !antes.isEmpty()) {
+            return ClavePagina.antes(antes);
+        }
+        return ClavePagina.despues(request.getParameter("despues"));
+    }
+    
+    static Integer entero(HttpServletRequest request, String nombre) {
+        String valor = request.getParameter(nombre);
+        if (valor == null || valor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(valor.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    static Boolean booleano(HttpServletRequest request, String nombre) {
+        String valor = request.getParameter(nombre);
+        if (valor == null || valor.trim().isEmpty()) {
+            return null;
+        }
+        return "1".equals(valor) || Boolean.parseBoolean(valor);
+    }
+    
+    static <E extends Enum<E>> E enumerado(HttpServletRequest request, String nombre, Class<E> tipo) {
+        String valor = request.getParameter(nombre);
+        if (valor == null || valor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(tipo, valor.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Publica la página y los filtros activos ("&amp;dia=LUN...") para armar
+     * los enlaces anterior/siguiente sin perder el filtro
+     */
+    static void publicar(HttpServletRequest request, Pagina<?> pagina, String... filtros) {
+        StringBuilder consulta = new StringBuilder();
+        for (String nombre : filtros) {
+            String valor = request.getParameter(nombre);
+            if (valor != null && !valor.trim().isEmpty()) {
+                consulta.append('&').append(nombre).append('=')
+                        .append(URLEncoder.encode(valor.trim(), StandardCharsets.UTF_8));
+            }
+        }
+        request.setAttribute("pagina", pagina);
+        request.setAttribute("filtroQuery", consulta.toString());
+    }
+}
@@ -0,0 +1,95 @@
+package com.cwiesse.horarios.controller;
+
+import com.cwiesse.horarios.dao.impl.VersionDatos;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * GET condicional (ETag / Last-Modified) para listados y exportaciones.
+ * El ETag se arma con las versiones de datos que este nodo ya conoce
+ * (VersionDatos), así que responder 304 no consulta la BD ni genera nada.
+ * 
+ * El ETag incluye además al usuario de la sesión y el mensaje pendiente, que
+ * también se muestran en la página. Si alguna versión aún no se conoce (por
+ * ejemplo, con datos.version.intervaloSegundos=0) la respuesta se genera
+ * siempre, sin cabeceras de validación.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+final class RespuestaCondicional {
+    
+    private RespuestaCondicional() {
+    }
+    
+    /**
+     * Pone ETag y Last-Modified según las entidades que muestra la respuesta
+     * y, si la copia del cliente está al día, responde 304.
+     * 
+     * @param entidades entidades de VersionDatos de las que depende la respuesta
+     * @return true si se respondió 304: no hay que generar la respuesta
+     */
+    static boolean noModificado(HttpServletRequest request, HttpServletResponse response, String... entidades) {
+        StringBuilder etag = new StringBuilder("W/\"");
+        long modificada = 0;
+        
+        for (String entidad : entidades) {
+            Optional<VersionDatos.Version> version = VersionDatos.conocida(entidad);
+            if (!version.isPresent()) {
+                return false;
+            }
+            etag.append(entidad.charAt(0)).append(version.get().getNumero()).append('-');
+            modificada = Math.max(modificada, version.get().getModificada());
+        }
+        HttpSession session = request.getSession(false);
+        Object mensaje = session == null ? null : session.getAttribute("mensaje");
+        Object usuario = session == null ? null : session.getAttribute("username");
+        etag.append(Integer.toHexString(Objects.hash(usuario, mensaje, request.getAttribute("error")))).append('"');
+        
+        // private: la página depende del usuario; no-cache: validar en cada uso
+        response.setHeader("Cache-Control", "private, no-cache");
+        response.setHeader("ETag", etag.toString());
+        response.setDateHeader("Last-Modified", modificada);
+        
+        // Con un mensaje pendiente la fecha sola no basta: hay que mostrarlo
+        boolean porFecha = mensaje == null && request.getAttribute("error") == null;
+        if (coincide(request, etag.toString(), modificada, porFecha)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * If-None-Match manda sobre If-Modified-Since cuando vienen los dos
+     */
+    private static boolean coincide(HttpServletRequest request, String etag, long modificada, boolean porFecha) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            String propio = etag.substring(2);
+            for (String valor : ifNoneMatch.split(",")) {
+                valor = valor.trim();
+                // Comparación débil: se ignora el prefijo W/
+                if (valor.equals("*") || (valor.startsWith("W/") ? valor.substring(2) : valor).equals(propio)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        if (!porFecha) {
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            // Last-Modified se envía en segundos
+            return ifModifiedSince >= 0 && modificada / 1000 * 1000 <= ifModifiedSince;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -32,21 +32,54 @@ public interface AulaDao {
      */
     List<Aula> listarActivas();
     
+    /**
+     * Lista una página ordenada por edificio, piso y código, paginando por clave
+     * en lugar de OFFSET
+     * 
+     * @param filtro filtros opcionales
+     * @param clave posición de la página (null para la primera)
+     * @param limite filas por página
+     */
+    Pagina<Aula> listarPagina(FiltroListado filtro, ClavePagina clave, int limite);
+    
     /**
      * Inserta una nueva aula
      */
     boolean insertar(Aula aula);
     
+    /**
+     * Inserta varias aulas en una sola transacción (executeBatch por
+     * tramos de db.batch.size).
+     * Asigna a cada aula el ID generado.
+     * 
+     * @return true si se insertaron todos; si falla alguno no se inserta ninguno
+     */
+    boolean insertarLote(List<Aula> aulas);
+    
     /**
      * Actualiza un aula existente
      */
     boolean actualizar(Aula aula);
     
+    /**
+     * Actualiza varias aulas en una sola transacción
+     * 
+     * @return true si se actualizaron todas; si falla alguna no se actualiza ninguna
+     */
+    boolean actualizarLote(List<Aula> aulas);
+    
     /**
      * Elimina un aula por su ID
      */
     boolean eliminar(Integer id);
     
+    /**
+     * Elimina varias aulas por ID en una sola transacción
+     * 
+     * @return true si se eliminaron todas; si falla alguna no se elimina ninguna
+     */
+    boolean eliminarLote(List<Integer> ids);
+    
     /**
      * Verifica si existe un aula con ese código
      */
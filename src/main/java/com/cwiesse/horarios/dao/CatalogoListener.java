@@ -0,0 +1,19 @@
+package com.cwiesse.horarios.dao;
+
+/**
+ * Recibe los cambios confirmados en los catálogos (docentes, aulas y cursos).
+ * Como en HorarioListener, si el cambio ocurre dentro de una unidad de
+ * trabajo se notifica después del commit; si se deshace, no se notifica.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public interface CatalogoListener {
+    
+    /**
+     * Se insertó, actualizó, eliminó o desactivó al menos un registro
+     * 
+     * @param catalogo clase del modelo que cambió (Docente, Aula o Curso)
+     */
+    void alCambiar(Class<?> catalogo);
+}
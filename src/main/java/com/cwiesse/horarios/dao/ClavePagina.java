@@ -0,0 +1,117 @@
+package com.cwiesse.horarios.dao;
+
+import com.cwiesse.horarios.dao.jdbc.Parametros;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Base64;
+
+/**
+ * Posición en un listado paginado por clave (keyset): los valores de las
+ * columnas del ORDER BY de la última fila vista. En lugar de OFFSET, la
+ * siguiente página se pide con "columnas &gt; valores", que usa el índice y
+ * cuesta lo mismo en la página 1 que en la 1000.
+ * 
+ * Se transporta en la URL como un token opaco (Base64).
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public final class ClavePagina {
+    
+    private static final String SEPARADOR = "\u001F";
+    
+    private final String[] valores;
+    private final boolean atras;
+    
+    private ClavePagina(String[] valores, boolean atras) {
+        this.valores = valores;
+        this.atras = atras;
+    }
+    
+    /**
+     * Clave para pedir las filas que siguen a la del token
+     * 
+     * @return null si el token está vacío o es inválido (primera página)
+     */
+    public static ClavePagina despues(String token) {
+        return decodificar(token, false);
+    }
+    
+    /**
+     * Clave para pedir las filas anteriores a la del token
+     */
+    public static ClavePagina antes(String token) {
+        return decodificar(token, true);
+    }
+    
+    static String codificar(String... valores) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.join(SEPARADOR, valores).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static ClavePagina decodificar(String token, boolean atras) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return new ClavePagina(texto.split(SEPARADOR, -1), atras);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * true si se piden las filas anteriores (la consulta va en orden inverso)
+     */
+    public boolean isAtras() {
+        return atras;
+    }
+    
+    public int size() {
+        return valores.length;
+    }
+    
+    public String get(int posicion) {
+        return valores[posicion];
+    }
+    
+    /**
+     * Condición keyset sobre las columnas del ORDER BY, expandida para que
+     * MySQL pueda usar el índice:
+     * (c1 &gt; ? OR (c1 = ? AND (c2 &gt; ? OR (c2 = ? AND c3 &gt; ?))))
+     * 
+     * Los parámetros se enlazan con {@link #enlazar}.
+     */
+    public String condicion(String... columnas) {
+        String op = atras ? " < ?" : " > ?";
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < columnas.length; i++) {
+            if (i == columnas.length - 1) {
+                sql.append(columnas[i]).append(op);
+            } else {
+                sql.append("(").append(columnas[i]).append(op)
+                   .append(" OR (").append(columnas[i]).append(" = ? AND ");
+            }
+        }
+        for (int i = 0; i < columnas.length - 1; i++) {
+            sql.append("))");
+        }
+        return sql.toString();
+    }
+    
+    /**
+     * Enlaza los valores de la clave en el orden que espera {@link #condicion}
+     * 
+     * @param valores valores ya convertidos al tipo de cada columna
+     */
+    public static void enlazar(Parametros p, Object... valores) throws SQLException {
+        for (int i = 0; i < valores.length; i++) {
+            p.objeto(valores[i]);
+            if (i < valores.length - 1) {
+                p.objeto(valores[i]);
+            }
+        }
+    }
+}
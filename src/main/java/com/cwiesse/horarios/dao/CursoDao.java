@@ -32,21 +32,54 @@ public interface CursoDao {
      */
     List<Curso> listarActivos();
     
+    /**
+     * Lista una página ordenada por nivel, grado y nombre, paginando por clave
+     * en lugar de OFFSET
+     * 
+     * @param filtro filtros opcionales
+     * @param clave posición de la página (null para la primera)
+     * @param limite filas por página
+     */
+    Pagina<Curso> listarPagina(FiltroListado filtro, ClavePagina clave, int limite);
+    
     /**
      * Inserta un nuevo curso
      */
     boolean insertar(Curso curso);
     
+    /**
+     * Inserta varios cursos en una sola transacción (executeBatch por
+     * tramos de db.batch.size).
+     * Asigna a cada curso el ID generado.
+     * 
+     * @return true si se insertaron todos; si falla alguno no se inserta ninguno
+     */
+    boolean insertarLote(List<Curso> cursos);
+    
     /**
      * Actualiza un curso existente
      */
     boolean actualizar(Curso curso);
     
+    /**
+     * Actualiza varios cursos en una sola transacción
+     * 
+     * @return true si se actualizaron todos; si falla alguno no se actualiza ninguno
+     */
+    boolean actualizarLote(List<Curso> cursos);
+    
     /**
      * Elimina un curso por su ID
      */
     boolean eliminar(Integer id);
     
+    /**
+     * Elimina varios cursos por ID en una sola transacción
+     * 
+     * @return true si se eliminaron todos; si falla alguno no se elimina ninguno
+     */
+    boolean eliminarLote(List<Integer> ids);
+    
     /**
      * Verifica si existe un curso con ese código
      */
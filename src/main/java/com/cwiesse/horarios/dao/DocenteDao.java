@@ -32,21 +32,54 @@ public interface DocenteDao {
      */
     List<Docente> listarActivos();
     
+    /**
+     * Lista una página ordenada por apellidos y nombre, paginando por clave
+     * en lugar de OFFSET
+     * 
+     * @param filtro filtros opcionales
+     * @param clave posición de la página (null para la primera)
+     * @param limite filas por página
+     */
+    Pagina<Docente> listarPagina(FiltroListado filtro, ClavePagina clave, int limite);
+    
     /**
      * Inserta un nuevo docente
      */
     boolean insertar(Docente docente);
     
+    /**
+     * Inserta varios docentes en una sola transacción (executeBatch por
+     * tramos de db.batch.size).
+     * Asigna a cada docente el ID generado.
+     * 
+     * @return true si se insertaron todos; si falla alguno no se inserta ninguno
+     */
+    boolean insertarLote(List<Docente> docentes);
+    
     /**
      * Actualiza un docente existente
      */
     boolean actualizar(Docente docente);
     
+    /**
+     * Actualiza varios docentes en una sola transacción
+     * 
+     * @return true si se actualizaron todos; si falla alguno no se actualiza ninguno
+     */
+    boolean actualizarLote(List<Docente> docentes);
+    
     /**
      * Elimina un docente por su ID
      */
     boolean eliminar(Integer id);
     
+    /**
+     * Elimina varios docentes por ID en una sola transacción
+     * 
+     * @return true si se eliminaron todos; si falla alguno no se elimina ninguno
+     */
+    boolean eliminarLote(List<Integer> ids);
+    
     /**
      * Desactiva un docente (borrado lógico)
      */
@@ -0,0 +1,69 @@
+package com.cwiesse.horarios.dao;
+
+import com.cwiesse.horarios.model.Curso;
+import com.cwiesse.horarios.model.Horario;
+
+/**
+ * Filtros opcionales de los listados paginados. Cada DAO aplica los que
+ * corresponden a su tabla e ignora el resto; null significa "sin filtro".
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class FiltroListado {
+    
+    private Horario.Dia dia;
+    private Curso.Nivel nivel;
+    private Integer grado;
+    private Integer docenteId;
+    private Integer aulaId;
+    private Boolean estado;
+    
+    public Horario.Dia getDia() {
+        return dia;
+    }
+    
+    public void setDia(Horario.Dia dia) {
+        this.dia = dia;
+    }
+    
+    public Curso.Nivel getNivel() {
+        return nivel;
+    }
+    
+    public void setNivel(Curso.Nivel nivel) {
+        this.nivel = nivel;
+    }
+    
+    public Integer getGrado() {
+        return grado;
+    }
+    
+    public void setGrado(Integer grado) {
+        this.grado = grado;
+    }
+    
+    public Integer getDocenteId() {
+        return docenteId;
+    }
+    
+    public void setDocenteId(Integer docenteId) {
+        this.docenteId = docenteId;
+    }
+    
+    public Integer getAulaId() {
+        return aulaId;
+    }
+    
+    public void setAulaId(Integer aulaId) {
+        this.aulaId = aulaId;
+    }
+    
+    public Boolean getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(Boolean estado) {
+        this.estado = estado;
+    }
+}
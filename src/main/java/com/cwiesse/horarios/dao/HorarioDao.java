@@ -1,8 +1,10 @@
 package com.cwiesse.horarios.dao;
 
 import com.cwiesse.horarios.model.Horario;
+import com.cwiesse.horarios.model.HorarioResumen;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Interfaz DAO para operaciones con la tabla horario.
@@ -22,6 +24,39 @@ public interface HorarioDao {
      */
     List<Horario> listarTodos();
     
+    /**
+     * Todos los horarios, como listarTodos, pero distingue un error de una
+     * tabla vacía. Pensado para cargar índices y vistas en memoria, que no
+     * deben publicarse vacíos por un fallo de la BD.
+     * 
+     * @return vacío si falló la consulta
+     */
+    Optional<List<Horario>> leerTodos();
+    
+    /**
+     * Lista una página ordenada por día y hora de inicio, paginando por clave
+     * en lugar de OFFSET. Devuelve resúmenes: solo las columnas que muestra
+     * el listado.
+     * 
+     * @param filtro filtros opcionales
+     * @param clave posición de la página (null para la primera)
+     * @param limite filas por página
+     */
+    Pagina<HorarioResumen> listarPagina(FiltroListado filtro, ClavePagina clave, int limite);
+    
+    /**
+     * Recorre los horarios filtrados, en orden de día y hora, sin cargarlos
+     * todos en memoria: las filas se leen de la BD a medida que el consumidor
+     * las procesa. Pensado para exportaciones y reportes grandes, por eso
+     * entrega resúmenes en lugar de horarios completos.
+     * 
+     * Mientras dura el recorrido la conexión queda ocupada; el consumidor no
+     * debe hacer otras consultas dentro de la misma unidad de trabajo.
+     * 
+     * @return true si se recorrieron todas las filas, false si hubo un error
+     */
+    boolean recorrer(FiltroListado filtro, Consumer<HorarioResumen> consumidor);
+    
     /**
      * Lista horarios de un docente específico
      */
@@ -42,25 +77,72 @@ public interface HorarioDao {
      */
     boolean insertar(Horario horario);
     
+    /**
+     * Inserta varios horarios en una sola transacción (executeBatch por
+     * tramos de db.batch.size).
+     * Asigna a cada horario el ID generado. No verifica choques: validar
+     * antes el lote (ValidadorLoteHorarios).
+     * 
+     * @return true si se insertaron todos; si falla alguno no se inserta ninguno
+     */
+    boolean insertarLote(List<Horario> horarios);
+    
     /**
      * Actualiza un horario existente
      */
     boolean actualizar(Horario horario);
     
+    /**
+     * Actualiza varios horarios en una sola transacción
+     * 
+     * @return true si se actualizaron todos; si falla alguno no se actualiza ninguno
+     */
+    boolean actualizarLote(List<Horario> horarios);
+    
     /**
      * Elimina un horario por su ID
      */
     boolean eliminar(Integer id);
     
     /**
-     * Verifica si hay choque de horarios para un docente
-     * @return true si hay choque, false si no hay choque
+     * Elimina varios horarios por ID en una sola transacción
+     * 
+     * @return true si se eliminaron todos; si falla alguno no se elimina ninguno
+     */
+    boolean eliminarLote(List<Integer> ids);
+    
+    /**
+     * Inserta un horario solo si no choca con otro del mismo docente, aula o
+     * sección. La verificación y la inserción ocurren en una misma transacción
+     * que bloquea únicamente al docente, al aula y a la sección para ese día.
+     */
+    ResultadoGuardado insertarSinChoque(Horario horario);
+    
+    /**
+     * Actualiza un horario solo si no choca con otro del mismo docente, aula o
+     * sección (mismas garantías que insertarSinChoque)
+     */
+    ResultadoGuardado actualizarSinChoque(Horario horario);
+    
+    /**
+     * Inserta un lote con las mismas garantías que insertarSinChoque: bloquea
+     * a los docentes, aulas y secciones del lote para sus días, verifica en
+     * la BD y, en una sola transacción, inserta los horarios que no chocan con
+     * los registrados. No verifica los choques dentro del lote: validar antes
+     * el lote (ValidadorLoteHorarios).
+     * 
+     * @return un resultado por horario, en el mismo orden: GUARDADO o de
+     *         choque; si el lote falla, todos ERROR o BLOQUEADO y no se inserta ninguno
      */
-    boolean existeChoqueDocente(Integer docenteId, String dia, String horaInicio, String horaFin, Integer horarioIdExcluir);
+    List<ResultadoGuardado> insertarLoteSinChoque(List<Horario> horarios);
     
     /**
-     * Verifica si hay choque de horarios para un aula
-     * @return true si hay choque, false si no hay choque
+     * Horarios que chocan con el dado: mismo día, intervalos solapados y mismo
+     * docente, aula o sección (nivel y grado del curso). Si el horario tiene ID
+     * se excluye a sí mismo.
+     * 
+     * @param limite máximo de choques a devolver
+     * @return lista vacía si no hay choques; vacío si no se pudo consultar
      */
-    boolean existeChoqueAula(Integer aulaId, String dia, String horaInicio, String horaFin, Integer horarioIdExcluir);
+    Optional<List<Horario>> buscarChoques(Horario horario, int limite);
 }
\ No newline at end of file
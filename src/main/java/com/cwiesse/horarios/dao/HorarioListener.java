@@ -0,0 +1,24 @@
+package com.cwiesse.horarios.dao;
+
+import com.cwiesse.horarios.model.Horario;
+
+/**
+ * Recibe los cambios confirmados sobre la tabla horario.
+ * Si el cambio ocurre dentro de una unidad de trabajo, se notifica después
+ * del commit; si se deshace, no se notifica.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public interface HorarioListener {
+    
+    /**
+     * Un horario fue insertado o actualizado
+     */
+    void alGuardar(Horario horario);
+    
+    /**
+     * Un horario fue eliminado
+     */
+    void alEliminar(Integer id);
+}
@@ -0,0 +1,80 @@
+package com.cwiesse.horarios.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Una página de un listado paginado por clave, con los tokens para pedir la
+ * página siguiente y la anterior (null si no hay).
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public final class Pagina<T> {
+    
+    private final List<T> items;
+    private final String siguiente;
+    private final String anterior;
+    
+    private Pagina(List<T> items, String siguiente, String anterior) {
+        this.items = Collections.unmodifiableList(items);
+        this.siguiente = siguiente;
+        this.anterior = anterior;
+    }
+    
+    public static <T> Pagina<T> vacia() {
+        return new Pagina<>(new ArrayList<>(), null, null);
+    }
+    
+    /**
+     * Arma la página a partir de las filas leídas con LIMIT limite + 1
+     * 
+     * @param filas filas en el orden de la consulta (invertido si la clave va hacia atrás)
+     * @param clave clave usada en la consulta (null para la primera página)
+     * @param claveDe valores de las columnas del ORDER BY de una fila
+     */
+    public static <T> Pagina<T> armar(List<T> filas, ClavePagina clave, int limite,
+                                      Function<T, String[]> claveDe) {
+        boolean hayMas = filas.size() > limite;
+        List<T> items = new ArrayList<>(filas.subList(0, Math.min(limite, filas.size())));
+        if (items.isEmpty()) {
+            return vacia();
+        }
+        
+        String primera;
+        String ultima;
+        if (clave != null && clave.isAtras()) {
+            Collections.reverse(items);
+            primera = hayMas ? ClavePagina.codificar(claveDe.apply(items.get(0))) : null;
+            ultima = ClavePagina.codificar(claveDe.apply(items.get(items.size() - 1)));
+        } else {
+            primera = clave != null ? ClavePagina.codificar(claveDe.apply(items.get(0))) : null;
+            ultima = hayMas ? ClavePagina.codificar(claveDe.apply(items.get(items.size() - 1))) : null;
+        }
+        return new Pagina<>(items, ultima, primera);
+    }
+    
+    public List<T> getItems() {
+        return items;
+    }
+    
+    /**
+     * Token para ClavePagina.despues (null si es la última página)
+     */
+    public String getSiguiente() {
+        return siguiente;
+    }
+    
+    /**
+     * Token para ClavePagina.antes (null si es la primera página)
+     */
+    public String getAnterior() {
+        return anterior;
+    }
+    
+    public boolean isVacia() {
+        return items.isEmpty();
+    }
+}
@@ -0,0 +1,79 @@
+package com.cwiesse.horarios.dao;
+
+import com.cwiesse.horarios.model.Horario;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de guardar un horario verificando choques en la misma transacción.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public final class ResultadoGuardado {
+    
+    /**
+     * Estados posibles del guardado
+     */
+    public enum Estado {
+        GUARDADO,
+        CHOQUE_DOCENTE,
+        CHOQUE_AULA,
+        CHOQUE_SECCION,
+        NO_ENCONTRADO,
+        BLOQUEADO,
+        ERROR
+    }
+    
+    private final Estado estado;
+    private final List<Horario> choques;
+    
+    public ResultadoGuardado(Estado estado) {
+        this(estado, Collections.emptyList());
+    }
+    
+    public ResultadoGuardado(Estado estado, List<Horario> choques) {
+        this.estado = estado;
+        this.choques = Collections.unmodifiableList(choques);
+    }
+    
+    /**
+     * Resultado de choque; el estado se toma del primer horario en conflicto
+     */
+    public static ResultadoGuardado choque(Horario horario, List<Horario> choques) {
+        Horario primero = choques.get(0);
+        Estado estado;
+        if (horario.getDocenteId().equals(primero.getDocenteId())) {
+            estado = Estado.CHOQUE_DOCENTE;
+        } else if (horario.getAulaId().equals(primero.getAulaId())) {
+            estado = Estado.CHOQUE_AULA;
+        } else {
+            estado = Estado.CHOQUE_SECCION;
+        }
+        return new ResultadoGuardado(estado, choques);
+    }
+    
+    public Estado getEstado() {
+        return estado;
+    }
+    
+    /**
+     * Horarios con los que choca (vacío si no hubo choque)
+     */
+    public List<Horario> getChoques() {
+        return choques;
+    }
+    
+    public boolean isGuardado() {
+        return estado == Estado.GUARDADO;
+    }
+    
+    public boolean isChoque() {
+        return !choques.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultadoGuardado{" + estado + ", choques=" + choques.size() + "}";
+    }
+}
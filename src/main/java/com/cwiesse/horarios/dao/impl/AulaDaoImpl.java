@@ -1,8 +1,16 @@
 package com.cwiesse.horarios.dao.impl;
 
+import com.cwiesse.horarios.dao.ClavePagina;
+import com.cwiesse.horarios.dao.FiltroListado;
 import com.cwiesse.horarios.dao.AulaDao;
+import com.cwiesse.horarios.dao.Pagina;
+import com.cwiesse.horarios.dao.jdbc.JdbcTemplate;
+import com.cwiesse.horarios.dao.jdbc.ParameterBinder;
+import com.cwiesse.horarios.dao.jdbc.Parametros;
 import com.cwiesse.horarios.model.Aula;
 import com.cwiesse.horarios.util.DBConnection;
+import com.cwiesse.horarios.util.UnitOfWork;
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,258 +28,305 @@ import java.util.Optional;
 public class AulaDaoImpl implements AulaDao {
     
     private static final Logger logger = LoggerFactory.getLogger(AulaDaoImpl.class);
+    // Columnas en el orden que lee mapResultSetToAula
+    private static final String COLUMNAS = "id, codigo, nombre, capacidad, piso, edificio, estado";
+    private static final String INSERT = "INSERT INTO aula (codigo, nombre, capacidad, piso, edificio, estado) " +
+                                         "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE aula SET codigo = ?, nombre = ?, capacidad = ?, piso = ?, " +
+                                         "edificio = ?, estado = ? WHERE id = ?";
     private final DBConnection dbConnection;
+    private final JdbcTemplate jdbc;
     
     public AulaDaoImpl() {
         this.dbConnection = DBConnection.getInstance();
+        this.jdbc = new JdbcTemplate(dbConnection);
     }
     
     @Override
     public Optional<Aula> buscarPorId(Integer id) {
-        String sql = "SELECT * FROM aula WHERE id = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, id);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                Aula aula = mapResultSetToAula(rs);
-                logger.debug("Aula encontrada con ID: {}", id);
-                return Optional.of(aula);
+        // Mapa de identidad de la unidad de trabajo activa
+        Optional<UnitOfWork> uow = UnitOfWork.actual();
+        if (uow.isPresent()) {
+            Optional<Aula> enMapa = uow.get().buscarEnMapa(Aula.class, id);
+            if (enMapa.isPresent()) {
+                return enMapa;
             }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logger.error("Error al buscar aula por ID: {}", e.getMessage());
-            return Optional.empty();
-        } finally {
-            dbConnection.closeConnection(conn);
         }
+        
+        Optional<Aula> aula = jdbc.buscar("buscar aula por ID",
+                "SELECT " + COLUMNAS + " FROM aula WHERE id = ?",
+                p -> p.entero(id), this::mapResultSetToAula);
+        aula.ifPresent(a -> uow.ifPresent(u -> u.registrar(Aula.class, id, a)));
+        return aula;
     }
     
     @Override
     public Optional<Aula> buscarPorCodigo(String codigo) {
-        String sql = "SELECT * FROM aula WHERE codigo = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, codigo);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                Aula aula = mapResultSetToAula(rs);
-                logger.debug("Aula encontrada con código: {}", codigo);
-                return Optional.of(aula);
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logger.error("Error al buscar aula por código: {}", e.getMessage());
-            return Optional.empty();
-        } finally {
-            dbConnection.closeConnection(conn);
-        }
+        return jdbc.buscar("buscar aula por código",
+                "SELECT " + COLUMNAS + " FROM aula WHERE codigo = ?",
+                p -> p.texto(codigo), this::mapResultSetToAula);
     }
     
     @Override
     public List<Aula> listarTodas() {
-        String sql = "SELECT * FROM aula ORDER BY edificio, piso, codigo";
-        List<Aula> aulas = new ArrayList<>();
-        Connection conn = null;
+        return jdbc.listar("listar aulas",
+                "SELECT " + COLUMNAS + " FROM aula ORDER BY edificio, piso, codigo",
+                ParameterBinder.NINGUNO, this::mapResultSetToAula);
+    }
+    
+    @Override
+    public List<Aula> listarActivas() {
+        return jdbc.listar("listar aulas activas",
+                "SELECT " + COLUMNAS + " FROM aula WHERE estado = 1 ORDER BY edificio, piso, codigo",
+                ParameterBinder.NINGUNO, this::mapResultSetToAula);
+    }
+    
+    @Override
+    public Pagina<Aula> listarPagina(FiltroListado filtro, ClavePagina clave, int limite) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNAS + " FROM aula WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>();
         
-        try {
-            conn = dbConnection.getConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
-            
-            while (rs.next()) {
-                aulas.add(mapResultSetToAula(rs));
+        if (filtro.getEstado() != null) {
+            sql.append(" AND estado = ?");
+            parametros.add(filtro.getEstado());
+        }
+        
+        Object[] valoresClave = null;
+        if (clave != null) {
+            try {
+                valoresClave = new Object[] { clave.get(0), Integer.valueOf(clave.get(1)), clave.get(2) };
+                sql.append(" AND ").append(clave.condicion("IFNULL(edificio, '')", "piso", "codigo"));
+            } catch (RuntimeException e) {
+                // Token alterado o de otro listado: se vuelve a la primera página
+                logger.debug("Clave de página inválida: {}", e.getMessage());
+                clave = null;
             }
-            
-            logger.debug("Se encontraron {} aulas", aulas.size());
-            
-        } catch (SQLException e) {
-            logger.error("Error al listar aulas: {}", e.getMessage());
-        } finally {
-            dbConnection.closeConnection(conn);
         }
+        String orden = clave != null && clave.isAtras() ? " DESC" : "";
+        sql.append(" ORDER BY IFNULL(edificio, '')").append(orden)
+           .append(", piso").append(orden)
+           .append(", codigo").append(orden)
+           .append(" LIMIT ?");
         
-        return aulas;
+        // Valores de la clave solo si quedó en la consulta
+        Object[] valores = clave != null ? valoresClave : null;
+        List<Aula> aulas = jdbc.listar("listar página de aulas", sql.toString(), p -> {
+            for (Object parametro : parametros) {
+                p.objeto(parametro);
+            }
+            if (valores != null) {
+                ClavePagina.enlazar(p, valores);
+            }
+            p.entero(limite + 1);
+        }, this::mapResultSetToAula);
+        
+        return Pagina.armar(aulas, clave, limite, a -> new String[] {
+            a.getEdificio() == null ? "" : a.getEdificio(), String.valueOf(a.getPiso()), a.getCodigo() });
     }
     
     @Override
-    public List<Aula> listarActivas() {
-        String sql = "SELECT * FROM aula WHERE estado = 1 ORDER BY edificio, piso, codigo";
-        List<Aula> aulas = new ArrayList<>();
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
-            
-            while (rs.next()) {
-                aulas.add(mapResultSetToAula(rs));
+    public boolean insertar(Aula aula) {
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            Optional<Integer> id = jdbc.insertar("insertar aula", INSERT, p -> enlazar(p, aula));
+            if (!id.isPresent()) {
+                // Nada escrito; sin commit, la unidad de quien llama quedaría marcada para deshacerse
+                uow.commit();
+                return false;
             }
-            
-            logger.debug("Se encontraron {} aulas activas", aulas.size());
+            aula.setId(id.get());
+            CambiosCatalogo.notificar(uow, Aula.class);
+            uow.commit();
+            logger.info("Aula insertada: {}", aula.getCodigo());
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al listar aulas activas: {}", e.getMessage());
-        } finally {
-            dbConnection.closeConnection(conn);
+            logger.error("Error al insertar aula: {}", e.getMessage());
+            return false;
         }
-        
-        return aulas;
     }
     
     @Override
-    public boolean insertar(Aula aula) {
-        String sql = "INSERT INTO aula (codigo, nombre, capacidad, piso, edificio, estado) " +
-                     "VALUES (?, ?, ?, ?, ?, ?)";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setString(1, aula.getCodigo());
-            stmt.setString(2, aula.getNombre());
-            stmt.setInt(3, aula.getCapacidad());
-            stmt.setInt(4, aula.getPiso());
-            stmt.setString(5, aula.getEdificio());
-            stmt.setBoolean(6, aula.isEstado());
-            
-            int filasAfectadas = stmt.executeUpdate();
+    public boolean insertarLote(List<Aula> aulas) {
+        if (aulas.isEmpty()) {
+            return true;
+        }
+        try (UnitOfWork uow = UnitOfWork.iniciar();
+             PreparedStatement stmt = uow.getConexion().prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
             
-            if (filasAfectadas > 0) {
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    aula.setId(rs.getInt(1));
+            for (List<Aula> tramo : Lists.partition(aulas, dbConnection.getTamanoLote())) {
+                for (Aula aula : tramo) {
+                    enlazar(new Parametros(stmt), aula);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                
+                // Las claves generadas llegan en el orden del tramo
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    for (Aula aula : tramo) {
+                        if (!rs.next()) {
+                            break;
+                        }
+                        aula.setId(rs.getInt(1));
+                    }
                 }
-                logger.info("Aula insertada: {}", aula.getCodigo());
-                return true;
             }
             
-            return false;
+            CambiosCatalogo.notificar(uow, Aula.class);
+            uow.commit();
+            logger.info("Lote de {} aulas insertado", aulas.size());
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al insertar aula: {}", e.getMessage());
+            logger.error("Error al insertar lote de aulas: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
     @Override
     public boolean actualizar(Aula aula) {
-        String sql = "UPDATE aula SET codigo = ?, nombre = ?, capacidad = ?, piso = ?, " +
-                     "edificio = ?, estado = ? WHERE id = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            
-            stmt.setString(1, aula.getCodigo());
-            stmt.setString(2, aula.getNombre());
-            stmt.setInt(3, aula.getCapacidad());
-            stmt.setInt(4, aula.getPiso());
-            stmt.setString(5, aula.getEdificio());
-            stmt.setBoolean(6, aula.isEstado());
-            stmt.setInt(7, aula.getId());
-            
-            int filasAfectadas = stmt.executeUpdate();
-            
-            if (filasAfectadas > 0) {
-                logger.info("Aula actualizada: {}", aula.getCodigo());
-                return true;
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            if (jdbc.actualizar("actualizar aula", UPDATE, p -> enlazar(p, aula).entero(aula.getId())) <= 0) {
+                // Nada escrito; sin commit, la unidad de quien llama quedaría marcada para deshacerse
+                uow.commit();
+                return false;
             }
-            
-            return false;
+            uow.quitar(Aula.class, aula.getId());
+            CambiosCatalogo.notificar(uow, Aula.class);
+            uow.commit();
+            logger.info("Aula actualizada: {}", aula.getCodigo());
+            return true;
             
         } catch (SQLException e) {
             logger.error("Error al actualizar aula: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
     @Override
-    public boolean eliminar(Integer id) {
-        String sql = "DELETE FROM aula WHERE id = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, id);
-            
-            int filasAfectadas = stmt.executeUpdate();
-            
-            if (filasAfectadas > 0) {
-                logger.info("Aula eliminada con ID: {}", id);
-                return true;
+    public boolean actualizarLote(List<Aula> aulas) {
+        if (aulas.isEmpty()) {
+            return true;
+        }
+        try (UnitOfWork uow = UnitOfWork.iniciar();
+             PreparedStatement stmt = uow.getConexion().prepareStatement(UPDATE)) {
+            
+            int filasAfectadas = 0;
+            for (List<Aula> tramo : Lists.partition(aulas, dbConnection.getTamanoLote())) {
+                for (Aula aula : tramo) {
+                    enlazar(new Parametros(stmt), aula).entero(aula.getId());
+                    stmt.addBatch();
+                }
+                filasAfectadas += contarAfectadas(stmt.executeBatch());
             }
+            for (Aula aula : aulas) {
+                uow.quitar(Aula.class, aula.getId());
+            }
+            
+            CambiosCatalogo.notificar(uow, Aula.class);
+            uow.commit();
+            logger.info("Lote de {} aulas actualizado ({} filas)", aulas.size(), filasAfectadas);
+            return true;
             
+        } catch (SQLException e) {
+            logger.error("Error al actualizar lote de aulas: {}", e.getMessage());
             return false;
+        }
+    }
+    
+    @Override
+    public boolean eliminar(Integer id) {
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            if (jdbc.actualizar("eliminar aula", "DELETE FROM aula WHERE id = ?", p -> p.entero(id)) <= 0) {
+                // Nada escrito; sin commit, la unidad de quien llama quedaría marcada para deshacerse
+                uow.commit();
+                return false;
+            }
+            uow.quitar(Aula.class, id);
+            CambiosCatalogo.notificar(uow, Aula.class);
+            uow.commit();
+            logger.info("Aula eliminada con ID: {}", id);
+            return true;
             
         } catch (SQLException e) {
             logger.error("Error al eliminar aula: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
     @Override
-    public boolean existeCodigo(String codigo) {
-        String sql = "SELECT COUNT(*) FROM aula WHERE codigo = ?";
-        Connection conn = null;
+    public boolean eliminarLote(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return true;
+        }
+        String sql = "DELETE FROM aula WHERE id = ?";
         
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, codigo);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
+        try (UnitOfWork uow = UnitOfWork.iniciar();
+             PreparedStatement stmt = uow.getConexion().prepareStatement(sql)) {
+            
+            int filasAfectadas = 0;
+            for (List<Integer> tramo : Lists.partition(ids, dbConnection.getTamanoLote())) {
+                for (Integer id : tramo) {
+                    stmt.setInt(1, id);
+                    stmt.addBatch();
+                }
+                filasAfectadas += contarAfectadas(stmt.executeBatch());
+            }
+            for (Integer id : ids) {
+                uow.quitar(Aula.class, id);
             }
             
-            return false;
+            CambiosCatalogo.notificar(uow, Aula.class);
+            uow.commit();
+            logger.info("Lote de {} aulas eliminado ({} filas)", ids.size(), filasAfectadas);
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al verificar existencia de código: {}", e.getMessage());
+            logger.error("Error al eliminar lote de aulas: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
+    @Override
+    public boolean existeCodigo(String codigo) {
+        return jdbc.existe("verificar existencia de código",
+                "SELECT COUNT(*) FROM aula WHERE codigo = ?", p -> p.texto(codigo));
+    }
+    
     /**
-     * Mapea un ResultSet a un objeto Aula
+     * Mapea un ResultSet a un objeto Aula, por posición según COLUMNAS
      */
     private Aula mapResultSetToAula(ResultSet rs) throws SQLException {
         Aula aula = new Aula();
-        aula.setId(rs.getInt("id"));
-        aula.setCodigo(rs.getString("codigo"));
-        aula.setNombre(rs.getString("nombre"));
-        aula.setCapacidad(rs.getInt("capacidad"));
-        aula.setPiso(rs.getInt("piso"));
-        aula.setEdificio(rs.getString("edificio"));
-        aula.setEstado(rs.getBoolean("estado"));
+        aula.setId(rs.getInt(1));
+        aula.setCodigo(rs.getString(2));
+        aula.setNombre(rs.getString(3));
+        aula.setCapacidad(rs.getInt(4));
+        aula.setPiso(rs.getInt(5));
+        aula.setEdificio(rs.getString(6));
+        aula.setEstado(rs.getBoolean(7));
         return aula;
     }
+    
+    /**
+     * Enlaza los campos de INSERT/UPDATE en el orden de las sentencias
+     */
+    private static Parametros enlazar(Parametros p, Aula aula) throws SQLException {
+        return p.texto(aula.getCodigo())
+                .texto(aula.getNombre())
+                .entero(aula.getCapacidad())
+                .entero(aula.getPiso())
+                .texto(aula.getEdificio())
+                .booleano(aula.isEstado());
+    }
+    
+    /**
+     * Suma las filas afectadas de un executeBatch (SUCCESS_NO_INFO cuenta como una)
+     */
+    private static int contarAfectadas(int[] resultados) {
+        int total = 0;
+        for (int r : resultados) {
+            total += r == Statement.SUCCESS_NO_INFO ? 1 : Math.max(r, 0);
+        }
+        return total;
+    }
 }
\ No newline at end of file
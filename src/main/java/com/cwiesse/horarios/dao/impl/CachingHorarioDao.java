@@ -0,0 +1,244 @@
+package com.cwiesse.horarios.dao.impl;
+
+import com.cwiesse.horarios.dao.CatalogoListener;
+import com.cwiesse.horarios.dao.ClavePagina;
+import com.cwiesse.horarios.dao.FiltroListado;
+import com.cwiesse.horarios.dao.HorarioDao;
+import com.cwiesse.horarios.dao.HorarioListener;
+import com.cwiesse.horarios.dao.Pagina;
+import com.cwiesse.horarios.dao.ResultadoGuardado;
+import com.cwiesse.horarios.model.Horario;
+import com.cwiesse.horarios.model.HorarioResumen;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Decorador de HorarioDao que guarda en caché los horarios por docente, por
+ * aula y por curso. El resto de operaciones pasa directo al DAO decorado.
+ * 
+ * Las entradas se invalidan con los cambios confirmados (HorarioListener), de
+ * modo que se cubren también las escrituras hechas con otras instancias del
+ * DAO (importación, lotes). Al guardar un horario se invalidan su docente, su
+ * aula y su curso, y también las claves con las que se cargó en la caché
+ * (las de su docente, aula y curso anteriores), sin recorrer las entradas.
+ * Un cambio de catálogo (nombres, códigos) vacía la caché.
+ * 
+ * Las listas devueltas son inmutables y compartidas: sus elementos no deben
+ * modificarse.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class CachingHorarioDao implements HorarioDao, HorarioListener, CatalogoListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CachingHorarioDao.class);
+    
+    private final HorarioDao delegado;
+    // Claves "docente:{id}", "aula:{id}" y "curso:{id}"
+    private final Cache<String, List<Horario>> horarios;
+    // Claves de las listas cargadas que incluyen cada horario; se acumulan
+    // hasta su próximo cambio, por si dos cargas lo vieron en lugares distintos
+    private final Map<Integer, Set<String>> clavesCargadas = new ConcurrentHashMap<>();
+    // Aumenta con cada invalidación; una carga que empezó antes no se guarda
+    private final AtomicLong generacion = new AtomicLong();
+    
+    /**
+     * @param delegado DAO que consulta la BD; debe notificar sus cambios a
+     *                 este decorador (HorarioDaoImpl.agregarListener)
+     * @param maxEntradas listas guardadas como máximo
+     * @param ttlSegundos vida máxima de cada lista, por cambios hechos fuera
+     *                    de la aplicación
+     */
+    public CachingHorarioDao(HorarioDao delegado, int maxEntradas, int ttlSegundos) {
+        this.delegado = delegado;
+        this.horarios = CacheBuilder.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(ttlSegundos, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+    
+    @Override
+    public Optional<Horario> buscarPorId(Integer id) {
+        return delegado.buscarPorId(id);
+    }
+    
+    @Override
+    public List<Horario> listarTodos() {
+        return delegado.listarTodos();
+    }
+    
+    @Override
+    public Optional<List<Horario>> leerTodos() {
+        return delegado.leerTodos();
+    }
+    
+    @Override
+    public Pagina<HorarioResumen> listarPagina(FiltroListado filtro, ClavePagina clave, int limite) {
+        return delegado.listarPagina(filtro, clave, limite);
+    }
+    
+    @Override
+    public boolean recorrer(FiltroListado filtro, Consumer<HorarioResumen> consumidor) {
+        return delegado.recorrer(filtro, consumidor);
+    }
+    
+    @Override
+    public List<Horario> listarPorDocente(Integer docenteId) {
+        return obtener("docente:" + docenteId, () -> delegado.listarPorDocente(docenteId));
+    }
+    
+    @Override
+    public List<Horario> listarPorAula(Integer aulaId) {
+        return obtener("aula:" + aulaId, () -> delegado.listarPorAula(aulaId));
+    }
+    
+    @Override
+    public List<Horario> listarPorCurso(Integer cursoId) {
+        return obtener("curso:" + cursoId, () -> delegado.listarPorCurso(cursoId));
+    }
+    
+    @Override
+    public boolean insertar(Horario horario) {
+        return delegado.insertar(horario);
+    }
+    
+    @Override
+    public boolean insertarLote(List<Horario> horarios) {
+        return delegado.insertarLote(horarios);
+    }
+    
+    @Override
+    public boolean actualizar(Horario horario) {
+        return delegado.actualizar(horario);
+    }
+    
+    @Override
+    public boolean actualizarLote(List<Horario> horarios) {
+        return delegado.actualizarLote(horarios);
+    }
+    
+    @Override
+    public boolean eliminar(Integer id) {
+        return delegado.eliminar(id);
+    }
+    
+    @Override
+    public boolean eliminarLote(List<Integer> ids) {
+        return delegado.eliminarLote(ids);
+    }
+    
+    @Override
+    public ResultadoGuardado insertarSinChoque(Horario horario) {
+        return delegado.insertarSinChoque(horario);
+    }
+    
+    @Override
+    public ResultadoGuardado actualizarSinChoque(Horario horario) {
+        return delegado.actualizarSinChoque(horario);
+    }
+    
+    @Override
+    public List<ResultadoGuardado> insertarLoteSinChoque(List<Horario> horarios) {
+        return delegado.insertarLoteSinChoque(horarios);
+    }
+    
+    @Override
+    public Optional<List<Horario>> buscarChoques(Horario horario, int limite) {
+        // Siempre contra la BD: decide si se puede guardar
+        return delegado.buscarChoques(horario, limite);
+    }
+    
+    @Override
+    public void alGuardar(Horario horario) {
+        generacion.incrementAndGet();
+        invalidarCargadas(horario.getId());
+        horarios.invalidateAll(claves(horario));
+    }
+    
+    @Override
+    public void alEliminar(Integer id) {
+        generacion.incrementAndGet();
+        invalidarCargadas(id);
+    }
+    
+    @Override
+    public void alCambiar(Class<?> catalogo) {
+        // Los horarios guardados incluyen nombres de docente, aula y curso
+        invalidar();
+    }
+    
+    /**
+     * Vacía la caché
+     */
+    public void invalidar() {
+        generacion.incrementAndGet();
+        horarios.invalidateAll();
+        clavesCargadas.clear();
+    }
+    
+    /**
+     * Aciertos, fallos y desalojos desde el inicio
+     */
+    public CacheStats getEstadisticas() {
+        return horarios.stats();
+    }
+    
+    /**
+     * Invalida las listas donde el horario estaba al cargarse: las de su
+     * docente, aula y curso anteriores
+     */
+    private void invalidarCargadas(Integer id) {
+        Set<String> anteriores = clavesCargadas.remove(id);
+        if (anteriores != null) {
+            horarios.invalidateAll(anteriores);
+        }
+    }
+    
+    private static List<String> claves(Horario horario) {
+        return List.of("docente:" + horario.getDocenteId(),
+                       "aula:" + horario.getAulaId(),
+                       "curso:" + horario.getCursoId());
+    }
+    
+    private List<Horario> obtener(String clave, Supplier<List<Horario>> cargador) {
+        List<Horario> enCache = horarios.getIfPresent(clave);
+        if (enCache != null) {
+            return enCache;
+        }
+        
+        long antes = generacion.get();
+        List<Horario> lista = List.copyOf(cargador.get());
+        // Vacía también si falló la consulta: no se guarda para no ocultar el error
+        if (!lista.isEmpty()) {
+            for (Horario horario : lista) {
+                clavesCargadas.merge(horario.getId(), Set.of(clave), (previas, nueva) -> {
+                    Set<String> todas = new HashSet<>(previas);
+                    todas.addAll(nueva);
+                    return todas;
+                });
+            }
+            horarios.put(clave, lista);
+            // Si hubo un cambio durante la carga, la lista puede ser anterior a él
+            if (generacion.get() != antes) {
+                horarios.invalidate(clave);
+            }
+            logger.debug("Horarios cargados en caché: {} ({} registros)", clave, lista.size());
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,49 @@
+package com.cwiesse.horarios.dao.impl;
+
+import com.cwiesse.horarios.dao.CatalogoListener;
+import com.cwiesse.horarios.util.UnitOfWork;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Avisa a los CatalogoListener registrados de los cambios hechos por
+ * DocenteDaoImpl, AulaDaoImpl y CursoDaoImpl, e incrementa la versión del
+ * catálogo (VersionDatos) para los demás nodos.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public final class CambiosCatalogo {
+    
+    private static final List<CatalogoListener> LISTENERS = new CopyOnWriteArrayList<>();
+    
+    private CambiosCatalogo() {
+    }
+    
+    /**
+     * Registra un listener que recibe los cambios después del commit
+     */
+    public static void agregarListener(CatalogoListener listener) {
+        LISTENERS.add(listener);
+    }
+    
+    /**
+     * Incrementa la versión del catálogo en la transacción de la escritura y
+     * notifica a los listeners solo si se confirma
+     */
+    static void notificar(UnitOfWork uow, Class<?> catalogo) throws SQLException {
+        VersionDatos.incrementar(uow, catalogo.getSimpleName().toLowerCase());
+        if (!LISTENERS.isEmpty()) {
+            uow.alConfirmar(() -> LISTENERS.forEach(l -> l.alCambiar(catalogo)));
+        }
+    }
+    
+    /**
+     * Notifica un cambio hecho por otro nodo (ver SincronizadorCaches)
+     */
+    public static void notificarExterno(Class<?> catalogo) {
+        LISTENERS.forEach(l -> l.alCambiar(catalogo));
+    }
+}
@@ -1,8 +1,16 @@
 package com.cwiesse.horarios.dao.impl;
 
+import com.cwiesse.horarios.dao.ClavePagina;
+import com.cwiesse.horarios.dao.FiltroListado;
 import com.cwiesse.horarios.dao.CursoDao;
+import com.cwiesse.horarios.dao.Pagina;
+import com.cwiesse.horarios.dao.jdbc.JdbcTemplate;
+import com.cwiesse.horarios.dao.jdbc.ParameterBinder;
+import com.cwiesse.horarios.dao.jdbc.Parametros;
 import com.cwiesse.horarios.model.Curso;
 import com.cwiesse.horarios.util.DBConnection;
+import com.cwiesse.horarios.util.UnitOfWork;
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,265 +28,326 @@ import java.util.Optional;
 public class CursoDaoImpl implements CursoDao {
     
     private static final Logger logger = LoggerFactory.getLogger(CursoDaoImpl.class);
+    // Columnas en el orden que lee mapResultSetToCurso
+    private static final String COLUMNAS = "id, codigo, nombre, nivel, grado, horas_semanales, color, estado";
+    private static final String INSERT = "INSERT INTO curso (codigo, nombre, nivel, grado, horas_semanales, " +
+                                         "color, estado) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE curso SET codigo = ?, nombre = ?, nivel = ?, grado = ?, " +
+                                         "horas_semanales = ?, color = ?, estado = ? WHERE id = ?";
     private final DBConnection dbConnection;
+    private final JdbcTemplate jdbc;
     
     public CursoDaoImpl() {
         this.dbConnection = DBConnection.getInstance();
+        this.jdbc = new JdbcTemplate(dbConnection);
     }
     
     @Override
     public Optional<Curso> buscarPorId(Integer id) {
-        String sql = "SELECT * FROM curso WHERE id = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, id);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                Curso curso = mapResultSetToCurso(rs);
-                logger.debug("Curso encontrado con ID: {}", id);
-                return Optional.of(curso);
+        // Mapa de identidad de la unidad de trabajo activa
+        Optional<UnitOfWork> uow = UnitOfWork.actual();
+        if (uow.isPresent()) {
+            Optional<Curso> enMapa = uow.get().buscarEnMapa(Curso.class, id);
+            if (enMapa.isPresent()) {
+                return enMapa;
             }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logger.error("Error al buscar curso por ID: {}", e.getMessage());
-            return Optional.empty();
-        } finally {
-            dbConnection.closeConnection(conn);
         }
+        
+        Optional<Curso> curso = jdbc.buscar("buscar curso por ID",
+                "SELECT " + COLUMNAS + " FROM curso WHERE id = ?",
+                p -> p.entero(id), this::mapResultSetToCurso);
+        curso.ifPresent(c -> uow.ifPresent(u -> u.registrar(Curso.class, id, c)));
+        return curso;
     }
     
     @Override
     public Optional<Curso> buscarPorCodigo(String codigo) {
-        String sql = "SELECT * FROM curso WHERE codigo = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, codigo);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                Curso curso = mapResultSetToCurso(rs);
-                logger.debug("Curso encontrado con código: {}", codigo);
-                return Optional.of(curso);
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logger.error("Error al buscar curso por código: {}", e.getMessage());
-            return Optional.empty();
-        } finally {
-            dbConnection.closeConnection(conn);
-        }
+        return jdbc.buscar("buscar curso por código",
+                "SELECT " + COLUMNAS + " FROM curso WHERE codigo = ?",
+                p -> p.texto(codigo), this::mapResultSetToCurso);
     }
     
     @Override
     public List<Curso> listarTodos() {
-        String sql = "SELECT * FROM curso ORDER BY nivel, grado, nombre";
-        List<Curso> cursos = new ArrayList<>();
-        Connection conn = null;
+        return jdbc.listar("listar cursos",
+                "SELECT " + COLUMNAS + " FROM curso ORDER BY nivel, grado, nombre",
+                ParameterBinder.NINGUNO, this::mapResultSetToCurso);
+    }
+    
+    @Override
+    public List<Curso> listarActivos() {
+        return jdbc.listar("listar cursos activos",
+                "SELECT " + COLUMNAS + " FROM curso WHERE estado = 1 ORDER BY nivel, grado, nombre",
+                ParameterBinder.NINGUNO, this::mapResultSetToCurso);
+    }
+    
+    @Override
+    public Pagina<Curso> listarPagina(FiltroListado filtro, ClavePagina clave, int limite) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNAS + " FROM curso WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>();
         
-        try {
-            conn = dbConnection.getConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
-            
-            while (rs.next()) {
-                cursos.add(mapResultSetToCurso(rs));
+        if (filtro.getNivel() != null) {
+            sql.append(" AND nivel = ?");
+            parametros.add(filtro.getNivel().name());
+        }
+        if (filtro.getGrado() != null) {
+            sql.append(" AND grado = ?");
+            parametros.add(filtro.getGrado());
+        }
+        if (filtro.getEstado() != null) {
+            sql.append(" AND estado = ?");
+            parametros.add(filtro.getEstado());
+        }
+        
+        Object[] valoresClave = null;
+        if (clave != null) {
+            try {
+                // nivel es ENUM: la clave lleva su índice (ordinal + 1), que es como MySQL lo ordena
+                valoresClave = new Object[] {
+                    Integer.valueOf(clave.get(0)),
+                    Integer.valueOf(clave.get(1)),
+                    clave.get(2),
+                    Integer.valueOf(clave.get(3))
+                };
+                sql.append(" AND ").append(clave.condicion("nivel", "grado", "nombre", "id"));
+            } catch (RuntimeException e) {
+                // Token alterado o de otro listado: se vuelve a la primera página
+                logger.debug("Clave de página inválida: {}", e.getMessage());
+                clave = null;
             }
-            
-            logger.debug("Se encontraron {} cursos", cursos.size());
-            
-        } catch (SQLException e) {
-            logger.error("Error al listar cursos: {}", e.getMessage());
-        } finally {
-            dbConnection.closeConnection(conn);
         }
+        String orden = clave != null && clave.isAtras() ? " DESC" : "";
+        sql.append(" ORDER BY nivel").append(orden)
+           .append(", grado").append(orden)
+           .append(", nombre").append(orden)
+           .append(", id").append(orden)
+           .append(" LIMIT ?");
+        
+        // Valores de la clave solo si quedó en la consulta
+        Object[] valores = clave != null ? valoresClave : null;
+        List<Curso> cursos = jdbc.listar("listar página de cursos", sql.toString(), p -> {
+            for (Object parametro : parametros) {
+                p.objeto(parametro);
+            }
+            if (valores != null) {
+                ClavePagina.enlazar(p, valores);
+            }
+            p.entero(limite + 1);
+        }, this::mapResultSetToCurso);
         
-        return cursos;
+        return Pagina.armar(cursos, clave, limite, c -> new String[] {
+            String.valueOf(c.getNivel().ordinal() + 1), String.valueOf(c.getGrado()), c.getNombre(), String.valueOf(c.getId()) });
     }
     
     @Override
-    public List<Curso> listarActivos() {
-        String sql = "SELECT * FROM curso WHERE estado = 1 ORDER BY nivel, grado, nombre";
-        List<Curso> cursos = new ArrayList<>();
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
-            
-            while (rs.next()) {
-                cursos.add(mapResultSetToCurso(rs));
+    public boolean insertar(Curso curso) {
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            Optional<Integer> id = jdbc.insertar("insertar curso", INSERT, p -> enlazar(p, curso));
+            if (!id.isPresent()) {
+                // Nada escrito; sin commit, la unidad de quien llama quedaría marcada para deshacerse
+                uow.commit();
+                return false;
             }
-            
-            logger.debug("Se encontraron {} cursos activos", cursos.size());
+            curso.setId(id.get());
+            CambiosCatalogo.notificar(uow, Curso.class);
+            uow.commit();
+            logger.info("Curso insertado: {}", curso.getNombre());
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al listar cursos activos: {}", e.getMessage());
-        } finally {
-            dbConnection.closeConnection(conn);
+            logger.error("Error al insertar curso: {}", e.getMessage());
+            return false;
         }
-        
-        return cursos;
     }
     
     @Override
-    public boolean insertar(Curso curso) {
-        String sql = "INSERT INTO curso (codigo, nombre, nivel, grado, horas_semanales, color, estado) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setString(1, curso.getCodigo());
-            stmt.setString(2, curso.getNombre());
-            stmt.setString(3, curso.getNivel().name());
-            stmt.setInt(4, curso.getGrado());
-            stmt.setInt(5, curso.getHorasSemanales());
-            stmt.setString(6, curso.getColor());
-            stmt.setBoolean(7, curso.isEstado());
-            
-            int filasAfectadas = stmt.executeUpdate();
+    public boolean insertarLote(List<Curso> cursos) {
+        if (cursos.isEmpty()) {
+            return true;
+        }
+        try (UnitOfWork uow = UnitOfWork.iniciar();
+             PreparedStatement stmt = uow.getConexion().prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
             
-            if (filasAfectadas > 0) {
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    curso.setId(rs.getInt(1));
+            for (List<Curso> tramo : Lists.partition(cursos, dbConnection.getTamanoLote())) {
+                for (Curso curso : tramo) {
+                    enlazar(new Parametros(stmt), curso);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                
+                // Las claves generadas llegan en el orden del tramo
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    for (Curso curso : tramo) {
+                        if (!rs.next()) {
+                            break;
+                        }
+                        curso.setId(rs.getInt(1));
+                    }
                 }
-                logger.info("Curso insertado: {}", curso.getNombre());
-                return true;
             }
             
-            return false;
+            CambiosCatalogo.notificar(uow, Curso.class);
+            uow.commit();
+            logger.info("Lote de {} cursos insertado", cursos.size());
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al insertar curso: {}", e.getMessage());
+            logger.error("Error al insertar lote de cursos: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
     @Override
     public boolean actualizar(Curso curso) {
-        String sql = "UPDATE curso SET codigo = ?, nombre = ?, nivel = ?, grado = ?, " +
-                     "horas_semanales = ?, color = ?, estado = ? WHERE id = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            
-            stmt.setString(1, curso.getCodigo());
-            stmt.setString(2, curso.getNombre());
-            stmt.setString(3, curso.getNivel().name());
-            stmt.setInt(4, curso.getGrado());
-            stmt.setInt(5, curso.getHorasSemanales());
-            stmt.setString(6, curso.getColor());
-            stmt.setBoolean(7, curso.isEstado());
-            stmt.setInt(8, curso.getId());
-            
-            int filasAfectadas = stmt.executeUpdate();
-            
-            if (filasAfectadas > 0) {
-                logger.info("Curso actualizado: {}", curso.getNombre());
-                return true;
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            if (jdbc.actualizar("actualizar curso", UPDATE, p -> enlazar(p, curso).entero(curso.getId())) <= 0) {
+                // Nada escrito; sin commit, la unidad de quien llama quedaría marcada para deshacerse
+                uow.commit();
+                return false;
             }
-            
-            return false;
+            uow.quitar(Curso.class, curso.getId());
+            CambiosCatalogo.notificar(uow, Curso.class);
+            uow.commit();
+            logger.info("Curso actualizado: {}", curso.getNombre());
+            return true;
             
         } catch (SQLException e) {
             logger.error("Error al actualizar curso: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
     @Override
-    public boolean eliminar(Integer id) {
-        String sql = "DELETE FROM curso WHERE id = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, id);
-            
-            int filasAfectadas = stmt.executeUpdate();
-            
-            if (filasAfectadas > 0) {
-                logger.info("Curso eliminado con ID: {}", id);
-                return true;
+    public boolean actualizarLote(List<Curso> cursos) {
+        if (cursos.isEmpty()) {
+            return true;
+        }
+        try (UnitOfWork uow = UnitOfWork.iniciar();
+             PreparedStatement stmt = uow.getConexion().prepareStatement(UPDATE)) {
+            
+            int filasAfectadas = 0;
+            for (List<Curso> tramo : Lists.partition(cursos, dbConnection.getTamanoLote())) {
+                for (Curso curso : tramo) {
+                    enlazar(new Parametros(stmt), curso).entero(curso.getId());
+                    stmt.addBatch();
+                }
+                filasAfectadas += contarAfectadas(stmt.executeBatch());
+            }
+            for (Curso curso : cursos) {
+                uow.quitar(Curso.class, curso.getId());
             }
             
+            CambiosCatalogo.notificar(uow, Curso.class);
+            uow.commit();
+            logger.info("Lote de {} cursos actualizado ({} filas)", cursos.size(), filasAfectadas);
+            return true;
+            
+        } catch (SQLException e) {
+            logger.error("Error al actualizar lote de cursos: {}", e.getMessage());
             return false;
+        }
+    }
+    
+    @Override
+    public boolean eliminar(Integer id) {
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            if (jdbc.actualizar("eliminar curso", "DELETE FROM curso WHERE id = ?", p -> p.entero(id)) <= 0) {
+                // Nada escrito; sin commit, la unidad de quien llama quedaría marcada para deshacerse
+                uow.commit();
+                return false;
+            }
+            uow.quitar(Curso.class, id);
+            CambiosCatalogo.notificar(uow, Curso.class);
+            uow.commit();
+            logger.info("Curso eliminado con ID: {}", id);
+            return true;
             
         } catch (SQLException e) {
             logger.error("Error al eliminar curso: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
     @Override
-    public boolean existeCodigo(String codigo) {
-        String sql = "SELECT COUNT(*) FROM curso WHERE codigo = ?";
-        Connection conn = null;
+    public boolean eliminarLote(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return true;
+        }
+        String sql = "DELETE FROM curso WHERE id = ?";
         
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, codigo);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
+        try (UnitOfWork uow = UnitOfWork.iniciar();
+             PreparedStatement stmt = uow.getConexion().prepareStatement(sql)) {
+            
+            int filasAfectadas = 0;
+            for (List<Integer> tramo : Lists.partition(ids, dbConnection.getTamanoLote())) {
+                for (Integer id : tramo) {
+                    stmt.setInt(1, id);
+                    stmt.addBatch();
+                }
+                filasAfectadas += contarAfectadas(stmt.executeBatch());
+            }
+            for (Integer id : ids) {
+                uow.quitar(Curso.class, id);
             }
             
-            return false;
+            CambiosCatalogo.notificar(uow, Curso.class);
+            uow.commit();
+            logger.info("Lote de {} cursos eliminado ({} filas)", ids.size(), filasAfectadas);
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al verificar existencia de código: {}", e.getMessage());
+            logger.error("Error al eliminar lote de cursos: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
+    @Override
+    public boolean existeCodigo(String codigo) {
+        return jdbc.existe("verificar existencia de código",
+                "SELECT COUNT(*) FROM curso WHERE codigo = ?", p -> p.texto(codigo));
+    }
+    
     /**
-     * Mapea un ResultSet a un objeto Curso
+     * Mapea un ResultSet a un objeto Curso, por posición según COLUMNAS
      */
     private Curso mapResultSetToCurso(ResultSet rs) throws SQLException {
         Curso curso = new Curso();
-        curso.setId(rs.getInt("id"));
-        curso.setCodigo(rs.getString("codigo"));
-        curso.setNombre(rs.getString("nombre"));
+        curso.setId(rs.getInt(1));
+        curso.setCodigo(rs.getString(2));
+        curso.setNombre(rs.getString(3));
         
-        String nivelStr = rs.getString("nivel");
+        String nivelStr = rs.getString(4);
         curso.setNivel(Curso.Nivel.valueOf(nivelStr));
         
-        curso.setGrado(rs.getInt("grado"));
-        curso.setHorasSemanales(rs.getInt("horas_semanales"));
-        curso.setColor(rs.getString("color"));
-        curso.setEstado(rs.getBoolean("estado"));
+        curso.setGrado(rs.getInt(5));
+        curso.setHorasSemanales(rs.getInt(6));
+        curso.setColor(rs.getString(7));
+        curso.setEstado(rs.getBoolean(8));
         
         return curso;
     }
+    
+    /**
+     * Enlaza los campos de INSERT/UPDATE en el orden de las sentencias
+     */
+    private static Parametros enlazar(Parametros p, Curso curso) throws SQLException {
+        return p.texto(curso.getCodigo())
+                .texto(curso.getNombre())
+                .enumerado(curso.getNivel())
+                .entero(curso.getGrado())
+                .entero(curso.getHorasSemanales())
+                .texto(curso.getColor())
+                .booleano(curso.isEstado());
+    }
+    
+    /**
+     * Suma las filas afectadas de un executeBatch (SUCCESS_NO_INFO cuenta como una)
+     */
+    private static int contarAfectadas(int[] resultados) {
+        int total = 0;
+        for (int r : resultados) {
+            total += r == Statement.SUCCESS_NO_INFO ? 1 : Math.max(r, 0);
+        }
+        return total;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.cwiesse.horarios.dao.impl;
+
+import com.cwiesse.horarios.dao.HorarioDao;
+import com.cwiesse.horarios.util.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Elige la implementación de los DAO según la configuración.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public final class DaoFactory {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DaoFactory.class);
+    
+    private DaoFactory() {
+    }
+    
+    /**
+     * DAO de horarios para los controladores: con horario.cache.habilitada,
+     * el decorador con caché (una sola instancia compartida); si no, el DAO
+     * JDBC directo.
+     */
+    public static HorarioDao horarioDao() {
+        CachingHorarioDao cache = HorarioCacheHolder.INSTANCE;
+        return cache != null ? cache : new HorarioDaoImpl();
+    }
+    
+    /**
+     * Decorador con caché de horarios, o null si está deshabilitado
+     */
+    public static CachingHorarioDao getHorarioCache() {
+        return HorarioCacheHolder.INSTANCE;
+    }
+    
+    // Se crea la primera vez que se pide, con la configuración ya cargada
+    private static final class HorarioCacheHolder {
+        
+        private static final CachingHorarioDao INSTANCE = crear();
+        
+        private static CachingHorarioDao crear() {
+            if (!AppConfig.getBooleano("horario.cache.habilitada", true)) {
+                logger.info("Caché de horarios deshabilitada");
+                return null;
+            }
+            CachingHorarioDao cache = new CachingHorarioDao(new HorarioDaoImpl(),
+                    AppConfig.getEntero("horario.cache.maxEntradas", 300),
+                    AppConfig.getEntero("horario.cache.ttlSegundos", 300));
+            HorarioDaoImpl.agregarListener(cache);
+            CambiosCatalogo.agregarListener(cache);
+            return cache;
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package com.cwiesse.horarios.dao.impl;
 
+import com.cwiesse.horarios.dao.ClavePagina;
+import com.cwiesse.horarios.dao.FiltroListado;
 import com.cwiesse.horarios.dao.DocenteDao;
+import com.cwiesse.horarios.dao.Pagina;
+import com.cwiesse.horarios.dao.jdbc.JdbcTemplate;
+import com.cwiesse.horarios.dao.jdbc.ParameterBinder;
+import com.cwiesse.horarios.dao.jdbc.Parametros;
 import com.cwiesse.horarios.model.Docente;
 import com.cwiesse.horarios.util.DBConnection;
+import com.cwiesse.horarios.util.UnitOfWork;
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,289 +28,332 @@ import java.util.Optional;
 public class DocenteDaoImpl implements DocenteDao {
     
     private static final Logger logger = LoggerFactory.getLogger(DocenteDaoImpl.class);
+    // Columnas en el orden que lee mapResultSetToDocente
+    private static final String COLUMNAS = "id, dni, nombre, apellido_paterno, apellido_materno, email, " +
+                                           "telefono, estado, fecha_registro";
+    private static final String INSERT = "INSERT INTO docente (dni, nombre, apellido_paterno, apellido_materno, " +
+                                         "email, telefono, estado) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE docente SET dni = ?, nombre = ?, apellido_paterno = ?, " +
+                                         "apellido_materno = ?, email = ?, telefono = ?, estado = ? WHERE id = ?";
     private final DBConnection dbConnection;
+    private final JdbcTemplate jdbc;
     
     public DocenteDaoImpl() {
         this.dbConnection = DBConnection.getInstance();
+        this.jdbc = new JdbcTemplate(dbConnection);
     }
     
     @Override
     public Optional<Docente> buscarPorId(Integer id) {
-        String sql = "SELECT * FROM docente WHERE id = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, id);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                Docente docente = mapResultSetToDocente(rs);
-                logger.debug("Docente encontrado con ID: {}", id);
-                return Optional.of(docente);
+        // Mapa de identidad de la unidad de trabajo activa
+        Optional<UnitOfWork> uow = UnitOfWork.actual();
+        if (uow.isPresent()) {
+            Optional<Docente> enMapa = uow.get().buscarEnMapa(Docente.class, id);
+            if (enMapa.isPresent()) {
+                return enMapa;
             }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logger.error("Error al buscar docente por ID: {}", e.getMessage());
-            return Optional.empty();
-        } finally {
-            dbConnection.closeConnection(conn);
         }
+        
+        Optional<Docente> docente = jdbc.buscar("buscar docente por ID",
+                "SELECT " + COLUMNAS + " FROM docente WHERE id = ?",
+                p -> p.entero(id), this::mapResultSetToDocente);
+        docente.ifPresent(d -> uow.ifPresent(u -> u.registrar(Docente.class, id, d)));
+        return docente;
     }
     
     @Override
     public Optional<Docente> buscarPorDni(String dni) {
-        String sql = "SELECT * FROM docente WHERE dni = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, dni);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                Docente docente = mapResultSetToDocente(rs);
-                logger.debug("Docente encontrado con DNI: {}", dni);
-                return Optional.of(docente);
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logger.error("Error al buscar docente por DNI: {}", e.getMessage());
-            return Optional.empty();
-        } finally {
-            dbConnection.closeConnection(conn);
-        }
+        return jdbc.buscar("buscar docente por DNI",
+                "SELECT " + COLUMNAS + " FROM docente WHERE dni = ?",
+                p -> p.texto(dni), this::mapResultSetToDocente);
     }
     
     @Override
     public List<Docente> listarTodos() {
-        String sql = "SELECT * FROM docente ORDER BY apellido_paterno, apellido_materno, nombre";
-        List<Docente> docentes = new ArrayList<>();
-        Connection conn = null;
+        return jdbc.listar("listar docentes",
+                "SELECT " + COLUMNAS + " FROM docente ORDER BY apellido_paterno, apellido_materno, nombre",
+                ParameterBinder.NINGUNO, this::mapResultSetToDocente);
+    }
+    
+    @Override
+    public List<Docente> listarActivos() {
+        return jdbc.listar("listar docentes activos",
+                "SELECT " + COLUMNAS + " FROM docente WHERE estado = 1 " +
+                "ORDER BY apellido_paterno, apellido_materno, nombre",
+                ParameterBinder.NINGUNO, this::mapResultSetToDocente);
+    }
+    
+    @Override
+    public Pagina<Docente> listarPagina(FiltroListado filtro, ClavePagina clave, int limite) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNAS + " FROM docente WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>();
         
-        try {
-            conn = dbConnection.getConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
-            
-            while (rs.next()) {
-                docentes.add(mapResultSetToDocente(rs));
+        if (filtro.getEstado() != null) {
+            sql.append(" AND estado = ?");
+            parametros.add(filtro.getEstado());
+        }
+        
+        Object[] valoresClave = null;
+        if (clave != null) {
+            try {
+                valoresClave = new Object[] { clave.get(0), clave.get(1), clave.get(2), Integer.valueOf(clave.get(3)) };
+                sql.append(" AND ").append(clave.condicion("apellido_paterno", "apellido_materno", "nombre", "id"));
+            } catch (RuntimeException e) {
+                // Token alterado o de otro listado: se vuelve a la primera página
+                logger.debug("Clave de página inválida: {}", e.getMessage());
+                clave = null;
             }
-            
-            logger.debug("Se encontraron {} docentes", docentes.size());
-            
-        } catch (SQLException e) {
-            logger.error("Error al listar docentes: {}", e.getMessage());
-        } finally {
-            dbConnection.closeConnection(conn);
         }
+        String orden = clave != null && clave.isAtras() ? " DESC" : "";
+        sql.append(" ORDER BY apellido_paterno").append(orden)
+           .append(", apellido_materno").append(orden)
+           .append(", nombre").append(orden)
+           .append(", id").append(orden)
+           .append(" LIMIT ?");
+        
+        // Valores de la clave solo si quedó en la consulta
+        Object[] valores = clave != null ? valoresClave : null;
+        List<Docente> docentes = jdbc.listar("listar página de docentes", sql.toString(), p -> {
+            for (Object parametro : parametros) {
+                p.objeto(parametro);
+            }
+            if (valores != null) {
+                ClavePagina.enlazar(p, valores);
+            }
+            p.entero(limite + 1);
+        }, this::mapResultSetToDocente);
         
-        return docentes;
+        return Pagina.armar(docentes, clave, limite, d -> new String[] {
+            d.getApellidoPaterno(), d.getApellidoMaterno(), d.getNombre(), String.valueOf(d.getId()) });
     }
     
     @Override
-    public List<Docente> listarActivos() {
-        String sql = "SELECT * FROM docente WHERE estado = 1 ORDER BY apellido_paterno, apellido_materno, nombre";
-        List<Docente> docentes = new ArrayList<>();
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
-            
-            while (rs.next()) {
-                docentes.add(mapResultSetToDocente(rs));
+    public boolean insertar(Docente docente) {
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            Optional<Integer> id = jdbc.insertar("insertar docente", INSERT, p -> enlazar(p, docente));
+            if (!id.isPresent()) {
+                // Nada escrito; sin commit, la unidad de quien llama quedaría marcada para deshacerse
+                uow.commit();
+                return false;
             }
-            
-            logger.debug("Se encontraron {} docentes activos", docentes.size());
+            docente.setId(id.get());
+            CambiosCatalogo.notificar(uow, Docente.class);
+            uow.commit();
+            logger.info("Docente insertado: {} {}", docente.getNombre(), docente.getApellidoPaterno());
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al listar docentes activos: {}", e.getMessage());
-        } finally {
-            dbConnection.closeConnection(conn);
+            logger.error("Error al insertar docente: {}", e.getMessage());
+            return false;
         }
-        
-        return docentes;
     }
     
     @Override
-    public boolean insertar(Docente docente) {
-        String sql = "INSERT INTO docente (dni, nombre, apellido_paterno, apellido_materno, email, telefono, estado) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setString(1, docente.getDni());
-            stmt.setString(2, docente.getNombre());
-            stmt.setString(3, docente.getApellidoPaterno());
-            stmt.setString(4, docente.getApellidoMaterno());
-            stmt.setString(5, docente.getEmail());
-            stmt.setString(6, docente.getTelefono());
-            stmt.setBoolean(7, docente.isEstado());
-            
-            int filasAfectadas = stmt.executeUpdate();
+    public boolean insertarLote(List<Docente> docentes) {
+        if (docentes.isEmpty()) {
+            return true;
+        }
+        try (UnitOfWork uow = UnitOfWork.iniciar();
+             PreparedStatement stmt = uow.getConexion().prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
             
-            if (filasAfectadas > 0) {
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    docente.setId(rs.getInt(1));
+            for (List<Docente> tramo : Lists.partition(docentes, dbConnection.getTamanoLote())) {
+                for (Docente docente : tramo) {
+                    enlazar(new Parametros(stmt), docente);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                
+                // Las claves generadas llegan en el orden del tramo
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    for (Docente docente : tramo) {
+                        if (!rs.next()) {
+                            break;
+                        }
+                        docente.setId(rs.getInt(1));
+                    }
                 }
-                logger.info("Docente insertado: {} {}", docente.getNombre(), docente.getApellidoPaterno());
-                return true;
             }
             
-            return false;
+            CambiosCatalogo.notificar(uow, Docente.class);
+            uow.commit();
+            logger.info("Lote de {} docentes insertado", docentes.size());
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al insertar docente: {}", e.getMessage());
+            logger.error("Error al insertar lote de docentes: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
     @Override
     public boolean actualizar(Docente docente) {
-        String sql = "UPDATE docente SET dni = ?, nombre = ?, apellido_paterno = ?, apellido_materno = ?, " +
-                     "email = ?, telefono = ?, estado = ? WHERE id = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            
-            stmt.setString(1, docente.getDni());
-            stmt.setString(2, docente.getNombre());
-            stmt.setString(3, docente.getApellidoPaterno());
-            stmt.setString(4, docente.getApellidoMaterno());
-            stmt.setString(5, docente.getEmail());
-            stmt.setString(6, docente.getTelefono());
-            stmt.setBoolean(7, docente.isEstado());
-            stmt.setInt(8, docente.getId());
-            
-            int filasAfectadas = stmt.executeUpdate();
-            
-            if (filasAfectadas > 0) {
-                logger.info("Docente actualizado: {}", docente.getNombreCompleto());
-                return true;
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            if (jdbc.actualizar("actualizar docente", UPDATE, p -> enlazar(p, docente).entero(docente.getId())) <= 0) {
+                // Nada escrito; sin commit, la unidad de quien llama quedaría marcada para deshacerse
+                uow.commit();
+                return false;
             }
-            
-            return false;
+            uow.quitar(Docente.class, docente.getId());
+            CambiosCatalogo.notificar(uow, Docente.class);
+            uow.commit();
+            logger.info("Docente actualizado: {}", docente.getNombreCompleto());
+            return true;
             
         } catch (SQLException e) {
             logger.error("Error al actualizar docente: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
     @Override
-    public boolean eliminar(Integer id) {
-        String sql = "DELETE FROM docente WHERE id = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, id);
-            
-            int filasAfectadas = stmt.executeUpdate();
-            
-            if (filasAfectadas > 0) {
-                logger.info("Docente eliminado con ID: {}", id);
-                return true;
+    public boolean actualizarLote(List<Docente> docentes) {
+        if (docentes.isEmpty()) {
+            return true;
+        }
+        try (UnitOfWork uow = UnitOfWork.iniciar();
+             PreparedStatement stmt = uow.getConexion().prepareStatement(UPDATE)) {
+            
+            int filasAfectadas = 0;
+            for (List<Docente> tramo : Lists.partition(docentes, dbConnection.getTamanoLote())) {
+                for (Docente docente : tramo) {
+                    enlazar(new Parametros(stmt), docente).entero(docente.getId());
+                    stmt.addBatch();
+                }
+                filasAfectadas += contarAfectadas(stmt.executeBatch());
+            }
+            for (Docente docente : docentes) {
+                uow.quitar(Docente.class, docente.getId());
             }
             
+            CambiosCatalogo.notificar(uow, Docente.class);
+            uow.commit();
+            logger.info("Lote de {} docentes actualizado ({} filas)", docentes.size(), filasAfectadas);
+            return true;
+            
+        } catch (SQLException e) {
+            logger.error("Error al actualizar lote de docentes: {}", e.getMessage());
             return false;
+        }
+    }
+    
+    @Override
+    public boolean eliminar(Integer id) {
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            if (jdbc.actualizar("eliminar docente", "DELETE FROM docente WHERE id = ?", p -> p.entero(id)) <= 0) {
+                // Nada escrito; sin commit, la unidad de quien llama quedaría marcada para deshacerse
+                uow.commit();
+                return false;
+            }
+            uow.quitar(Docente.class, id);
+            CambiosCatalogo.notificar(uow, Docente.class);
+            uow.commit();
+            logger.info("Docente eliminado con ID: {}", id);
+            return true;
             
         } catch (SQLException e) {
             logger.error("Error al eliminar docente: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
     @Override
-    public boolean desactivar(Integer id) {
-        String sql = "UPDATE docente SET estado = 0 WHERE id = ?";
-        Connection conn = null;
+    public boolean eliminarLote(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return true;
+        }
+        String sql = "DELETE FROM docente WHERE id = ?";
         
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, id);
-            
-            int filasAfectadas = stmt.executeUpdate();
-            
-            if (filasAfectadas > 0) {
-                logger.info("Docente desactivado con ID: {}", id);
-                return true;
+        try (UnitOfWork uow = UnitOfWork.iniciar();
+             PreparedStatement stmt = uow.getConexion().prepareStatement(sql)) {
+            
+            int filasAfectadas = 0;
+            for (List<Integer> tramo : Lists.partition(ids, dbConnection.getTamanoLote())) {
+                for (Integer id : tramo) {
+                    stmt.setInt(1, id);
+                    stmt.addBatch();
+                }
+                filasAfectadas += contarAfectadas(stmt.executeBatch());
+            }
+            for (Integer id : ids) {
+                uow.quitar(Docente.class, id);
             }
             
-            return false;
+            CambiosCatalogo.notificar(uow, Docente.class);
+            uow.commit();
+            logger.info("Lote de {} docentes eliminado ({} filas)", ids.size(), filasAfectadas);
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al desactivar docente: {}", e.getMessage());
+            logger.error("Error al eliminar lote de docentes: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
     @Override
-    public boolean existeDni(String dni) {
-        String sql = "SELECT COUNT(*) FROM docente WHERE dni = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, dni);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
+    public boolean desactivar(Integer id) {
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            if (jdbc.actualizar("desactivar docente",
+                    "UPDATE docente SET estado = 0 WHERE id = ?", p -> p.entero(id)) <= 0) {
+                // Nada escrito; sin commit, la unidad de quien llama quedaría marcada para deshacerse
+                uow.commit();
+                return false;
             }
-            
-            return false;
+            uow.quitar(Docente.class, id);
+            CambiosCatalogo.notificar(uow, Docente.class);
+            uow.commit();
+            logger.info("Docente desactivado con ID: {}", id);
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al verificar existencia de DNI: {}", e.getMessage());
+            logger.error("Error al desactivar docente: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
+    @Override
+    public boolean existeDni(String dni) {
+        return jdbc.existe("verificar existencia de DNI",
+                "SELECT COUNT(*) FROM docente WHERE dni = ?", p -> p.texto(dni));
+    }
+    
     /**
-     * Mapea un ResultSet a un objeto Docente
+     * Mapea un ResultSet a un objeto Docente, por posición según COLUMNAS
      */
     private Docente mapResultSetToDocente(ResultSet rs) throws SQLException {
         Docente docente = new Docente();
-        docente.setId(rs.getInt("id"));
-        docente.setDni(rs.getString("dni"));
-        docente.setNombre(rs.getString("nombre"));
-        docente.setApellidoPaterno(rs.getString("apellido_paterno"));
-        docente.setApellidoMaterno(rs.getString("apellido_materno"));
-        docente.setEmail(rs.getString("email"));
-        docente.setTelefono(rs.getString("telefono"));
-        docente.setEstado(rs.getBoolean("estado"));
-        docente.setFechaRegistro(rs.getTimestamp("fecha_registro").toLocalDateTime());
+        docente.setId(rs.getInt(1));
+        docente.setDni(rs.getString(2));
+        docente.setNombre(rs.getString(3));
+        docente.setApellidoPaterno(rs.getString(4));
+        docente.setApellidoMaterno(rs.getString(5));
+        docente.setEmail(rs.getString(6));
+        docente.setTelefono(rs.getString(7));
+        docente.setEstado(rs.getBoolean(8));
+        docente.setFechaRegistro(rs.getTimestamp(9).toLocalDateTime());
         return docente;
     }
+    
+    /**
+     * Enlaza los campos de INSERT/UPDATE en el orden de las sentencias
+     */
+    private static Parametros enlazar(Parametros p, Docente docente) throws SQLException {
+        return p.texto(docente.getDni())
+                .texto(docente.getNombre())
+                .texto(docente.getApellidoPaterno())
+                .texto(docente.getApellidoMaterno())
+                .texto(docente.getEmail())
+                .texto(docente.getTelefono())
+                .booleano(docente.isEstado());
+    }
+    
+    /**
+     * Suma las filas afectadas de un executeBatch (SUCCESS_NO_INFO cuenta como una)
+     */
+    private static int contarAfectadas(int[] resultados) {
+        int total = 0;
+        for (int r : resultados) {
+            total += r == Statement.SUCCESS_NO_INFO ? 1 : Math.max(r, 0);
+        }
+        return total;
+    }
 }
\ No newline at end of file
@@ -1,19 +1,41 @@
 package com.cwiesse.horarios.dao.impl;
 
+import com.cwiesse.horarios.dao.ClavePagina;
+import com.cwiesse.horarios.dao.FiltroListado;
 import com.cwiesse.horarios.dao.HorarioDao;
+import com.cwiesse.horarios.dao.HorarioListener;
+import com.cwiesse.horarios.dao.Pagina;
+import com.cwiesse.horarios.dao.ResultadoGuardado;
+import com.cwiesse.horarios.dao.ResultadoGuardado.Estado;
+import com.cwiesse.horarios.dao.jdbc.JdbcTemplate;
+import com.cwiesse.horarios.dao.jdbc.ParameterBinder;
+import com.cwiesse.horarios.dao.jdbc.Parametros;
+import com.cwiesse.horarios.dao.jdbc.RowMapper;
 import com.cwiesse.horarios.model.Horario;
+import com.cwiesse.horarios.model.HorarioResumen;
 import com.cwiesse.horarios.model.Docente;
 import com.cwiesse.horarios.model.Aula;
 import com.cwiesse.horarios.model.Curso;
 import com.cwiesse.horarios.util.DBConnection;
+import com.cwiesse.horarios.util.LockProvider;
+import com.cwiesse.horarios.util.UnitOfWork;
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Implementación JDBC de HorarioDao.
@@ -24,445 +46,783 @@ import java.util.Optional;
 public class HorarioDaoImpl implements HorarioDao {
     
     private static final Logger logger = LoggerFactory.getLogger(HorarioDaoImpl.class);
+    // Máximo de choques que se reportan al guardar
+    private static final int LIMITE_CHOQUES = 10;
+    // Interesados en los cambios confirmados (índices y cachés en memoria)
+    private static final List<HorarioListener> LISTENERS = new CopyOnWriteArrayList<>();
+    // Horario con sus datos relacionados; columnas en el orden que lee mapResultSetToHorario
+    private static final String SELECT_HORARIO = "SELECT h.id, h.docente_id, h.aula_id, h.curso_id, " +
+                    "h.dia, h.hora_inicio, h.hora_fin, " +
+                    "d.dni, d.nombre, d.apellido_paterno, d.apellido_materno, " +
+                    "a.codigo, a.nombre, a.capacidad, " +
+                    "c.nombre, c.codigo, c.nivel, c.grado " +
+                    "FROM horario h " +
+                    "JOIN docente d ON h.docente_id = d.id " +
+                    "JOIN aula a ON h.aula_id = a.id " +
+                    "JOIN curso c ON h.curso_id = c.id ";
+    // Solo lo que muestran listados y exportaciones; columnas en el orden que lee mapResultSetToResumen
+    private static final String SELECT_RESUMEN = "SELECT h.id, h.docente_id, h.aula_id, h.curso_id, h.dia, " +
+                    "TIME_TO_SEC(h.hora_inicio) DIV 60, TIME_TO_SEC(h.hora_fin) DIV 60, " +
+                    "CONCAT_WS(' ', d.nombre, d.apellido_paterno, d.apellido_materno), " +
+                    "c.nombre, c.nivel, c.grado, a.codigo, a.nombre " +
+                    "FROM horario h " +
+                    "JOIN docente d ON h.docente_id = d.id " +
+                    "JOIN aula a ON h.aula_id = a.id " +
+                    "JOIN curso c ON h.curso_id = c.id ";
+    private static final String INSERT = "INSERT INTO horario (docente_id, aula_id, curso_id, dia, " +
+                                         "hora_inicio, hora_fin) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE horario SET docente_id = ?, aula_id = ?, curso_id = ?, " +
+                                         "dia = ?, hora_inicio = ?, hora_fin = ? WHERE id = ?";
     private final DBConnection dbConnection;
+    private final JdbcTemplate jdbc;
     
     public HorarioDaoImpl() {
         this.dbConnection = DBConnection.getInstance();
+        this.jdbc = new JdbcTemplate(dbConnection);
+    }
+    
+    /**
+     * Registra un listener que recibe los cambios después del commit
+     */
+    public static void agregarListener(HorarioListener listener) {
+        LISTENERS.add(listener);
+    }
+    
+    /**
+     * Notifica a los listeners; dentro de una unidad de trabajo, solo si se confirma
+     */
+    private static void notificar(Consumer<HorarioListener> evento) {
+        if (LISTENERS.isEmpty()) {
+            return;
+        }
+        Runnable accion = () -> LISTENERS.forEach(evento);
+        Optional<UnitOfWork> uow = UnitOfWork.actual();
+        if (uow.isPresent()) {
+            uow.get().alConfirmar(accion);
+        } else {
+            accion.run();
+        }
     }
     
     @Override
     public Optional<Horario> buscarPorId(Integer id) {
-        String sql = "SELECT h.*, " +
-                    "d.dni as docente_dni, d.nombre as docente_nombre, " +
-                    "d.apellido_paterno as docente_ap_paterno, d.apellido_materno as docente_ap_materno, " +
-                    "a.codigo as aula_codigo, a.nombre as aula_nombre, a.capacidad as aula_capacidad, " +
-                    "c.nombre as curso_nombre, c.codigo as curso_codigo, c.nivel as curso_nivel, c.grado as curso_grado " +
-                    "FROM horario h " +
-                    "JOIN docente d ON h.docente_id = d.id " +
-                    "JOIN aula a ON h.aula_id = a.id " +
-                    "JOIN curso c ON h.curso_id = c.id " +
-                    "WHERE h.id = ?";
-        
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, id);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                Horario horario = mapResultSetToHorario(rs);
-                logger.debug("Horario encontrado con ID: {}", id);
-                return Optional.of(horario);
+        // Mapa de identidad de la unidad de trabajo activa
+        Optional<UnitOfWork> uow = UnitOfWork.actual();
+        if (uow.isPresent()) {
+            Optional<Horario> enMapa = uow.get().buscarEnMapa(Horario.class, id);
+            if (enMapa.isPresent()) {
+                return enMapa;
             }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logger.error("Error al buscar horario por ID: {}", e.getMessage());
-            return Optional.empty();
-        } finally {
-            dbConnection.closeConnection(conn);
         }
+        
+        Optional<Horario> horario = jdbc.buscar("buscar horario por ID",
+                SELECT_HORARIO + "WHERE h.id = ?", p -> p.entero(id), nuevoMapper());
+        horario.ifPresent(h -> uow.ifPresent(u -> u.registrar(Horario.class, id, h)));
+        return horario;
     }
     
     @Override
     public List<Horario> listarTodos() {
-        String sql = "SELECT h.*, " +
-                    "d.dni as docente_dni, d.nombre as docente_nombre, " +
-                    "d.apellido_paterno as docente_ap_paterno, d.apellido_materno as docente_ap_materno, " +
-                    "a.codigo as aula_codigo, a.nombre as aula_nombre, a.capacidad as aula_capacidad, " +
-                    "c.nombre as curso_nombre, c.codigo as curso_codigo, c.nivel as curso_nivel, c.grado as curso_grado " +
-                    "FROM horario h " +
-                    "JOIN docente d ON h.docente_id = d.id " +
-                    "JOIN aula a ON h.aula_id = a.id " +
-                    "JOIN curso c ON h.curso_id = c.id " +
-                    "ORDER BY h.dia, h.hora_inicio";
-        
+        return jdbc.listar("listar horarios",
+                SELECT_HORARIO + "ORDER BY h.dia, h.hora_inicio",
+                ParameterBinder.NINGUNO, nuevoMapper());
+    }
+    
+    @Override
+    public Optional<List<Horario>> leerTodos() {
         List<Horario> horarios = new ArrayList<>();
-        Connection conn = null;
+        boolean completo = jdbc.recorrer("leer horarios",
+                SELECT_HORARIO + "ORDER BY h.dia, h.hora_inicio",
+                ParameterBinder.NINGUNO, nuevoMapper(), horarios::add);
+        return completo ? Optional.of(horarios) : Optional.empty();
+    }
+    
+    @Override
+    public Pagina<HorarioResumen> listarPagina(FiltroListado filtro, ClavePagina clave, int limite) {
+        List<Object> parametros = new ArrayList<>();
+        StringBuilder sql = consultaFiltrada(filtro, parametros);
         
-        try {
-            conn = dbConnection.getConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
-            
-            while (rs.next()) {
-                horarios.add(mapResultSetToHorario(rs));
+        Object[] valoresClave = null;
+        if (clave != null) {
+            try {
+                // dia es ENUM: la clave lleva su índice (ordinal + 1), que es como MySQL lo ordena
+                valoresClave = new Object[] {
+                    Integer.valueOf(clave.get(0)),
+                    Time.valueOf(LocalTime.parse(clave.get(1))),
+                    Integer.valueOf(clave.get(2))
+                };
+                sql.append(" AND ").append(clave.condicion("h.dia", "h.hora_inicio", "h.id"));
+            } catch (RuntimeException e) {
+                // Token alterado o de otro listado: se vuelve a la primera página
+                logger.debug("Clave de página inválida: {}", e.getMessage());
+                clave = null;
             }
-            
-            logger.debug("Se encontraron {} horarios", horarios.size());
-            
-        } catch (SQLException e) {
-            logger.error("Error al listar horarios: {}", e.getMessage());
-        } finally {
-            dbConnection.closeConnection(conn);
         }
+        String orden = clave != null && clave.isAtras() ? " DESC" : "";
+        sql.append(" ORDER BY h.dia").append(orden)
+           .append(", h.hora_inicio").append(orden)
+           .append(", h.id").append(orden)
+           .append(" LIMIT ?");
         
-        return horarios;
+        // Valores de la clave solo si quedó en la consulta
+        Object[] valores = clave != null ? valoresClave : null;
+        List<HorarioResumen> horarios = jdbc.listar("listar página de horarios", sql.toString(), p -> {
+            for (Object parametro : parametros) {
+                p.objeto(parametro);
+            }
+            if (valores != null) {
+                ClavePagina.enlazar(p, valores);
+            }
+            p.entero(limite + 1);
+        }, this::mapResultSetToResumen);
+        
+        return Pagina.armar(horarios, clave, limite, h -> new String[] {
+            String.valueOf(h.getDia().ordinal() + 1), h.getHoraInicio().toString(), String.valueOf(h.getId()) });
     }
     
     @Override
-    public List<Horario> listarPorDocente(Integer docenteId) {
-        String sql = "SELECT h.*, " +
-                    "d.dni as docente_dni, d.nombre as docente_nombre, " +
-                    "d.apellido_paterno as docente_ap_paterno, d.apellido_materno as docente_ap_materno, " +
-                    "a.codigo as aula_codigo, a.nombre as aula_nombre, a.capacidad as aula_capacidad, " +
-                    "c.nombre as curso_nombre, c.codigo as curso_codigo, c.nivel as curso_nivel, c.grado as curso_grado " +
-                    "FROM horario h " +
-                    "JOIN docente d ON h.docente_id = d.id " +
-                    "JOIN aula a ON h.aula_id = a.id " +
-                    "JOIN curso c ON h.curso_id = c.id " +
-                    "WHERE h.docente_id = ? " +
-                    "ORDER BY h.dia, h.hora_inicio";
+    public boolean recorrer(FiltroListado filtro, Consumer<HorarioResumen> consumidor) {
+        List<Object> parametros = new ArrayList<>();
+        StringBuilder sql = consultaFiltrada(filtro, parametros);
+        sql.append(" ORDER BY h.dia, h.hora_inicio, h.id");
         
-        List<Horario> horarios = new ArrayList<>();
-        Connection conn = null;
+        return jdbc.recorrer("recorrer horarios", sql.toString(), p -> {
+            for (Object parametro : parametros) {
+                p.objeto(parametro);
+            }
+        }, this::mapResultSetToResumen, consumidor);
+    }
+    
+    /**
+     * SELECT de resúmenes de horario con las condiciones de FiltroListado
+     * (sin ORDER BY)
+     * 
+     * @param parametros recibe los valores a enlazar, en orden
+     */
+    private StringBuilder consultaFiltrada(FiltroListado filtro, List<Object> parametros) {
+        StringBuilder sql = new StringBuilder(SELECT_RESUMEN + "WHERE 1 = 1");
         
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, docenteId);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                horarios.add(mapResultSetToHorario(rs));
+        if (filtro.getDia() != null) {
+            sql.append(" AND h.dia = ?");
+            parametros.add(filtro.getDia().name());
+        }
+        if (filtro.getNivel() != null) {
+            sql.append(" AND c.nivel = ?");
+            parametros.add(filtro.getNivel().name());
+        }
+        if (filtro.getGrado() != null) {
+            sql.append(" AND c.grado = ?");
+            parametros.add(filtro.getGrado());
+        }
+        if (filtro.getDocenteId() != null) {
+            sql.append(" AND h.docente_id = ?");
+            parametros.add(filtro.getDocenteId());
+        }
+        if (filtro.getAulaId() != null) {
+            sql.append(" AND h.aula_id = ?");
+            parametros.add(filtro.getAulaId());
+        }
+        return sql;
+    }
+    
+    @Override
+    public List<Horario> listarPorDocente(Integer docenteId) {
+        return jdbc.listar("listar horarios por docente",
+                SELECT_HORARIO + "WHERE h.docente_id = ? ORDER BY h.dia, h.hora_inicio",
+                p -> p.entero(docenteId), nuevoMapper());
+    }
+    
+    @Override
+    public List<Horario> listarPorAula(Integer aulaId) {
+        return jdbc.listar("listar horarios por aula",
+                SELECT_HORARIO + "WHERE h.aula_id = ? ORDER BY h.dia, h.hora_inicio",
+                p -> p.entero(aulaId), nuevoMapper());
+    }
+    
+    @Override
+    public List<Horario> listarPorCurso(Integer cursoId) {
+        return jdbc.listar("listar horarios por curso",
+                SELECT_HORARIO + "WHERE h.curso_id = ? ORDER BY h.dia, h.hora_inicio",
+                p -> p.entero(cursoId), nuevoMapper());
+    }
+    
+    @Override
+    public boolean insertar(Horario horario) {
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            Optional<Integer> id = jdbc.insertar("insertar horario", INSERT, p -> enlazar(p, horario));
+            if (!id.isPresent()) {
+                // Nada escrito; sin commit, la unidad de quien llama quedaría marcada para deshacerse
+                uow.commit();
+                return false;
             }
-            
-            logger.debug("Se encontraron {} horarios para docente {}", horarios.size(), docenteId);
+            horario.setId(id.get());
+            notificar(l -> l.alGuardar(horario));
+            VersionDatos.incrementar(uow, VersionDatos.HORARIO);
+            uow.commit();
+            logger.info("Horario insertado: {} - {}", horario.getDia(), horario.getHoraInicio());
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al listar horarios por docente: {}", e.getMessage());
-        } finally {
-            dbConnection.closeConnection(conn);
+            logger.error("Error al insertar horario: {}", e.getMessage());
+            return false;
         }
-        
-        return horarios;
     }
     
     @Override
-    public List<Horario> listarPorAula(Integer aulaId) {
-        String sql = "SELECT h.*, " +
-                    "d.dni as docente_dni, d.nombre as docente_nombre, " +
-                    "d.apellido_paterno as docente_ap_paterno, d.apellido_materno as docente_ap_materno, " +
-                    "a.codigo as aula_codigo, a.nombre as aula_nombre, a.capacidad as aula_capacidad, " +
-                    "c.nombre as curso_nombre, c.codigo as curso_codigo, c.nivel as curso_nivel, c.grado as curso_grado " +
-                    "FROM horario h " +
-                    "JOIN docente d ON h.docente_id = d.id " +
-                    "JOIN aula a ON h.aula_id = a.id " +
-                    "JOIN curso c ON h.curso_id = c.id " +
-                    "WHERE h.aula_id = ? " +
-                    "ORDER BY h.dia, h.hora_inicio";
-        
-        List<Horario> horarios = new ArrayList<>();
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, aulaId);
-            ResultSet rs = stmt.executeQuery();
+    public boolean insertarLote(List<Horario> horarios) {
+        if (horarios.isEmpty()) {
+            return true;
+        }
+        try (UnitOfWork uow = UnitOfWork.iniciar();
+             PreparedStatement stmt = uow.getConexion().prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
             
-            while (rs.next()) {
-                horarios.add(mapResultSetToHorario(rs));
+            for (List<Horario> tramo : Lists.partition(horarios, dbConnection.getTamanoLote())) {
+                for (Horario horario : tramo) {
+                    enlazar(new Parametros(stmt), horario);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                
+                // Las claves generadas llegan en el orden del tramo
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    for (Horario horario : tramo) {
+                        if (!rs.next()) {
+                            break;
+                        }
+                        horario.setId(rs.getInt(1));
+                    }
+                }
+            }
+            for (Horario horario : horarios) {
+                notificar(l -> l.alGuardar(horario));
             }
+            VersionDatos.incrementar(uow, VersionDatos.HORARIO);
             
-            logger.debug("Se encontraron {} horarios para aula {}", horarios.size(), aulaId);
+            uow.commit();
+            logger.info("Lote de {} horarios insertado", horarios.size());
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al listar horarios por aula: {}", e.getMessage());
-        } finally {
-            dbConnection.closeConnection(conn);
+            logger.error("Error al insertar lote de horarios: {}", e.getMessage());
+            return false;
         }
-        
-        return horarios;
     }
     
     @Override
-    public List<Horario> listarPorCurso(Integer cursoId) {
-        String sql = "SELECT h.*, " +
-                    "d.dni as docente_dni, d.nombre as docente_nombre, " +
-                    "d.apellido_paterno as docente_ap_paterno, d.apellido_materno as docente_ap_materno, " +
-                    "a.codigo as aula_codigo, a.nombre as aula_nombre, a.capacidad as aula_capacidad, " +
-                    "c.nombre as curso_nombre, c.codigo as curso_codigo, c.nivel as curso_nivel, c.grado as curso_grado " +
-                    "FROM horario h " +
-                    "JOIN docente d ON h.docente_id = d.id " +
-                    "JOIN aula a ON h.aula_id = a.id " +
-                    "JOIN curso c ON h.curso_id = c.id " +
-                    "WHERE h.curso_id = ? " +
-                    "ORDER BY h.dia, h.hora_inicio";
-        
-        List<Horario> horarios = new ArrayList<>();
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, cursoId);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                horarios.add(mapResultSetToHorario(rs));
+    public boolean actualizar(Horario horario) {
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            if (jdbc.actualizar("actualizar horario", UPDATE, p -> enlazar(p, horario).entero(horario.getId())) <= 0) {
+                // Nada escrito; sin commit, la unidad de quien llama quedaría marcada para deshacerse
+                uow.commit();
+                return false;
             }
-            
-            logger.debug("Se encontraron {} horarios para curso {}", horarios.size(), cursoId);
+            uow.quitar(Horario.class, horario.getId());
+            notificar(l -> l.alGuardar(horario));
+            VersionDatos.incrementar(uow, VersionDatos.HORARIO);
+            uow.commit();
+            logger.info("Horario actualizado: ID {}", horario.getId());
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al listar horarios por curso: {}", e.getMessage());
-        } finally {
-            dbConnection.closeConnection(conn);
+            logger.error("Error al actualizar horario: {}", e.getMessage());
+            return false;
         }
-        
-        return horarios;
     }
     
     @Override
-    public boolean insertar(Horario horario) {
-        String sql = "INSERT INTO horario (docente_id, aula_id, curso_id, dia, hora_inicio, hora_fin) " +
-                     "VALUES (?, ?, ?, ?, ?, ?)";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setInt(1, horario.getDocenteId());
-            stmt.setInt(2, horario.getAulaId());
-            stmt.setInt(3, horario.getCursoId());
-            stmt.setString(4, horario.getDia().name());
-            stmt.setTime(5, Time.valueOf(horario.getHoraInicio()));
-            stmt.setTime(6, Time.valueOf(horario.getHoraFin()));
-            
-            int filasAfectadas = stmt.executeUpdate();
-            
-            if (filasAfectadas > 0) {
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    horario.setId(rs.getInt(1));
+    public boolean actualizarLote(List<Horario> horarios) {
+        if (horarios.isEmpty()) {
+            return true;
+        }
+        try (UnitOfWork uow = UnitOfWork.iniciar();
+             PreparedStatement stmt = uow.getConexion().prepareStatement(UPDATE)) {
+            
+            int filasAfectadas = 0;
+            for (List<Horario> tramo : Lists.partition(horarios, dbConnection.getTamanoLote())) {
+                for (Horario horario : tramo) {
+                    enlazar(new Parametros(stmt), horario).entero(horario.getId());
+                    stmt.addBatch();
                 }
-                logger.info("Horario insertado: {} - {}", horario.getDia(), horario.getHoraInicio());
-                return true;
+                filasAfectadas += contarAfectadas(stmt.executeBatch());
             }
+            for (Horario horario : horarios) {
+                uow.quitar(Horario.class, horario.getId());
+                notificar(l -> l.alGuardar(horario));
+            }
+            VersionDatos.incrementar(uow, VersionDatos.HORARIO);
             
-            return false;
+            uow.commit();
+            logger.info("Lote de {} horarios actualizado ({} filas)", horarios.size(), filasAfectadas);
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al insertar horario: {}", e.getMessage());
+            logger.error("Error al actualizar lote de horarios: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
     @Override
-    public boolean actualizar(Horario horario) {
-        String sql = "UPDATE horario SET docente_id = ?, aula_id = ?, curso_id = ?, " +
-                     "dia = ?, hora_inicio = ?, hora_fin = ? WHERE id = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            
-            stmt.setInt(1, horario.getDocenteId());
-            stmt.setInt(2, horario.getAulaId());
-            stmt.setInt(3, horario.getCursoId());
-            stmt.setString(4, horario.getDia().name());
-            stmt.setTime(5, Time.valueOf(horario.getHoraInicio()));
-            stmt.setTime(6, Time.valueOf(horario.getHoraFin()));
-            stmt.setInt(7, horario.getId());
-            
-            int filasAfectadas = stmt.executeUpdate();
-            
-            if (filasAfectadas > 0) {
-                logger.info("Horario actualizado: ID {}", horario.getId());
-                return true;
+    public boolean eliminar(Integer id) {
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            if (jdbc.actualizar("eliminar horario", "DELETE FROM horario WHERE id = ?", p -> p.entero(id)) <= 0) {
+                // Nada escrito; sin commit, la unidad de quien llama quedaría marcada para deshacerse
+                uow.commit();
+                return false;
             }
-            
-            return false;
+            uow.quitar(Horario.class, id);
+            notificar(l -> l.alEliminar(id));
+            VersionDatos.incrementar(uow, VersionDatos.HORARIO);
+            uow.commit();
+            logger.info("Horario eliminado con ID: {}", id);
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al actualizar horario: {}", e.getMessage());
+            logger.error("Error al eliminar horario: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
     @Override
-    public boolean eliminar(Integer id) {
+    public boolean eliminarLote(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return true;
+        }
         String sql = "DELETE FROM horario WHERE id = ?";
-        Connection conn = null;
         
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, id);
-            
-            int filasAfectadas = stmt.executeUpdate();
-            
-            if (filasAfectadas > 0) {
-                logger.info("Horario eliminado con ID: {}", id);
-                return true;
+        try (UnitOfWork uow = UnitOfWork.iniciar();
+             PreparedStatement stmt = uow.getConexion().prepareStatement(sql)) {
+            
+            int filasAfectadas = 0;
+            for (List<Integer> tramo : Lists.partition(ids, dbConnection.getTamanoLote())) {
+                for (Integer id : tramo) {
+                    stmt.setInt(1, id);
+                    stmt.addBatch();
+                }
+                filasAfectadas += contarAfectadas(stmt.executeBatch());
+            }
+            for (Integer id : ids) {
+                uow.quitar(Horario.class, id);
+                notificar(l -> l.alEliminar(id));
             }
+            VersionDatos.incrementar(uow, VersionDatos.HORARIO);
             
-            return false;
+            uow.commit();
+            logger.info("Lote de {} horarios eliminado ({} filas)", ids.size(), filasAfectadas);
+            return true;
             
         } catch (SQLException e) {
-            logger.error("Error al eliminar horario: {}", e.getMessage());
+            logger.error("Error al eliminar lote de horarios: {}", e.getMessage());
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
     }
     
     @Override
-    public boolean existeChoqueDocente(Integer docenteId, String dia, String horaInicio, String horaFin, Integer horarioIdExcluir) {
-        String sql = "SELECT COUNT(*) FROM horario " +
-                     "WHERE docente_id = ? AND dia = ? " +
-                     "AND ((hora_inicio < ? AND hora_fin > ?) OR " +
-                     "     (hora_inicio < ? AND hora_fin > ?) OR " +
-                     "     (hora_inicio >= ? AND hora_fin <= ?))";
-        
-        if (horarioIdExcluir != null) {
-            sql += " AND id != ?";
+    public ResultadoGuardado insertarSinChoque(Horario horario) {
+        return guardarSinChoque(horario, false);
+    }
+    
+    @Override
+    public ResultadoGuardado actualizarSinChoque(Horario horario) {
+        return guardarSinChoque(horario, true);
+    }
+    
+    /**
+     * Versión por lotes de guardarSinChoque: toma de una vez los bloqueos con
+     * nombre de todos los docentes, aulas y secciones del lote para sus días,
+     * verifica los choques de todo el lote con una sola consulta FOR UPDATE e
+     * inserta con insertarLote los horarios que no chocan. Los bloqueos se
+     * liberan al terminar la transacción, como en guardarSinChoque.
+     */
+    @Override
+    public List<ResultadoGuardado> insertarLoteSinChoque(List<Horario> horarios) {
+        if (horarios.isEmpty()) {
+            return new ArrayList<>();
         }
-        
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            
-            stmt.setInt(1, docenteId);
-            stmt.setString(2, dia);
-            stmt.setString(3, horaFin);
-            stmt.setString(4, horaInicio);
-            stmt.setString(5, horaFin);
-            stmt.setString(6, horaFin);
-            stmt.setString(7, horaInicio);
-            stmt.setString(8, horaFin);
-            
-            if (horarioIdExcluir != null) {
-                stmt.setInt(9, horarioIdExcluir);
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            Connection conn = uow.getConexion();
+            Map<Integer, String> secciones = seccionesDeCursos(conn, horarios);
+            List<String> claves = new ArrayList<>();
+            for (Horario horario : horarios) {
+                claves.addAll(clavesBloqueo(horario, secciones.get(horario.getCursoId())));
             }
+            LockProvider.Bloqueo bloqueo = dbConnection.getLockProvider().adquirir(conn, claves);
+            uow.alTerminar(bloqueo::close);
+            
+            Map<Integer, List<Horario>> choques = consultarChoquesLote(conn, horarios);
+            List<Horario> libres = new ArrayList<>(horarios.size());
+            for (int i = 0; i < horarios.size(); i++) {
+                if (!choques.containsKey(i)) {
+                    libres.add(horarios.get(i));
+                }
+            }
+            if (!insertarLote(libres)) {
+                return resultadosIguales(horarios.size(), Estado.ERROR);
+            }
+            uow.commit();
             
-            ResultSet rs = stmt.executeQuery();
+            List<ResultadoGuardado> resultados = new ArrayList<>(horarios.size());
+            for (int i = 0; i < horarios.size(); i++) {
+                List<Horario> choquesFila = choques.get(i);
+                resultados.add(choquesFila == null ? new ResultadoGuardado(Estado.GUARDADO)
+                                                   : ResultadoGuardado.choque(horarios.get(i), choquesFila));
+            }
+            return resultados;
             
-            if (rs.next()) {
-                boolean hayChoque = rs.getInt(1) > 0;
-                if (hayChoque) {
-                    logger.warn("Choque detectado para docente {} en {} {}-{}", 
-                               docenteId, dia, horaInicio, horaFin);
+        } catch (SQLTimeoutException e) {
+            logger.warn("Bloqueos no disponibles para el lote de {} horarios: {}", horarios.size(), e.getMessage());
+            return resultadosIguales(horarios.size(), Estado.BLOQUEADO);
+        } catch (SQLException e) {
+            logger.error("Error al insertar lote de horarios sin choque: {}", e.getMessage());
+            return resultadosIguales(horarios.size(), Estado.ERROR);
+        }
+    }
+    
+    private static List<ResultadoGuardado> resultadosIguales(int cantidad, Estado estado) {
+        List<ResultadoGuardado> resultados = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            resultados.add(new ResultadoGuardado(estado));
+        }
+        return resultados;
+    }
+    
+    /**
+     * Claves de los bloqueos con nombre de un horario: docente, aula y, si se
+     * conoce, sección (nivel-grado) del curso, cada una para el día
+     */
+    private static List<String> clavesBloqueo(Horario horario, String seccion) {
+        String dia = horario.getDia().name();
+        List<String> claves = new ArrayList<>(Arrays.asList(
+                "docente:" + horario.getDocenteId() + ":" + dia,
+                "aula:" + horario.getAulaId() + ":" + dia));
+        if (seccion != null) {
+            claves.add("seccion:" + seccion + ":" + dia);
+        }
+        return claves;
+    }
+    
+    /**
+     * Sección (nivel-grado) de los cursos de los horarios, con una consulta
+     */
+    private static Map<Integer, String> seccionesDeCursos(Connection conn, List<Horario> horarios)
+            throws SQLException {
+        Set<Integer> cursoIds = new LinkedHashSet<>();
+        for (Horario horario : horarios) {
+            cursoIds.add(horario.getCursoId());
+        }
+        String sql = "SELECT id, nivel, grado FROM curso WHERE id IN ("
+                     + String.join(", ", Collections.nCopies(cursoIds.size(), "?")) + ")";
+        
+        Map<Integer, String> secciones = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Parametros p = new Parametros(stmt);
+            for (Integer cursoId : cursoIds) {
+                p.entero(cursoId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    secciones.put(rs.getInt(1), rs.getString(2) + "-" + rs.getInt(3));
                 }
-                return hayChoque;
+            }
+        }
+        return secciones;
+    }
+    
+    /**
+     * Choques de cada horario del lote con los ya registrados, en una sola
+     * consulta: el lote va como tabla derivada (una fila por horario, con su
+     * posición) y se cruza con horario con las mismas reglas que
+     * consultarChoques. Bloquea con FOR UPDATE los horarios encontrados.
+     * 
+     * @return choques por posición en el lote (solo las que chocan)
+     */
+    private Map<Integer, List<Horario>> consultarChoquesLote(Connection conn, List<Horario> horarios)
+            throws SQLException {
+        StringBuilder lote = new StringBuilder();
+        for (int i = 0; i < horarios.size(); i++) {
+            lote.append(i == 0 ? "SELECT ? AS i, ? AS dia, CAST(? AS TIME) AS inicio, CAST(? AS TIME) AS fin, "
+                                 + "? AS docente_id, ? AS aula_id, ? AS curso_id"
+                               : " UNION ALL SELECT ?, ?, CAST(? AS TIME), CAST(? AS TIME), ?, ?, ?");
+        }
+        String sql = "SELECT n.i, h.id, h.docente_id, h.aula_id, h.curso_id, h.dia, h.hora_inicio, h.hora_fin " +
+                    "FROM (" + lote + ") n " +
+                    "JOIN horario h ON h.dia = n.dia AND h.hora_inicio < n.fin AND h.hora_fin > n.inicio " +
+                    "JOIN curso c ON h.curso_id = c.id " +
+                    "LEFT JOIN curso cn ON cn.id = n.curso_id " +
+                    "WHERE h.docente_id = n.docente_id OR h.aula_id = n.aula_id " +
+                    "   OR (c.nivel = cn.nivel AND c.grado = cn.grado) " +
+                    "ORDER BY n.i, h.hora_inicio FOR UPDATE OF h";
+        
+        Map<Integer, List<Horario>> choques = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Parametros p = new Parametros(stmt);
+            for (int i = 0; i < horarios.size(); i++) {
+                Horario horario = horarios.get(i);
+                p.entero(i)
+                 .enumerado(horario.getDia())
+                 .hora(horario.getHoraInicio())
+                 .hora(horario.getHoraFin())
+                 .entero(horario.getDocenteId())
+                 .entero(horario.getAulaId())
+                 .entero(horario.getCursoId());
             }
             
-            return false;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    List<Horario> choquesFila = choques.computeIfAbsent(rs.getInt(1), k -> new ArrayList<>());
+                    if (choquesFila.size() < LIMITE_CHOQUES) {
+                        choquesFila.add(new Horario(rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5),
+                                Horario.Dia.valueOf(rs.getString(6)),
+                                rs.getTime(7).toLocalTime(), rs.getTime(8).toLocalTime()));
+                    }
+                }
+            }
+        }
+        
+        if (!choques.isEmpty()) {
+            logger.warn("{} horario(s) del lote chocan con horarios registrados", choques.size());
+        }
+        return choques;
+    }
+    
+    /**
+     * Verifica choques y guarda el horario de forma atómica.
+     * 
+     * Antes de verificar se toman los bloqueos con nombre del docente, del
+     * aula y de la sección (nivel y grado del curso) para el día, las tres
+     * reglas de choque (ver db.lock.provider); con GET_LOCK de MySQL esto
+     * protege también entre varios nodos. Además, la consulta de choques usa
+     * SELECT ... FOR UPDATE dentro de la transacción. Si hay una unidad de
+     * trabajo activa se participa en ella, y los bloqueos con nombre se
+     * liberan al terminar esa transacción (UnitOfWork.alTerminar), no al
+     * salir de este método: otro guardado del mismo docente o aula espera su
+     * turno en GET_LOCK en lugar de chocar con los bloqueos de filas.
+     */
+    private ResultadoGuardado guardarSinChoque(Horario horario, boolean actualizar) {
+        String dia = horario.getDia().name();
+        
+        try (UnitOfWork uow = UnitOfWork.iniciar()) {
+            // Sin curso no hay sección que proteger: el INSERT fallará por la FK
+            String seccion = jdbc.buscar("buscar sección del curso", "SELECT nivel, grado FROM curso WHERE id = ?",
+                    p -> p.entero(horario.getCursoId()), rs -> rs.getString(1) + "-" + rs.getInt(2)).orElse(null);
+            
+            LockProvider.Bloqueo bloqueo = dbConnection.getLockProvider()
+                    .adquirir(uow.getConexion(), clavesBloqueo(horario, seccion));
+            uow.alTerminar(bloqueo::close);
+            
+            ResultadoGuardado resultado = verificarYGuardar(uow.getConexion(), horario, actualizar);
+            if (resultado.isGuardado()) {
+                uow.commit();
+            } else {
+                uow.rollback();
+            }
+            return resultado;
             
+        } catch (SQLTimeoutException e) {
+            logger.warn("Bloqueo no disponible para docente {} / aula {} en {}: {}",
+                        horario.getDocenteId(), horario.getAulaId(), dia, e.getMessage());
+            return new ResultadoGuardado(Estado.BLOQUEADO);
         } catch (SQLException e) {
-            logger.error("Error al verificar choque de docente: {}", e.getMessage());
-            return true; // Por seguridad, asumir que hay choque
-        } finally {
-            dbConnection.closeConnection(conn);
+            logger.error("Error al guardar horario sin choque: {}", e.getMessage());
+            return new ResultadoGuardado(Estado.ERROR);
         }
     }
     
-    @Override
-    public boolean existeChoqueAula(Integer aulaId, String dia, String horaInicio, String horaFin, Integer horarioIdExcluir) {
-        String sql = "SELECT COUNT(*) FROM horario " +
-                     "WHERE aula_id = ? AND dia = ? " +
-                     "AND ((hora_inicio < ? AND hora_fin > ?) OR " +
-                     "     (hora_inicio < ? AND hora_fin > ?) OR " +
-                     "     (hora_inicio >= ? AND hora_fin <= ?))";
-        
-        if (horarioIdExcluir != null) {
-            sql += " AND id != ?";
+    private ResultadoGuardado verificarYGuardar(Connection conn, Horario horario,
+                                                boolean actualizar) throws SQLException {
+        List<Horario> choques = consultarChoques(conn, horario, LIMITE_CHOQUES, true);
+        if (!choques.isEmpty()) {
+            return ResultadoGuardado.choque(horario, choques);
         }
         
+        if (actualizar) {
+            return new ResultadoGuardado(actualizar(horario) ? Estado.GUARDADO : Estado.NO_ENCONTRADO);
+        }
+        return new ResultadoGuardado(insertar(horario) ? Estado.GUARDADO : Estado.ERROR);
+    }
+    
+    @Override
+    public Optional<List<Horario>> buscarChoques(Horario horario, int limite) {
         Connection conn = null;
         
         try {
             conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
+            return Optional.of(consultarChoques(conn, horario, limite, false));
             
-            stmt.setInt(1, aulaId);
-            stmt.setString(2, dia);
-            stmt.setString(3, horaFin);
-            stmt.setString(4, horaInicio);
-            stmt.setString(5, horaFin);
-            stmt.setString(6, horaFin);
-            stmt.setString(7, horaInicio);
-            stmt.setString(8, horaFin);
-            
-            if (horarioIdExcluir != null) {
-                stmt.setInt(9, horarioIdExcluir);
+        } catch (SQLException e) {
+            logger.error("Error al buscar choques de horario: {}", e.getMessage());
+            return Optional.empty();
+        } finally {
+            dbConnection.closeConnection(conn);
+        }
+    }
+    
+    /**
+     * Horarios del mismo día que se solapan con el dado y comparten docente,
+     * aula o sección (nivel y grado del curso), en una sola consulta.
+     * Dos intervalos se solapan si inicio < finOtro AND fin > inicioOtro.
+     * 
+     * @param bloquear agrega FOR UPDATE OF h para bloquear hasta el fin de la transacción
+     */
+    private List<Horario> consultarChoques(Connection conn, Horario horario, int limite,
+                                           boolean bloquear) throws SQLException {
+        String sql = SELECT_HORARIO +
+                    "WHERE h.dia = ? AND h.hora_inicio < ? AND h.hora_fin > ? " +
+                    "AND (h.docente_id = ? OR h.aula_id = ? " +
+                    "     OR (c.nivel, c.grado) = (SELECT nivel, grado FROM curso WHERE id = ?))" +
+                    (horario.getId() != null ? " AND h.id != ?" : "") +
+                    " ORDER BY h.hora_inicio LIMIT ?" +
+                    (bloquear ? " FOR UPDATE OF h" : "");
+        
+        List<Horario> choques = new ArrayList<>();
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Parametros p = new Parametros(stmt)
+                    .enumerado(horario.getDia())
+                    .hora(horario.getHoraFin())
+                    .hora(horario.getHoraInicio())
+                    .entero(horario.getDocenteId())
+                    .entero(horario.getAulaId())
+                    .entero(horario.getCursoId());
+            if (horario.getId() != null) {
+                p.entero(horario.getId());
             }
+            p.entero(limite);
             
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                boolean hayChoque = rs.getInt(1) > 0;
-                if (hayChoque) {
-                    logger.warn("Choque detectado para aula {} en {} {}-{}", 
-                               aulaId, dia, horaInicio, horaFin);
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<Horario> mapper = nuevoMapper();
+                while (rs.next()) {
+                    choques.add(mapper.mapear(rs));
                 }
-                return hayChoque;
             }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.error("Error al verificar choque de aula: {}", e.getMessage());
-            return true; // Por seguridad, asumir que hay choque
-        } finally {
-            dbConnection.closeConnection(conn);
         }
+        
+        if (!choques.isEmpty()) {
+            logger.warn("{} choque(s) para docente {} / aula {} / curso {} en {} {}-{}", choques.size(),
+                        horario.getDocenteId(), horario.getAulaId(), horario.getCursoId(),
+                        horario.getDia(), horario.getHoraInicio(), horario.getHoraFin());
+        }
+        return choques;
+    }
+    
+    /**
+     * Mapper para una consulta sobre SELECT_HORARIO; cada consulta usa el suyo
+     * para que las instancias compartidas no crucen de una consulta a otra.
+     */
+    private RowMapper<Horario> nuevoMapper() {
+        Relacionados relacionados = new Relacionados();
+        return rs -> mapResultSetToHorario(rs, relacionados);
     }
     
     /**
-     * Mapea un ResultSet a un objeto Horario completo con sus relaciones
+     * Mapea un ResultSet a un objeto Horario, por posición según SELECT_HORARIO.
+     * Docente, aula y curso se toman de {@code relacionados}, de modo que los
+     * horarios de una misma consulta comparten una instancia por entidad (esas
+     * instancias no deben modificarse).
      */
-    private Horario mapResultSetToHorario(ResultSet rs) throws SQLException {
+    private Horario mapResultSetToHorario(ResultSet rs, Relacionados relacionados) throws SQLException {
         Horario horario = new Horario();
         
         // Datos del horario
-        horario.setId(rs.getInt("id"));
-        horario.setDocenteId(rs.getInt("docente_id"));
-        horario.setAulaId(rs.getInt("aula_id"));
-        horario.setCursoId(rs.getInt("curso_id"));
-       String diaStr = rs.getString("dia");
-        horario.setDia(Horario.Dia.valueOf(diaStr));
-        horario.setHoraInicio(rs.getTime("hora_inicio").toLocalTime());
-        horario.setHoraFin(rs.getTime("hora_fin").toLocalTime());
+        horario.setId(rs.getInt(1));
+        horario.setDocenteId(rs.getInt(2));
+        horario.setAulaId(rs.getInt(3));
+        horario.setCursoId(rs.getInt(4));
+        horario.setDia(Horario.Dia.valueOf(rs.getString(5)));
+        horario.setHoraInicio(rs.getTime(6).toLocalTime());
+        horario.setHoraFin(rs.getTime(7).toLocalTime());
         
-        // Crear objetos relacionados (para mostrar en vistas)
-        Docente docente = new Docente();
-        docente.setId(rs.getInt("docente_id"));
-        docente.setDni(rs.getString("docente_dni"));
-        docente.setNombre(rs.getString("docente_nombre"));
-        docente.setApellidoPaterno(rs.getString("docente_ap_paterno"));
-        docente.setApellidoMaterno(rs.getString("docente_ap_materno"));
-        horario.setDocente(docente);
+        // Objetos relacionados (para mostrar en vistas), uno por ID en la consulta
+        horario.setDocente(relacionados.docente(rs, horario.getDocenteId()));
+        horario.setAula(relacionados.aula(rs, horario.getAulaId()));
+        horario.setCurso(relacionados.curso(rs, horario.getCursoId()));
         
-        Aula aula = new Aula();
-        aula.setId(rs.getInt("aula_id"));
-        aula.setCodigo(rs.getString("aula_codigo"));
-        aula.setNombre(rs.getString("aula_nombre"));
-        aula.setCapacidad(rs.getInt("aula_capacidad"));
-        horario.setAula(aula);
+        return horario;
+    }
+    
+    /**
+     * Mapea un ResultSet a un HorarioResumen, por posición según SELECT_RESUMEN
+     */
+    private HorarioResumen mapResultSetToResumen(ResultSet rs) throws SQLException {
+        return new HorarioResumen(
+                rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4),
+                Horario.Dia.valueOf(rs.getString(5)), rs.getInt(6), rs.getInt(7),
+                rs.getString(8),
+                rs.getString(9), Curso.Nivel.valueOf(rs.getString(10)), rs.getInt(11),
+                rs.getString(12), rs.getString(13));
+    }
+    
+    /**
+     * Docentes, aulas y cursos ya leídos en una consulta. Con 3.000 horarios
+     * y 80 docentes se crean 80 objetos Docente en lugar de 3.000.
+     */
+    private static final class Relacionados {
         
-        Curso curso = new Curso();
-        curso.setId(rs.getInt("curso_id"));
-        curso.setNombre(rs.getString("curso_nombre"));
-        curso.setCodigo(rs.getString("curso_codigo"));
-        String nivelStr = rs.getString("curso_nivel");
-        curso.setNivel(Curso.Nivel.valueOf(nivelStr));
-        curso.setGrado(rs.getInt("curso_grado"));
-        horario.setCurso(curso);
+        private final Map<Integer, Docente> docentes = new HashMap<>();
+        private final Map<Integer, Aula> aulas = new HashMap<>();
+        private final Map<Integer, Curso> cursos = new HashMap<>();
         
-        return horario;
+        Docente docente(ResultSet rs, Integer id) throws SQLException {
+            Docente docente = docentes.get(id);
+            if (docente == null) {
+                docente = new Docente();
+                docente.setId(id);
+                docente.setDni(rs.getString(8));
+                docente.setNombre(rs.getString(9));
+                docente.setApellidoPaterno(rs.getString(10));
+                docente.setApellidoMaterno(rs.getString(11));
+                docentes.put(id, docente);
+            }
+            return docente;
+        }
+        
+        Aula aula(ResultSet rs, Integer id) throws SQLException {
+            Aula aula = aulas.get(id);
+            if (aula == null) {
+                aula = new Aula();
+                aula.setId(id);
+                aula.setCodigo(rs.getString(12));
+                aula.setNombre(rs.getString(13));
+                aula.setCapacidad(rs.getInt(14));
+                aulas.put(id, aula);
+            }
+            return aula;
+        }
+        
+        Curso curso(ResultSet rs, Integer id) throws SQLException {
+            Curso curso = cursos.get(id);
+            if (curso == null) {
+                curso = new Curso();
+                curso.setId(id);
+                curso.setNombre(rs.getString(15));
+                curso.setCodigo(rs.getString(16));
+                curso.setNivel(Curso.Nivel.valueOf(rs.getString(17)));
+                curso.setGrado(rs.getInt(18));
+                cursos.put(id, curso);
+            }
+            return curso;
+        }
+    }
+    
+    /**
+     * Enlaza los campos de INSERT/UPDATE en el orden de las sentencias
+     */
+    private static Parametros enlazar(Parametros p, Horario horario) throws SQLException {
+        return p.entero(horario.getDocenteId())
+                .entero(horario.getAulaId())
+                .entero(horario.getCursoId())
+                .enumerado(horario.getDia())
+                .hora(horario.getHoraInicio())
+                .hora(horario.getHoraFin());
+    }
+    
+    /**
+     * Suma las filas afectadas de un executeBatch (SUCCESS_NO_INFO cuenta como una)
+     */
+    private static int contarAfectadas(int[] resultados) {
+        int total = 0;
+        for (int r : resultados) {
+            total += r == Statement.SUCCESS_NO_INFO ? 1 : Math.max(r, 0);
+        }
+        return total;
     }
 }
\ No newline at end of file
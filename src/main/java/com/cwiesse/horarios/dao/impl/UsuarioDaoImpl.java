@@ -1,13 +1,15 @@
 package com.cwiesse.horarios.dao.impl;
 
 import com.cwiesse.horarios.dao.UsuarioDao;
+import com.cwiesse.horarios.dao.jdbc.JdbcTemplate;
+import com.cwiesse.horarios.dao.jdbc.ParameterBinder;
+import com.cwiesse.horarios.dao.jdbc.Parametros;
 import com.cwiesse.horarios.model.Usuario;
 import com.cwiesse.horarios.util.DBConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,228 +22,103 @@ import java.util.Optional;
 public class UsuarioDaoImpl implements UsuarioDao {
     
     private static final Logger logger = LoggerFactory.getLogger(UsuarioDaoImpl.class);
-    private final DBConnection dbConnection;
+    // Columnas en el orden que lee mapResultSetToUsuario
+    private static final String COLUMNAS = "id, username, password_hash, rol, activo, fecha_creacion";
+    private final JdbcTemplate jdbc;
     
     // Constructor
     public UsuarioDaoImpl() {
-        this.dbConnection = DBConnection.getInstance();
+        this.jdbc = new JdbcTemplate(DBConnection.getInstance());
     }
     
     @Override
     public Optional<Usuario> buscarPorUsername(String username) {
-        String sql = "SELECT * FROM usuario WHERE username = ? AND activo = 1";
-        Connection conn = null;
+        Optional<Usuario> usuario = jdbc.buscar("buscar usuario por username",
+                "SELECT " + COLUMNAS + " FROM usuario WHERE username = ? AND activo = 1",
+                p -> p.texto(username), this::mapResultSetToUsuario);
         
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, username);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                Usuario usuario = mapResultSetToUsuario(rs);
-                logger.debug("Usuario encontrado: {}", username);
-                return Optional.of(usuario);
-            }
-            
+        if (!usuario.isPresent()) {
             logger.debug("Usuario no encontrado: {}", username);
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logger.error("Error al buscar usuario por username: {}", e.getMessage());
-            return Optional.empty();
-        } finally {
-            dbConnection.closeConnection(conn);
         }
+        return usuario;
     }
     
     @Override
     public Optional<Usuario> buscarPorId(Integer id) {
-        String sql = "SELECT * FROM usuario WHERE id = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, id);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                Usuario usuario = mapResultSetToUsuario(rs);
-                logger.debug("Usuario encontrado con ID: {}", id);
-                return Optional.of(usuario);
-            }
-            
-            return Optional.empty();
-            
-        } catch (SQLException e) {
-            logger.error("Error al buscar usuario por ID: {}", e.getMessage());
-            return Optional.empty();
-        } finally {
-            dbConnection.closeConnection(conn);
-        }
+        return jdbc.buscar("buscar usuario por ID",
+                "SELECT " + COLUMNAS + " FROM usuario WHERE id = ?",
+                p -> p.entero(id), this::mapResultSetToUsuario);
     }
     
     @Override
     public List<Usuario> listarTodos() {
-        String sql = "SELECT * FROM usuario ORDER BY username";
-        List<Usuario> usuarios = new ArrayList<>();
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
-            
-            while (rs.next()) {
-                usuarios.add(mapResultSetToUsuario(rs));
-            }
-            
-            logger.debug("Se encontraron {} usuarios", usuarios.size());
-            
-        } catch (SQLException e) {
-            logger.error("Error al listar usuarios: {}", e.getMessage());
-        } finally {
-            dbConnection.closeConnection(conn);
-        }
-        
-        return usuarios;
+        return jdbc.listar("listar usuarios",
+                "SELECT " + COLUMNAS + " FROM usuario ORDER BY username",
+                ParameterBinder.NINGUNO, this::mapResultSetToUsuario);
     }
     
     @Override
     public boolean insertar(Usuario usuario) {
-        String sql = "INSERT INTO usuario (username, password_hash, rol, activo) VALUES (?, ?, ?, ?)";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setString(1, usuario.getUsername());
-            stmt.setString(2, usuario.getPasswordHash());
-            stmt.setString(3, usuario.getRol().name());
-            stmt.setBoolean(4, usuario.isActivo());
-            
-            int filasAfectadas = stmt.executeUpdate();
-            
-            if (filasAfectadas > 0) {
-                // Obtener el ID generado
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    usuario.setId(rs.getInt(1));
-                }
-                logger.info("Usuario insertado: {}", usuario.getUsername());
-                return true;
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.error("Error al insertar usuario: {}", e.getMessage());
+        Optional<Integer> id = jdbc.insertar("insertar usuario",
+                "INSERT INTO usuario (username, password_hash, rol, activo) VALUES (?, ?, ?, ?)",
+                p -> enlazar(p, usuario));
+        if (!id.isPresent()) {
             return false;
-        } finally {
-            dbConnection.closeConnection(conn);
         }
+        usuario.setId(id.get());
+        logger.info("Usuario insertado: {}", usuario.getUsername());
+        return true;
     }
     
     @Override
     public boolean actualizar(Usuario usuario) {
-        String sql = "UPDATE usuario SET username = ?, password_hash = ?, rol = ?, activo = ? WHERE id = ?";
-        Connection conn = null;
+        int filasAfectadas = jdbc.actualizar("actualizar usuario",
+                "UPDATE usuario SET username = ?, password_hash = ?, rol = ?, activo = ? WHERE id = ?",
+                p -> enlazar(p, usuario).entero(usuario.getId()));
         
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            
-            stmt.setString(1, usuario.getUsername());
-            stmt.setString(2, usuario.getPasswordHash());
-            stmt.setString(3, usuario.getRol().name());
-            stmt.setBoolean(4, usuario.isActivo());
-            stmt.setInt(5, usuario.getId());
-            
-            int filasAfectadas = stmt.executeUpdate();
-            
-            if (filasAfectadas > 0) {
-                logger.info("Usuario actualizado: {}", usuario.getUsername());
-                return true;
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.error("Error al actualizar usuario: {}", e.getMessage());
-            return false;
-        } finally {
-            dbConnection.closeConnection(conn);
+        if (filasAfectadas > 0) {
+            logger.info("Usuario actualizado: {}", usuario.getUsername());
+            return true;
         }
+        return false;
     }
     
     @Override
     public boolean eliminar(Integer id) {
-        String sql = "DELETE FROM usuario WHERE id = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, id);
-            
-            int filasAfectadas = stmt.executeUpdate();
-            
-            if (filasAfectadas > 0) {
-                logger.info("Usuario eliminado con ID: {}", id);
-                return true;
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.error("Error al eliminar usuario: {}", e.getMessage());
-            return false;
-        } finally {
-            dbConnection.closeConnection(conn);
+        if (jdbc.actualizar("eliminar usuario", "DELETE FROM usuario WHERE id = ?", p -> p.entero(id)) > 0) {
+            logger.info("Usuario eliminado con ID: {}", id);
+            return true;
         }
+        return false;
     }
     
     @Override
     public boolean existeUsername(String username) {
-        String sql = "SELECT COUNT(*) FROM usuario WHERE username = ?";
-        Connection conn = null;
-        
-        try {
-            conn = dbConnection.getConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, username);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-            
-            return false;
-            
-        } catch (SQLException e) {
-            logger.error("Error al verificar existencia de username: {}", e.getMessage());
-            return false;
-        } finally {
-            dbConnection.closeConnection(conn);
-        }
+        return jdbc.existe("verificar existencia de username",
+                "SELECT COUNT(*) FROM usuario WHERE username = ?", p -> p.texto(username));
     }
     
     /**
-     * Mapea un ResultSet a un objeto Usuario
+     * Mapea un ResultSet a un objeto Usuario, por posición según COLUMNAS
      */
     private Usuario mapResultSetToUsuario(ResultSet rs) throws SQLException {
         Usuario usuario = new Usuario();
-        usuario.setId(rs.getInt("id"));
-        usuario.setUsername(rs.getString("username"));
-        usuario.setPasswordHash(rs.getString("password_hash"));
-        usuario.setRol(Usuario.Rol.valueOf(rs.getString("rol")));
-        usuario.setActivo(rs.getBoolean("activo"));
-        usuario.setFechaCreacion(rs.getTimestamp("fecha_creacion").toLocalDateTime());
+        usuario.setId(rs.getInt(1));
+        usuario.setUsername(rs.getString(2));
+        usuario.setPasswordHash(rs.getString(3));
+        usuario.setRol(Usuario.Rol.valueOf(rs.getString(4)));
+        usuario.setActivo(rs.getBoolean(5));
+        usuario.setFechaCreacion(rs.getTimestamp(6).toLocalDateTime());
         return usuario;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Enlaza los campos de INSERT/UPDATE en el orden de las sentencias
+     */
+    private static Parametros enlazar(Parametros p, Usuario usuario) throws SQLException {
+        return p.texto(usuario.getUsername())
+                .texto(usuario.getPasswordHash())
+                .enumerado(usuario.getRol())
+                .booleano(usuario.isActivo());
+    }
+}
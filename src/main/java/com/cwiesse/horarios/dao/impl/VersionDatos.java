@@ -0,0 +1,160 @@
+package com.cwiesse.horarios.dao.impl;
+
+import com.cwiesse.horarios.util.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Versión de los datos por entidad (tabla datos_version), para que cada nodo
+ * sepa cuándo otro cambió docentes, aulas, cursos u horarios y debe
+ * invalidar sus cachés.
+ * 
+ * Cada escritura de los DAO incrementa la versión de su entidad en su misma
+ * transacción (la de la unidad de trabajo), justo antes del commit: si el
+ * incremento falla, la escritura se deshace, y ningún cambio confirmado queda
+ * sin versión. Las versiones producidas por este nodo se registran al
+ * confirmarse, así el sincronizador no invalida por cambios que los
+ * listeners locales ya aplicaron. Las versiones conocidas sirven también
+ * para las respuestas condicionales (ETag) sin consultar la BD.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public final class VersionDatos {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VersionDatos.class);
+    
+    public static final String DOCENTE = "docente";
+    public static final String AULA = "aula";
+    public static final String CURSO = "curso";
+    public static final String HORARIO = "horario";
+    
+    // LAST_INSERT_ID(expr) deja la nueva versión disponible en la misma conexión
+    private static final String INCREMENTAR =
+            "UPDATE datos_version SET version = LAST_INSERT_ID(version + 1) WHERE entidad = ?";
+    
+    // Última versión conocida por este nodo de cada entidad (protegido por la clase)
+    private static final Map<String, Version> CONOCIDAS = new HashMap<>();
+    
+    private VersionDatos() {
+    }
+    
+    /**
+     * Incrementa la versión de la entidad en la transacción de la unidad de
+     * trabajo. La fila de datos_version queda bloqueada hasta el commit, por
+     * eso se llama justo antes de confirmar.
+     * 
+     * @throws SQLException si no se pudo incrementar: quien llama no debe
+     *         confirmar la escritura
+     */
+    static void incrementar(UnitOfWork uow, String entidad) throws SQLException {
+        Connection conn = uow.getConexion();
+        try (PreparedStatement stmt = conn.prepareStatement(INCREMENTAR)) {
+            stmt.setString(1, entidad);
+            if (stmt.executeUpdate() == 0) {
+                throw new SQLException("Entidad sin fila en datos_version: " + entidad);
+            }
+        }
+        long version;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT LAST_INSERT_ID()")) {
+            rs.next();
+            version = rs.getLong(1);
+        }
+        uow.alConfirmar(() -> registrarPropia(entidad, version));
+    }
+    
+    /**
+     * Versiones actuales de todas las entidades
+     */
+    public static Map<String, Version> leer(Connection conn) throws SQLException {
+        Map<String, Version> versiones = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT entidad, version, actualizada_en FROM datos_version")) {
+            while (rs.next()) {
+                versiones.put(rs.getString(1), new Version(rs.getLong(2), rs.getTimestamp(3).getTime()));
+            }
+        }
+        return versiones;
+    }
+    
+    /**
+     * Última versión de la entidad conocida por este nodo (vacío si aún no se
+     * leyó datos_version, p. ej. con la sincronización desactivada)
+     */
+    public static synchronized Optional<Version> conocida(String entidad) {
+        return Optional.ofNullable(CONOCIDAS.get(entidad));
+    }
+    
+    /**
+     * Compara la versión leída de la BD con la conocida. La primera versión
+     * leída de cada entidad se registra como punto de partida.
+     * 
+     * @return true si es posterior a la conocida: otro nodo cambió la entidad
+     *         y, una vez aplicados sus cambios, debe registrarse con actualizar()
+     */
+    public static synchronized boolean esPosterior(String entidad, Version version) {
+        Version conocida = CONOCIDAS.get(entidad);
+        if (conocida == null) {
+            CONOCIDAS.put(entidad, version);
+            return false;
+        }
+        return version.numero > conocida.numero;
+    }
+    
+    /**
+     * Registra la versión leída de la BD, si es posterior a la conocida
+     */
+    public static synchronized void actualizar(String entidad, Version version) {
+        Version conocida = CONOCIDAS.get(entidad);
+        if (conocida == null || version.numero > conocida.numero) {
+            CONOCIDAS.put(entidad, version);
+        }
+    }
+    
+    /**
+     * Una versión producida aquí solo avanza la conocida si es la siguiente:
+     * si hay un salto, entre medio hubo cambios de otro nodo y el
+     * sincronizador debe verlos
+     */
+    private static synchronized void registrarPropia(String entidad, long version) {
+        Version conocida = CONOCIDAS.get(entidad);
+        if (conocida != null && conocida.numero == version - 1) {
+            CONOCIDAS.put(entidad, new Version(version, System.currentTimeMillis()));
+        }
+    }
+    
+    /**
+     * Número de versión de una entidad y momento del cambio
+     */
+    public static final class Version {
+        
+        private final long numero;
+        private final long modificada;
+        
+        public Version(long numero, long modificada) {
+            this.numero = numero;
+            this.modificada = modificada;
+        }
+        
+        public long getNumero() {
+            return numero;
+        }
+        
+        /**
+         * Momento del último cambio, en milisegundos desde la época
+         */
+        public long getModificada() {
+            return modificada;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.cwiesse.horarios.dao.jdbc;
+
+import com.cwiesse.horarios.util.DBConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Plantilla para las operaciones JDBC de los DAO: obtiene la conexión,
+ * prepara la sentencia, enlaza parámetros, recorre el resultado y cierra
+ * todo. Los errores se tratan en un solo lugar, con la convención de los
+ * DAO: se registran y se devuelve un valor vacío (lista vacía,
+ * Optional.empty(), -1) en lugar de propagar la excepción.
+ * 
+ * Dentro de una unidad de trabajo, DBConnection entrega la conexión
+ * compartida, así que la plantilla participa en su transacción.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public final class JdbcTemplate {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JdbcTemplate.class);
+    private final DBConnection dbConnection;
+    
+    public JdbcTemplate(DBConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+    
+    /**
+     * Consulta de varias filas; usa la réplica de lectura si está configurada
+     * 
+     * @param operacion descripción para el log ("listar aulas")
+     */
+    public <T> List<T> listar(String operacion, String sql, ParameterBinder binder, RowMapper<T> mapper) {
+        List<T> filas = new ArrayList<>();
+        Connection conn = null;
+        
+        try {
+            conn = dbConnection.getReadConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                binder.enlazar(new Parametros(stmt));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        filas.add(mapper.mapear(rs));
+                    }
+                }
+            }
+            logger.debug("{}: {} filas", operacion, filas.size());
+            
+        } catch (SQLException e) {
+            registrarError(operacion, e);
+            filas.clear();
+        } finally {
+            dbConnection.closeConnection(conn);
+        }
+        
+        return filas;
+    }
+    
+    /**
+     * Entrega las filas una a una al consumidor sin cargar el resultado en
+     * memoria; usa la réplica de lectura si está configurada
+     * 
+     * @return false si hubo un error (las filas ya entregadas no se deshacen)
+     */
+    public <T> boolean recorrer(String operacion, String sql, ParameterBinder binder, RowMapper<T> mapper,
+                                Consumer<? super T> consumidor) {
+        Connection conn = null;
+        int filas = 0;
+        
+        try {
+            conn = dbConnection.getReadConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                // Con Connector/J, Integer.MIN_VALUE hace que las filas lleguen una a
+                // una en lugar de cargar todo el resultado en memoria
+                stmt.setFetchSize(Integer.MIN_VALUE);
+                binder.enlazar(new Parametros(stmt));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumidor.accept(mapper.mapear(rs));
+                        filas++;
+                    }
+                }
+            }
+            logger.debug("{}: {} filas", operacion, filas);
+            return true;
+            
+        } catch (SQLException e) {
+            logger.error("Error al {} (fila {}): {}", operacion, filas, e.getMessage());
+            return false;
+        } finally {
+            dbConnection.closeConnection(conn);
+        }
+    }
+    
+    /**
+     * Primera fila de la consulta, leída del primario
+     */
+    public <T> Optional<T> buscar(String operacion, String sql, ParameterBinder binder, RowMapper<T> mapper) {
+        Connection conn = null;
+        
+        try {
+            conn = dbConnection.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                binder.enlazar(new Parametros(stmt));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? Optional.of(mapper.mapear(rs)) : Optional.empty();
+                }
+            }
+            
+        } catch (SQLException e) {
+            registrarError(operacion, e);
+            return Optional.empty();
+        } finally {
+            dbConnection.closeConnection(conn);
+        }
+    }
+    
+    /**
+     * true si la consulta (un SELECT COUNT(*)) devuelve un valor mayor que cero
+     */
+    public boolean existe(String operacion, String sql, ParameterBinder binder) {
+        return buscar(operacion, sql, binder, rs -> rs.getInt(1) > 0).orElse(false);
+    }
+    
+    /**
+     * INSERT, UPDATE o DELETE
+     * 
+     * @return filas afectadas, o -1 si hubo un error
+     */
+    public int actualizar(String operacion, String sql, ParameterBinder binder) {
+        Connection conn = null;
+        
+        try {
+            conn = dbConnection.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                binder.enlazar(new Parametros(stmt));
+                return stmt.executeUpdate();
+            }
+            
+        } catch (SQLException e) {
+            registrarError(operacion, e);
+            return -1;
+        } finally {
+            dbConnection.closeConnection(conn);
+        }
+    }
+    
+    /**
+     * INSERT con clave autogenerada
+     * 
+     * @return ID generado, o vacío si no se insertó o hubo un error
+     */
+    public Optional<Integer> insertar(String operacion, String sql, ParameterBinder binder) {
+        Connection conn = null;
+        
+        try {
+            conn = dbConnection.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                binder.enlazar(new Parametros(stmt));
+                if (stmt.executeUpdate() == 0) {
+                    return Optional.empty();
+                }
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    return rs.next() ? Optional.of(rs.getInt(1)) : Optional.empty();
+                }
+            }
+            
+        } catch (SQLException e) {
+            registrarError(operacion, e);
+            return Optional.empty();
+        } finally {
+            dbConnection.closeConnection(conn);
+        }
+    }
+    
+    private static void registrarError(String operacion, SQLException e) {
+        logger.error("Error al {}: {}", operacion, e.getMessage());
+    }
+}
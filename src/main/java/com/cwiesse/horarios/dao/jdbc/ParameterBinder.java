@@ -0,0 +1,20 @@
+package com.cwiesse.horarios.dao.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * Enlaza los parámetros de una sentencia, en orden, con {@link Parametros}.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+    
+    /**
+     * Sentencia sin parámetros
+     */
+    ParameterBinder NINGUNO = p -> { };
+    
+    void enlazar(Parametros p) throws SQLException;
+}
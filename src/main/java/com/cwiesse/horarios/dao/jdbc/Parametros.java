@@ -0,0 +1,75 @@
+package com.cwiesse.horarios.dao.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Types;
+import java.time.LocalTime;
+
+/**
+ * Enlace tipado de parámetros: cada llamada ocupa el siguiente "?" de la
+ * sentencia, así que no hay índices que mantener a mano.
+ * 
+ * <pre>
+ * p -&gt; p.texto(aula.getCodigo()).entero(aula.getPiso())
+ * </pre>
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public final class Parametros {
+    
+    private final PreparedStatement stmt;
+    private int indice = 1;
+    
+    public Parametros(PreparedStatement stmt) {
+        this.stmt = stmt;
+    }
+    
+    public Parametros entero(Integer valor) throws SQLException {
+        if (valor == null) {
+            stmt.setNull(indice++, Types.INTEGER);
+        } else {
+            stmt.setInt(indice++, valor);
+        }
+        return this;
+    }
+    
+    public Parametros texto(String valor) throws SQLException {
+        stmt.setString(indice++, valor);
+        return this;
+    }
+    
+    public Parametros booleano(boolean valor) throws SQLException {
+        stmt.setBoolean(indice++, valor);
+        return this;
+    }
+    
+    public Parametros hora(LocalTime valor) throws SQLException {
+        stmt.setTime(indice++, valor == null ? null : Time.valueOf(valor));
+        return this;
+    }
+    
+    /**
+     * Enum guardado por nombre (columnas ENUM de MySQL)
+     */
+    public Parametros enumerado(Enum<?> valor) throws SQLException {
+        stmt.setString(indice++, valor == null ? null : valor.name());
+        return this;
+    }
+    
+    /**
+     * Valor sin tipo fijo (por ejemplo, filtros armados dinámicamente)
+     */
+    public Parametros objeto(Object valor) throws SQLException {
+        stmt.setObject(indice++, valor);
+        return this;
+    }
+    
+    /**
+     * Índice del próximo parámetro libre
+     */
+    public int getIndice() {
+        return indice;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cwiesse.horarios.dao.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convierte la fila actual de un ResultSet en un objeto.
+ * 
+ * Los mappers leen las columnas por posición, según la lista explícita de
+ * columnas del SELECT de cada DAO, para no buscar etiquetas en cada fila.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    
+    T mapear(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,82 @@
+package com.cwiesse.horarios.listener;
+
+import com.cwiesse.horarios.dao.impl.CambiosCatalogo;
+import com.cwiesse.horarios.dao.impl.HorarioDaoImpl;
+import com.cwiesse.horarios.service.CargaHorarios;
+import com.cwiesse.horarios.service.CatalogoCache;
+import com.cwiesse.horarios.service.HorarioIndex;
+import com.cwiesse.horarios.service.HorarioSnapshot;
+import com.cwiesse.horarios.service.OcupacionSemanal;
+import com.cwiesse.horarios.service.SincronizadorCaches;
+import com.cwiesse.horarios.util.AppConfig;
+import com.cwiesse.horarios.util.DBConnection;
+import com.cwiesse.horarios.util.SchemaMigrator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Listener del ciclo de vida de la aplicación.
+ * Inicia el pool de conexiones, aplica las migraciones de esquema pendientes,
+ * carga el índice de horarios, la ocupación semanal y la vista de horarios al
+ * desplegar (reintentando si la BD no responde) y empieza a sincronizar las
+ * cachés con los demás nodos. Al detener, cierra el pool.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+@WebListener
+public class AppContextListener implements ServletContextListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AppContextListener.class);
+    private SincronizadorCaches sincronizador;
+    
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        DBConnection dbConnection = DBConnection.getInstance();
+        
+        if (AppConfig.getBooleano("db.migrate", true) && !new SchemaMigrator(dbConnection).migrar()) {
+            logger.error("El esquema de la base de datos no está al día; revise las migraciones");
+        }
+        
+        // Antes de cargar las cachés: toma las versiones de datos como punto de partida
+        int intervalo = AppConfig.getEntero("datos.version.intervaloSegundos", 5);
+        if (intervalo > 0) {
+            sincronizador = new SincronizadorCaches(dbConnection);
+            sincronizador.iniciar(intervalo);
+        }
+        
+        // Índice de choques, ocupación semanal y vista de horarios: se cargan con
+        // una sola consulta y se mantienen al día con los cambios confirmados
+        HorarioIndex indice = HorarioIndex.getInstance();
+        OcupacionSemanal ocupacion = OcupacionSemanal.getInstance();
+        HorarioSnapshot snapshot = HorarioSnapshot.getInstance();
+        HorarioDaoImpl.agregarListener(indice);
+        HorarioDaoImpl.agregarListener(ocupacion);
+        HorarioDaoImpl.agregarListener(snapshot);
+        CambiosCatalogo.agregarListener(snapshot);
+        
+        // Si la BD no responde quedan sin cargar (se consulta la BD) y se reintenta
+        CargaHorarios carga = CargaHorarios.getInstance();
+        HorarioDaoImpl.agregarListener(carga);
+        carga.iniciar(AppConfig.getEntero("horarios.carga.reintentoSegundos", 10));
+        
+        // Combos de los formularios: se invalidan con cada cambio de catálogo
+        CambiosCatalogo.agregarListener(CatalogoCache.getInstance());
+        
+        logger.info("Aplicación iniciada");
+    }
+    
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        CargaHorarios.getInstance().detener();
+        if (sincronizador != null) {
+            sincronizador.detener();
+        }
+        DBConnection.shutdown();
+        logger.info("Aplicación detenida");
+    }
+}
@@ -0,0 +1,142 @@
+package com.cwiesse.horarios.model;
+
+import java.io.Serializable;
+import java.time.LocalTime;
+
+/**
+ * Vista reducida de un horario para listados y exportaciones.
+ * Lleva solo los IDs, el día, las horas como minutos del día y las
+ * etiquetas que se muestran, en lugar de un Horario con Docente, Aula y
+ * Curso completos.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class HorarioResumen implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    // Atributos
+    private final Integer id;
+    private final Integer docenteId;
+    private final Integer aulaId;
+    private final Integer cursoId;
+    private final Horario.Dia dia;
+    private final int inicioMinutos;
+    private final int finMinutos;
+    
+    // Etiquetas para mostrar
+    private final String docenteNombre;
+    private final String cursoNombre;
+    private final Curso.Nivel cursoNivel;
+    private final Integer cursoGrado;
+    private final String aulaCodigo;
+    private final String aulaNombre;
+    
+    // Constructor completo
+    public HorarioResumen(Integer id, Integer docenteId, Integer aulaId, Integer cursoId,
+                          Horario.Dia dia, int inicioMinutos, int finMinutos,
+                          String docenteNombre, String cursoNombre, Curso.Nivel cursoNivel,
+                          Integer cursoGrado, String aulaCodigo, String aulaNombre) {
+        this.id = id;
+        this.docenteId = docenteId;
+        this.aulaId = aulaId;
+        this.cursoId = cursoId;
+        this.dia = dia;
+        this.inicioMinutos = inicioMinutos;
+        this.finMinutos = finMinutos;
+        this.docenteNombre = docenteNombre;
+        this.cursoNombre = cursoNombre;
+        this.cursoNivel = cursoNivel;
+        this.cursoGrado = cursoGrado;
+        this.aulaCodigo = aulaCodigo;
+        this.aulaNombre = aulaNombre;
+    }
+    
+    // Getters
+    public Integer getId() {
+        return id;
+    }
+    
+    public Integer getDocenteId() {
+        return docenteId;
+    }
+    
+    public Integer getAulaId() {
+        return aulaId;
+    }
+    
+    public Integer getCursoId() {
+        return cursoId;
+    }
+    
+    public Horario.Dia getDia() {
+        return dia;
+    }
+    
+    /**
+     * Hora de inicio como minutos desde las 00:00
+     */
+    public int getInicioMinutos() {
+        return inicioMinutos;
+    }
+    
+    /**
+     * Hora de fin como minutos desde las 00:00
+     */
+    public int getFinMinutos() {
+        return finMinutos;
+    }
+    
+    public String getDocenteNombre() {
+        return docenteNombre;
+    }
+    
+    public String getCursoNombre() {
+        return cursoNombre;
+    }
+    
+    public Curso.Nivel getCursoNivel() {
+        return cursoNivel;
+    }
+    
+    public Integer getCursoGrado() {
+        return cursoGrado;
+    }
+    
+    public String getAulaCodigo() {
+        return aulaCodigo;
+    }
+    
+    public String getAulaNombre() {
+        return aulaNombre;
+    }
+    
+    // Métodos de utilidad
+    
+    public LocalTime getHoraInicio() {
+        return LocalTime.of(inicioMinutos / 60, inicioMinutos % 60);
+    }
+    
+    public LocalTime getHoraFin() {
+        return LocalTime.of(finMinutos / 60, finMinutos % 60);
+    }
+    
+    public int getDuracionMinutos() {
+        return finMinutos - inicioMinutos;
+    }
+    
+    // Método toString
+    @Override
+    public String toString() {
+        return "HorarioResumen{" +
+                "id=" + id +
+                ", dia=" + dia +
+                ", inicio=" + getHoraInicio() +
+                ", fin=" + getHoraFin() +
+                ", docente='" + docenteNombre + '\'' +
+                ", curso='" + cursoNombre + '\'' +
+                ", aula='" + aulaCodigo + '\'' +
+                '}';
+    }
+}
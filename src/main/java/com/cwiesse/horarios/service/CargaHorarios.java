@@ -0,0 +1,130 @@
+package com.cwiesse.horarios.service;
+
+import com.cwiesse.horarios.dao.HorarioDao;
+import com.cwiesse.horarios.dao.HorarioListener;
+import com.cwiesse.horarios.dao.impl.HorarioDaoImpl;
+import com.cwiesse.horarios.model.Horario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carga con una sola consulta el índice de choques, la ocupación semanal y
+ * la vista de horarios. Si la consulta falla no se publica nada: lo que no
+ * estaba cargado sigue sin cargar (los lectores consultan la BD) y lo que ya
+ * estaba se conserva. La carga al iniciar se reintenta hasta lograrla.
+ * 
+ * Mientras no hay nada cargado los listeners ignoran los cambios, y un cambio
+ * confirmado durante la lectura podría faltar en lo leído; por eso se cuentan
+ * los cambios locales y, si hubo alguno mientras se leía, se vuelve a leer.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class CargaHorarios implements HorarioListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CargaHorarios.class);
+    private static final CargaHorarios INSTANCE = new CargaHorarios();
+    // Lecturas por carga si siguen llegando cambios durante la lectura
+    private static final int LECTURAS = 3;
+    
+    private final HorarioDao horarioDao = new HorarioDaoImpl();
+    private final AtomicLong cambios = new AtomicLong();
+    private volatile ScheduledExecutorService reintentos;
+    
+    private CargaHorarios() {
+    }
+    
+    public static CargaHorarios getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Lee todos los horarios y los publica en el índice, la ocupación y la vista
+     * 
+     * @return false si falló la consulta: no se cambió nada
+     */
+    public synchronized boolean cargar() {
+        for (int lectura = 1; ; lectura++) {
+            long antes = cambios.get();
+            Optional<List<Horario>> horarios = horarioDao.leerTodos();
+            if (!horarios.isPresent()) {
+                return false;
+            }
+            HorarioIndex.getInstance().cargar(horarios.get());
+            OcupacionSemanal.getInstance().cargar(horarios.get());
+            HorarioSnapshot.getInstance().cargar(horarios.get());
+            
+            if (cambios.get() == antes) {
+                return true;
+            }
+            if (lectura == LECTURAS) {
+                logger.warn("Los horarios siguen cambiando durante la carga; se publica la última lectura");
+                return true;
+            }
+            logger.info("Hubo cambios durante la carga de horarios, se vuelven a leer");
+        }
+    }
+    
+    /**
+     * Carga ahora y, si falla, reintenta cada intervaloSegundos hasta lograrlo
+     * (con 0 no se reintenta)
+     */
+    public void iniciar(int intervaloSegundos) {
+        if (cargar()) {
+            return;
+        }
+        if (intervaloSegundos <= 0) {
+            logger.warn("No se pudieron cargar los horarios; se consulta la BD");
+            return;
+        }
+        logger.warn("No se pudieron cargar los horarios; se consulta la BD y se reintenta cada {} s",
+                    intervaloSegundos);
+        ScheduledExecutorService ejecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "horarios-carga");
+            t.setDaemon(true);
+            return t;
+        });
+        reintentos = ejecutor;
+        ejecutor.scheduleWithFixedDelay(this::reintentar, intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Detiene los reintentos pendientes
+     */
+    public void detener() {
+        ScheduledExecutorService ejecutor = reintentos;
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+            reintentos = null;
+        }
+    }
+    
+    private void reintentar() {
+        try {
+            if (cargar()) {
+                logger.info("Horarios cargados tras reintentar");
+                detener();
+            }
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría los reintentos siguientes
+            logger.error("Error al cargar los horarios: {}", e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public void alGuardar(Horario horario) {
+        cambios.incrementAndGet();
+    }
+    
+    @Override
+    public void alEliminar(Integer id) {
+        cambios.incrementAndGet();
+    }
+}
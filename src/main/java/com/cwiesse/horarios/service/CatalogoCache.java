@@ -0,0 +1,117 @@
+package com.cwiesse.horarios.service;
+
+import com.cwiesse.horarios.dao.AulaDao;
+import com.cwiesse.horarios.dao.CatalogoListener;
+import com.cwiesse.horarios.dao.CursoDao;
+import com.cwiesse.horarios.dao.DocenteDao;
+import com.cwiesse.horarios.dao.impl.AulaDaoImpl;
+import com.cwiesse.horarios.dao.impl.CursoDaoImpl;
+import com.cwiesse.horarios.dao.impl.DocenteDaoImpl;
+import com.cwiesse.horarios.model.Aula;
+import com.cwiesse.horarios.model.Curso;
+import com.cwiesse.horarios.model.Docente;
+import com.cwiesse.horarios.util.AppConfig;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caché de los catálogos activos (docentes, aulas y cursos) para los combos
+ * de los formularios, que cambian pocas veces por periodo.
+ * 
+ * Cada catálogo se invalida con los cambios confirmados de su DAO
+ * (CatalogoListener) y, por si hubo cambios fuera de la aplicación, expira
+ * a los catalogo.cache.ttlSegundos. Las listas devueltas son inmutables y
+ * compartidas: sus elementos no deben modificarse.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class CatalogoCache implements CatalogoListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CatalogoCache.class);
+    private static final CatalogoCache INSTANCE = new CatalogoCache();
+    
+    private final DocenteDao docenteDao = new DocenteDaoImpl();
+    private final AulaDao aulaDao = new AulaDaoImpl();
+    private final CursoDao cursoDao = new CursoDaoImpl();
+    private final Cache<Class<?>, List<?>> catalogos;
+    // Aumenta con cada invalidación; una carga que empezó antes no se guarda
+    private final AtomicLong generacion = new AtomicLong();
+    
+    private CatalogoCache() {
+        int ttl = AppConfig.getEntero("catalogo.cache.ttlSegundos", 600);
+        this.catalogos = CacheBuilder.newBuilder()
+                .maximumSize(3)
+                .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+    
+    public static CatalogoCache getInstance() {
+        return INSTANCE;
+    }
+    
+    public List<Docente> docentesActivos() {
+        return obtener(Docente.class, docenteDao::listarActivos);
+    }
+    
+    public List<Aula> aulasActivas() {
+        return obtener(Aula.class, aulaDao::listarActivas);
+    }
+    
+    public List<Curso> cursosActivos() {
+        return obtener(Curso.class, cursoDao::listarActivos);
+    }
+    
+    @Override
+    public void alCambiar(Class<?> catalogo) {
+        generacion.incrementAndGet();
+        catalogos.invalidate(catalogo);
+        logger.debug("Catálogo invalidado: {}", catalogo.getSimpleName());
+    }
+    
+    /**
+     * Vacía todos los catálogos
+     */
+    public void invalidar() {
+        generacion.incrementAndGet();
+        catalogos.invalidateAll();
+    }
+    
+    /**
+     * Aciertos, fallos y desalojos desde el inicio
+     */
+    public CacheStats getEstadisticas() {
+        return catalogos.stats();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> List<T> obtener(Class<T> tipo, Supplier<List<T>> cargador) {
+        List<?> enCache = catalogos.getIfPresent(tipo);
+        if (enCache != null) {
+            return (List<T>) enCache;
+        }
+        
+        long antes = generacion.get();
+        List<T> lista = List.copyOf(cargador.get());
+        // Los DAO devuelven una lista vacía también cuando falla la consulta:
+        // no se guarda para no ocultar el error hasta que expire
+        if (!lista.isEmpty()) {
+            catalogos.put(tipo, lista);
+            // Si hubo un cambio durante la carga, la lista puede ser anterior a él
+            if (generacion.get() != antes) {
+                catalogos.invalidate(tipo);
+            }
+            logger.debug("Catálogo cargado: {} ({} registros)", tipo.getSimpleName(), lista.size());
+        }
+        return lista;
+    }
+}
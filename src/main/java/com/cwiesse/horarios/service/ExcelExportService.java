@@ -1,9 +1,12 @@
 package com.cwiesse.horarios.service;
 
+import com.cwiesse.horarios.dao.FiltroListado;
+import com.cwiesse.horarios.dao.HorarioDao;
 import com.cwiesse.horarios.model.Docente;
 import com.cwiesse.horarios.model.Aula;
-import com.cwiesse.horarios.model.Horario;
+import com.cwiesse.horarios.model.HorarioResumen;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +16,8 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Servicio para exportar datos a Excel usando Apache POI.
@@ -24,6 +29,9 @@ public class ExcelExportService {
     
     private static final Logger logger = LoggerFactory.getLogger(ExcelExportService.class);
     
+    // Filas que SXSSF mantiene en memoria antes de volcarlas al archivo temporal
+    private static final int VENTANA_FILAS = 200;
+    
     /**
      * Exporta una lista de docentes a un archivo Excel (.xlsx)
      * 
@@ -187,16 +195,20 @@ public class ExcelExportService {
     }
     
     /**
-     * Exporta una lista de horarios a un archivo Excel (.xlsx)
+     * Exporta los horarios leyéndolos de la BD por streaming (HorarioDao.recorrer)
+     * y escribiéndolos con SXSSF, que solo mantiene en memoria una ventana de
+     * filas y vuelca el resto a un archivo temporal. El consumo de memoria no
+     * depende de la cantidad de horarios.
      * 
-     * @param horarios Lista de horarios a exportar
-     * @return ByteArrayOutputStream con el contenido del Excel
-     * @throws IOException Si hay error al crear el archivo
+     * El libro devuelto debe cerrarse (close) para borrar el archivo temporal.
+     * 
+     * @param horarioDao DAO del que se leen los horarios si la vista
+     *                   (HorarioSnapshot) aún no se cargó
+     * @param filtro filtros opcionales
+     * @return libro listo para escribir, o null si falló la lectura
      */
-    public static ByteArrayOutputStream exportarHorariosExcel(List<Horario> horarios) throws IOException {
-        logger.info("Iniciando exportación de {} horarios a Excel", horarios.size());
-        
-        Workbook workbook = new XSSFWorkbook();
+    public static SXSSFWorkbook exportarHorariosExcel(HorarioDao horarioDao, FiltroListado filtro) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(VENTANA_FILAS);
         Sheet sheet = workbook.createSheet("Horarios");
         
         CellStyle headerStyle = createHeaderStyle(workbook);
@@ -205,72 +217,66 @@ public class ExcelExportService {
         Row titleRow = sheet.createRow(0);
         Cell titleCell = titleRow.createCell(0);
         titleCell.setCellValue("REPORTE DE HORARIOS - COLEGIO CARLOS WIESSE");
-        CellStyle titleStyle = createTitleStyle(workbook);
-        titleCell.setCellStyle(titleStyle);
+        titleCell.setCellStyle(createTitleStyle(workbook));
         sheet.addMergedRegion(new org.apache.poi.ss.util.CellRangeAddress(0, 0, 0, 6));
         
         Row dateRow = sheet.createRow(1);
-        Cell dateCell = dateRow.createCell(0);
         String fecha = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-        dateCell.setCellValue("Fecha de generación: " + fecha);
+        dateRow.createCell(0).setCellValue("Fecha de generación: " + fecha);
         sheet.addMergedRegion(new org.apache.poi.ss.util.CellRangeAddress(1, 1, 0, 6));
         
         Row headerRow = sheet.createRow(3);
         String[] headers = {"Día", "Hora Inicio", "Hora Fin", "Duración", "Docente", "Curso", "Aula"};
+        int[] anchos = {12, 12, 12, 12, 40, 40, 12};
         
         for (int i = 0; i < headers.length; i++) {
             Cell cell = headerRow.createCell(i);
             cell.setCellValue(headers[i]);
             cell.setCellStyle(headerStyle);
+            // autoSizeColumn no ve las filas ya volcadas a disco: ancho fijo
+            sheet.setColumnWidth(i, anchos[i] * 256);
         }
         
-        int rowNum = 4;
-        for (Horario horario : horarios) {
-            Row row = sheet.createRow(rowNum++);
-            
-            Cell cell0 = row.createCell(0);
-            cell0.setCellValue(horario.getDia().getNombre());
-            cell0.setCellStyle(dataStyle);
-            
-            Cell cell1 = row.createCell(1);
-            cell1.setCellValue(horario.getHoraInicio().toString());
-            cell1.setCellStyle(dataStyle);
-            
-            Cell cell2 = row.createCell(2);
-            cell2.setCellValue(horario.getHoraFin().toString());
-            cell2.setCellStyle(dataStyle);
-            
-            Cell cell3 = row.createCell(3);
-            cell3.setCellValue(horario.getDuracionMinutos() + " min");
-            cell3.setCellStyle(dataStyle);
-            
-            Cell cell4 = row.createCell(4);
-            cell4.setCellValue(horario.getDocente().getNombreCompleto());
-            cell4.setCellStyle(dataStyle);
-            
-            Cell cell5 = row.createCell(5);
-            cell5.setCellValue(horario.getCurso().getNombre() + " - " + 
-                              horario.getCurso().getNivel() + " " + 
-                              horario.getCurso().getGrado() + "°");
-            cell5.setCellStyle(dataStyle);
-            
-            Cell cell6 = row.createCell(6);
-            cell6.setCellValue(horario.getAula().getCodigo());
-            cell6.setCellStyle(dataStyle);
+        int[] rowNum = {4};
+        Consumer<HorarioResumen> escribir = horario -> {
+            Row row = sheet.createRow(rowNum[0]++);
+            escribirCelda(row, 0, horario.getDia().getNombre(), dataStyle);
+            escribirCelda(row, 1, horario.getHoraInicio().toString(), dataStyle);
+            escribirCelda(row, 2, horario.getHoraFin().toString(), dataStyle);
+            escribirCelda(row, 3, horario.getDuracionMinutos() + " min", dataStyle);
+            escribirCelda(row, 4, horario.getDocenteNombre(), dataStyle);
+            escribirCelda(row, 5, horario.getCursoNombre() + " - " +
+                                  horario.getCursoNivel() + " " +
+                                  horario.getCursoGrado() + "°", dataStyle);
+            escribirCelda(row, 6, horario.getAulaCodigo(), dataStyle);
+        };
+        
+        // La vista en memoria evita la consulta; mientras no se cargue, la BD
+        Optional<HorarioSnapshot.Vista> vista = HorarioSnapshot.getInstance().actual();
+        boolean completo = true;
+        if (vista.isPresent()) {
+            vista.get().recorrer(filtro, escribir);
+        } else {
+            completo = horarioDao.recorrer(filtro, escribir);
         }
         
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
-            sheet.setColumnWidth(i, sheet.getColumnWidth(i) + 1000);
+        if (!completo) {
+            try {
+                workbook.close();
+            } catch (IOException e) {
+                logger.debug("No se pudo cerrar el libro: {}", e.getMessage());
+            }
+            return null;
         }
         
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        workbook.write(outputStream);
-        workbook.close();
-        
-        logger.info("Excel de horarios generado exitosamente con {} registros", horarios.size());
-        
-        return outputStream;
+        logger.info("Excel de horarios generado por streaming con {} registros", rowNum[0] - 4);
+        return workbook;
+    }
+    
+    private static void escribirCelda(Row row, int columna, String valor, CellStyle estilo) {
+        Cell cell = row.createCell(columna);
+        cell.setCellValue(valor);
+        cell.setCellStyle(estilo);
     }
     
     private static CellStyle createTitleStyle(Workbook workbook) {
@@ -0,0 +1,652 @@
+package com.cwiesse.horarios.service;
+
+import com.cwiesse.horarios.dao.AulaDao;
+import com.cwiesse.horarios.dao.CursoDao;
+import com.cwiesse.horarios.dao.DocenteDao;
+import com.cwiesse.horarios.dao.HorarioDao;
+import com.cwiesse.horarios.dao.ResultadoGuardado;
+import com.cwiesse.horarios.dao.impl.AulaDaoImpl;
+import com.cwiesse.horarios.dao.impl.CursoDaoImpl;
+import com.cwiesse.horarios.dao.impl.DocenteDaoImpl;
+import com.cwiesse.horarios.dao.impl.HorarioDaoImpl;
+import com.cwiesse.horarios.model.Aula;
+import com.cwiesse.horarios.model.Curso;
+import com.cwiesse.horarios.model.Docente;
+import com.cwiesse.horarios.model.Horario;
+import com.cwiesse.horarios.service.ReporteConflictos.Conflicto;
+import com.cwiesse.horarios.util.DBConnection;
+import com.cwiesse.horarios.util.Validation;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Servicio para importar docentes, aulas, cursos y horarios desde Excel (.xlsx).
+ * 
+ * La hoja se lee con la API de eventos (SAX) de POI, fila por fila, sin cargar
+ * el libro en memoria. La primera fila contiene los nombres de las columnas.
+ * Las filas válidas se insertan por lotes (una transacción por lote de db.batch.size filas); si un
+ * lote falla, se reintenta fila por fila para reportar cuál falló. Los
+ * horarios se insertan con los mismos bloqueos y la misma verificación en la
+ * BD que el formulario (insertarLoteSinChoque), así una importación no
+ * duplica un docente o un aula que se asigna a la vez desde otra petición.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class ExcelImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ExcelImportService.class);
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("H:mm[:ss]");
+    private static final DateTimeFormatter FORMATO_HORA_AM_PM = DateTimeFormatter.ofPattern("h:mm[:ss] a", Locale.US);
+    // Sufijo de 12 horas: AM, pm, a. m.
+    private static final Pattern SUFIJO_AM_PM = Pattern.compile("\\s*([AaPp])\\.?\\s*[Mm]\\.?$");
+    private static final int MINUTOS_DIA = 24 * 60;
+    
+    public enum TipoImportacion {
+        DOCENTES("dni", "nombre", "apellido_paterno", "apellido_materno"),
+        AULAS("codigo", "nombre", "capacidad"),
+        CURSOS("codigo", "nombre", "nivel", "grado", "horas_semanales"),
+        HORARIOS("dni_docente", "codigo_aula", "codigo_curso", "dia", "hora_inicio", "hora_fin");
+        
+        private final String[] columnas;
+        
+        TipoImportacion(String... columnas) {
+            this.columnas = columnas;
+        }
+        
+        /**
+         * Columnas obligatorias de la hoja
+         */
+        public String[] getColumnas() {
+            return columnas.clone();
+        }
+    }
+    
+    private final int tamanoLote;
+    private final DocenteDao docenteDao;
+    private final AulaDao aulaDao;
+    private final CursoDao cursoDao;
+    private final HorarioDao horarioDao;
+    
+    public ExcelImportService() {
+        this(DBConnection.getInstance().getTamanoLote());
+    }
+    
+    public ExcelImportService(int tamanoLote) {
+        this.tamanoLote = tamanoLote;
+        this.docenteDao = new DocenteDaoImpl();
+        this.aulaDao = new AulaDaoImpl();
+        this.cursoDao = new CursoDaoImpl();
+        this.horarioDao = new HorarioDaoImpl();
+    }
+    
+    /**
+     * Importa la primera hoja del archivo
+     * 
+     * @param archivo archivo .xlsx en disco (se lee sin descomprimirlo completo en memoria)
+     * @throws IOException si el archivo no es un Excel válido
+     */
+    public ReporteImportacion importar(TipoImportacion tipo, File archivo) throws IOException {
+        long inicio = System.currentTimeMillis();
+        ReporteImportacion reporte = new ReporteImportacion(tipo.name());
+        Importador<?> importador = crearImportador(tipo, reporte);
+        
+        try (OPCPackage paquete = OPCPackage.open(archivo, PackageAccess.READ)) {
+            XSSFReader lector = new XSSFReader(paquete);
+            ReadOnlySharedStringsTable textos = new ReadOnlySharedStringsTable(paquete, false);
+            StylesTable estilos = lector.getStylesTable();
+            
+            Iterator<InputStream> hojas = lector.getSheetsData();
+            if (!hojas.hasNext()) {
+                reporte.agregarError(0, "El archivo no tiene hojas");
+                return reporte;
+            }
+            
+            try (InputStream hoja = hojas.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(estilos, null, textos,
+                        new LectorFilas(importador, reporte), new FormatoCeldas(), false));
+                parser.parse(new InputSource(hoja));
+            }
+            importador.vaciar();
+            
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Archivo Excel inválido: " + e.getMessage(), e);
+        }
+        
+        logger.info("Importación de {} terminada en {} ms: {}", tipo,
+                    System.currentTimeMillis() - inicio, reporte);
+        return reporte;
+    }
+    
+    private Importador<?> crearImportador(TipoImportacion tipo, ReporteImportacion reporte) {
+        switch (tipo) {
+            case DOCENTES:
+                return new ImportadorDocentes(reporte);
+            case AULAS:
+                return new ImportadorAulas(reporte);
+            case CURSOS:
+                return new ImportadorCursos(reporte);
+            default:
+                return new ImportadorHorarios(reporte);
+        }
+    }
+    
+    /**
+     * Texto de las celdas numéricas. Las de formato de fecha u hora llegan como
+     * la fracción del día de Excel, sin depender del formato ni del idioma
+     * (8:00 AM, 08:00), y los números con decimales llegan completos aunque el
+     * formato los muestre redondeados, para poder rechazarlos como enteros.
+     * El resto, como se ve en Excel (un DNI conserva sus ceros a la izquierda).
+     */
+    private static final class FormatoCeldas extends DataFormatter {
+        
+        @Override
+        public String formatRawCellContents(double valor, int indiceFormato, String formato) {
+            if (DateUtil.isADateFormat(indiceFormato, formato) || valor != Math.rint(valor)) {
+                return BigDecimal.valueOf(valor).toPlainString();
+            }
+            return super.formatRawCellContents(valor, indiceFormato, formato);
+        }
+    }
+    
+    /**
+     * Recibe los eventos SAX de la hoja y arma cada fila por nombre de columna
+     */
+    private static final class LectorFilas implements SheetContentsHandler {
+        
+        private final Importador<?> importador;
+        private final ReporteImportacion reporte;
+        private final Map<Integer, String> celdas = new HashMap<>();
+        private String[] encabezados;
+        
+        LectorFilas(Importador<?> importador, ReporteImportacion reporte) {
+            this.importador = importador;
+            this.reporte = reporte;
+        }
+        
+        @Override
+        public void startRow(int rowNum) {
+            celdas.clear();
+        }
+        
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (formattedValue != null && !formattedValue.trim().isEmpty()) {
+                celdas.put((int) new CellReference(cellReference).getCol(), formattedValue.trim());
+            }
+        }
+        
+        @Override
+        public void endRow(int rowNum) {
+            if (encabezados == null) {
+                leerEncabezados();
+                return;
+            }
+            if (celdas.isEmpty() || importador.columnasFaltantes != null) {
+                return;
+            }
+            
+            Map<String, String> fila = new HashMap<>();
+            for (Map.Entry<Integer, String> celda : celdas.entrySet()) {
+                if (celda.getKey() < encabezados.length && encabezados[celda.getKey()] != null) {
+                    fila.put(encabezados[celda.getKey()], celda.getValue());
+                }
+            }
+            importador.procesar(rowNum + 1, fila);
+        }
+        
+        private void leerEncabezados() {
+            int max = celdas.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
+            encabezados = new String[max + 1];
+            Set<String> presentes = new HashSet<>();
+            for (Map.Entry<Integer, String> celda : celdas.entrySet()) {
+                encabezados[celda.getKey()] = normalizar(celda.getValue());
+                presentes.add(encabezados[celda.getKey()]);
+            }
+            
+            List<String> faltantes = new ArrayList<>();
+            for (String columna : importador.tipo.columnas) {
+                if (!presentes.contains(columna)) {
+                    faltantes.add(columna);
+                }
+            }
+            if (!faltantes.isEmpty()) {
+                importador.columnasFaltantes = faltantes;
+                reporte.agregarError(1, "Faltan columnas obligatorias: " + String.join(", ", faltantes));
+            }
+        }
+    }
+    
+    /**
+     * Convierte, valida e inserta por lotes las filas de un tipo de entidad
+     */
+    private abstract class Importador<T> {
+        
+        final TipoImportacion tipo;
+        final ReporteImportacion reporte;
+        final List<T> lote = new ArrayList<>();
+        final List<Integer> filasLote = new ArrayList<>();
+        List<String> columnasFaltantes;
+        
+        Importador(TipoImportacion tipo, ReporteImportacion reporte) {
+            this.tipo = tipo;
+            this.reporte = reporte;
+        }
+        
+        /**
+         * @throws IllegalArgumentException con el mensaje de error de la fila
+         */
+        abstract T convertir(Map<String, String> fila);
+        
+        abstract boolean insertarLote(List<T> entidades);
+        
+        abstract boolean insertar(T entidad);
+        
+        /**
+         * Validaciones sobre el lote completo antes de insertarlo; las filas
+         * inválidas se quitan de lote y filasLote
+         */
+        void validarLote() {
+        }
+        
+        /**
+         * Llamado por cada entidad insertada
+         */
+        void insertada(T entidad) {
+        }
+        
+        void procesar(int fila, Map<String, String> valores) {
+            reporte.filaLeida();
+            try {
+                lote.add(convertir(valores));
+                filasLote.add(fila);
+            } catch (IllegalArgumentException e) {
+                reporte.agregarError(fila, e.getMessage());
+            }
+            if (lote.size() >= tamanoLote) {
+                vaciar();
+            }
+        }
+        
+        void vaciar() {
+            validarLote();
+            if (lote.isEmpty()) {
+                return;
+            }
+            
+            if (insertarLote(lote)) {
+                reporte.sumarInsertadas(lote.size());
+                lote.forEach(this::insertada);
+            } else {
+                // Reintento fila por fila para identificar las que fallan
+                for (int i = 0; i < lote.size(); i++) {
+                    if (insertar(lote.get(i))) {
+                        reporte.sumarInsertadas(1);
+                        insertada(lote.get(i));
+                    } else {
+                        reporte.agregarError(filasLote.get(i), "No se pudo insertar (¿registro duplicado?)");
+                    }
+                }
+            }
+            lote.clear();
+            filasLote.clear();
+        }
+    }
+    
+    private final class ImportadorDocentes extends Importador<Docente> {
+        
+        private final Set<String> dnis = new HashSet<>();
+        
+        ImportadorDocentes(ReporteImportacion reporte) {
+            super(TipoImportacion.DOCENTES, reporte);
+            docenteDao.listarTodos().forEach(d -> dnis.add(d.getDni()));
+        }
+        
+        @Override
+        Docente convertir(Map<String, String> fila) {
+            String dni = obligatorio(fila, "dni");
+            if (!Validation.isValidDNI(dni)) {
+                throw new IllegalArgumentException("DNI inválido. Debe tener 8 dígitos");
+            }
+            String email = fila.get("email");
+            if (Validation.isNotEmpty(email) && !Validation.isValidEmail(email)) {
+                throw new IllegalArgumentException("Email inválido");
+            }
+            String telefono = fila.get("telefono");
+            if (Validation.isNotEmpty(telefono) && !Validation.isValidTelefono(telefono)) {
+                throw new IllegalArgumentException("Teléfono inválido. Debe tener 9 dígitos");
+            }
+            if (!dnis.add(dni)) {
+                throw new IllegalArgumentException("Ya existe un docente con el DNI " + dni);
+            }
+            
+            Docente docente = new Docente();
+            docente.setDni(dni);
+            docente.setNombre(obligatorio(fila, "nombre"));
+            docente.setApellidoPaterno(obligatorio(fila, "apellido_paterno"));
+            docente.setApellidoMaterno(obligatorio(fila, "apellido_materno"));
+            docente.setEmail(email);
+            docente.setTelefono(telefono);
+            return docente;
+        }
+        
+        @Override
+        boolean insertarLote(List<Docente> entidades) {
+            return docenteDao.insertarLote(entidades);
+        }
+        
+        @Override
+        boolean insertar(Docente entidad) {
+            return docenteDao.insertar(entidad);
+        }
+    }
+    
+    private final class ImportadorAulas extends Importador<Aula> {
+        
+        private final Set<String> codigos = new HashSet<>();
+        
+        ImportadorAulas(ReporteImportacion reporte) {
+            super(TipoImportacion.AULAS, reporte);
+            aulaDao.listarTodas().forEach(a -> codigos.add(a.getCodigo().toUpperCase()));
+        }
+        
+        @Override
+        Aula convertir(Map<String, String> fila) {
+            String codigo = obligatorio(fila, "codigo").toUpperCase();
+            if (!Validation.isValidCodigo(codigo)) {
+                throw new IllegalArgumentException("Código inválido: " + codigo);
+            }
+            Integer capacidad = entero(fila, "capacidad");
+            if (!Validation.isValidCapacidad(capacidad)) {
+                throw new IllegalArgumentException("La capacidad debe estar entre 1 y 50");
+            }
+            Integer piso = fila.containsKey("piso") ? entero(fila, "piso") : 1;
+            if (!Validation.isValidPiso(piso)) {
+                throw new IllegalArgumentException("El piso debe estar entre 1 y 5");
+            }
+            if (!codigos.add(codigo)) {
+                throw new IllegalArgumentException("Ya existe un aula con el código " + codigo);
+            }
+            
+            Aula aula = new Aula(codigo, obligatorio(fila, "nombre"), capacidad, piso);
+            aula.setEdificio(fila.get("edificio"));
+            return aula;
+        }
+        
+        @Override
+        boolean insertarLote(List<Aula> entidades) {
+            return aulaDao.insertarLote(entidades);
+        }
+        
+        @Override
+        boolean insertar(Aula entidad) {
+            return aulaDao.insertar(entidad);
+        }
+    }
+    
+    private final class ImportadorCursos extends Importador<Curso> {
+        
+        private final Set<String> codigos = new HashSet<>();
+        
+        ImportadorCursos(ReporteImportacion reporte) {
+            super(TipoImportacion.CURSOS, reporte);
+            cursoDao.listarTodos().forEach(c -> codigos.add(c.getCodigo().toUpperCase()));
+        }
+        
+        @Override
+        Curso convertir(Map<String, String> fila) {
+            String codigo = obligatorio(fila, "codigo").toUpperCase();
+            if (!Validation.isValidCodigo(codigo)) {
+                throw new IllegalArgumentException("Código inválido: " + codigo);
+            }
+            Curso.Nivel nivel;
+            try {
+                nivel = Curso.Nivel.valueOf(normalizar(obligatorio(fila, "nivel")).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Nivel inválido (PRIMARIA o SECUNDARIA)");
+            }
+            Integer grado = entero(fila, "grado");
+            if (!Validation.isValidGrado(grado)) {
+                throw new IllegalArgumentException("El grado debe estar entre 1 y 6");
+            }
+            Integer horas = entero(fila, "horas_semanales");
+            if (!Validation.isValidHorasSemanales(horas)) {
+                throw new IllegalArgumentException("Las horas semanales deben estar entre 1 y 10");
+            }
+            if (!codigos.add(codigo)) {
+                throw new IllegalArgumentException("Ya existe un curso con el código " + codigo);
+            }
+            
+            Curso curso = new Curso(obligatorio(fila, "nombre"), codigo, nivel, grado, horas);
+            if (Validation.isNotEmpty(fila.get("color"))) {
+                curso.setColor(fila.get("color"));
+            }
+            return curso;
+        }
+        
+        @Override
+        boolean insertarLote(List<Curso> entidades) {
+            return cursoDao.insertarLote(entidades);
+        }
+        
+        @Override
+        boolean insertar(Curso entidad) {
+            return cursoDao.insertar(entidad);
+        }
+    }
+    
+    private final class ImportadorHorarios extends Importador<Horario> {
+        
+        private final Map<String, Integer> docentesPorDni = new HashMap<>();
+        private final Map<String, Integer> aulasPorCodigo = new HashMap<>();
+        private final Map<String, Integer> cursosPorCodigo = new HashMap<>();
+        private final Map<Integer, Integer> secciones = new HashMap<>();
+        // Ordenados una sola vez; cada tramo se barre contra ellos y lo insertado se agrega en orden
+        private final ValidadorLoteHorarios.Existentes existentes;
+        private final ValidadorLoteHorarios validador = new ValidadorLoteHorarios();
+        
+        ImportadorHorarios(ReporteImportacion reporte) {
+            super(TipoImportacion.HORARIOS, reporte);
+            docenteDao.listarTodos().forEach(d -> docentesPorDni.put(d.getDni(), d.getId()));
+            aulaDao.listarTodas().forEach(a -> aulasPorCodigo.put(a.getCodigo().toUpperCase(), a.getId()));
+            for (Curso c : cursoDao.listarTodos()) {
+                cursosPorCodigo.put(c.getCodigo().toUpperCase(), c.getId());
+                secciones.put(c.getId(), c.getNivel().ordinal() * 100 + c.getGrado());
+            }
+            existentes = new ValidadorLoteHorarios.Existentes(HorarioSnapshot.getInstance().actual()
+                    .map(HorarioSnapshot.Vista::todos)
+                    .orElseGet(horarioDao::listarTodos), secciones);
+        }
+        
+        @Override
+        Horario convertir(Map<String, String> fila) {
+            Integer docenteId = docentesPorDni.get(obligatorio(fila, "dni_docente"));
+            if (docenteId == null) {
+                throw new IllegalArgumentException("No existe un docente con DNI " + fila.get("dni_docente"));
+            }
+            Integer aulaId = aulasPorCodigo.get(obligatorio(fila, "codigo_aula").toUpperCase());
+            if (aulaId == null) {
+                throw new IllegalArgumentException("No existe el aula " + fila.get("codigo_aula"));
+            }
+            Integer cursoId = cursosPorCodigo.get(obligatorio(fila, "codigo_curso").toUpperCase());
+            if (cursoId == null) {
+                throw new IllegalArgumentException("No existe el curso " + fila.get("codigo_curso"));
+            }
+            LocalTime horaInicio = hora(fila, "hora_inicio");
+            LocalTime horaFin = hora(fila, "hora_fin");
+            if (!horaInicio.isBefore(horaFin)) {
+                throw new IllegalArgumentException("La hora de inicio debe ser menor que la hora de fin");
+            }
+            
+            return new Horario(docenteId, aulaId, cursoId, dia(obligatorio(fila, "dia")), horaInicio, horaFin);
+        }
+        
+        /**
+         * Quita del lote los horarios que chocan entre sí o con los existentes
+         */
+        @Override
+        void validarLote() {
+            if (lote.isEmpty()) {
+                return;
+            }
+            ReporteConflictos conflictos = validador.validar(lote, existentes);
+            if (conflictos.isValido()) {
+                return;
+            }
+            
+            Set<Integer> descartadas = new HashSet<>();
+            for (Conflicto c : conflictos.getConflictos()) {
+                if (descartadas.add(c.getFila())) {
+                    reporte.agregarError(filasLote.get(c.getFila()), "Choque de " + c.getTipo().name().toLowerCase()
+                            + " con " + (c.isContraExistente() ? "un horario existente"
+                                                               : "la fila " + filasLote.get(c.getFilaOtro()))
+                            + " (" + c.getOtro().getDia() + " " + c.getOtro().getHoraInicio()
+                            + "-" + c.getOtro().getHoraFin() + ")");
+                }
+            }
+            for (int i = lote.size() - 1; i >= 0; i--) {
+                if (descartadas.contains(i)) {
+                    lote.remove(i);
+                    filasLote.remove(i);
+                }
+            }
+        }
+        
+        @Override
+        void insertada(Horario entidad) {
+            existentes.agregar(entidad);
+        }
+        
+        /**
+         * Inserta bajo los bloqueos de docente, aula y sección; las filas que
+         * chocan con horarios registrados mientras tanto se quitan del lote
+         */
+        @Override
+        boolean insertarLote(List<Horario> entidades) {
+            List<ResultadoGuardado> resultados = horarioDao.insertarLoteSinChoque(entidades);
+            if (resultados.stream().anyMatch(r -> !r.isGuardado() && !r.isChoque())) {
+                return false;
+            }
+            for (int i = resultados.size() - 1; i >= 0; i--) {
+                if (resultados.get(i).isChoque()) {
+                    Horario otro = resultados.get(i).getChoques().get(0);
+                    reporte.agregarError(filasLote.get(i), "Choque con un horario registrado ("
+                            + otro.getDia() + " " + otro.getHoraInicio() + "-" + otro.getHoraFin() + ")");
+                    lote.remove(i);
+                    filasLote.remove(i);
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        boolean insertar(Horario entidad) {
+            return horarioDao.insertarSinChoque(entidad).isGuardado();
+        }
+    }
+    
+    private static String obligatorio(Map<String, String> fila, String columna) {
+        String valor = fila.get(columna);
+        if (!Validation.isNotEmpty(valor)) {
+            throw new IllegalArgumentException("Falta " + columna);
+        }
+        return valor.trim();
+    }
+    
+    private static Integer entero(Map<String, String> fila, String columna) {
+        String valor = obligatorio(fila, columna);
+        try {
+            // Las celdas numéricas pueden venir como "30.0"; 12.7 no es válido
+            return new BigDecimal(valor).intValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException(columna + " debe ser un número entero: " + valor);
+        }
+    }
+    
+    /**
+     * Hora como texto (08:00, 8:00 AM, 8:00 p. m.) o como fracción del día de
+     * Excel (0.333...), que es como llegan las celdas con formato de hora
+     */
+    private static LocalTime hora(Map<String, String> fila, String columna) {
+        String valor = obligatorio(fila, columna);
+        try {
+            Matcher amPm = SUFIJO_AM_PM.matcher(valor);
+            if (amPm.find()) {
+                String normalizada = valor.substring(0, amPm.start()) + " "
+                        + amPm.group(1).toUpperCase(Locale.ROOT) + "M";
+                return LocalTime.parse(normalizada, FORMATO_HORA_AM_PM);
+            }
+            return LocalTime.parse(valor, FORMATO_HORA);
+        } catch (DateTimeParseException e) {
+            try {
+                double fraccion = Double.parseDouble(valor);
+                // Al minuto más cercano: 8:00 se guarda como 0.33333... y truncar daría 7:59
+                long minutos = Math.round((fraccion - Math.floor(fraccion)) * MINUTOS_DIA) % MINUTOS_DIA;
+                return LocalTime.ofSecondOfDay(minutos * 60);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException(columna + " inválida: " + valor + " (use HH:mm)");
+            }
+        }
+    }
+    
+    /**
+     * Día por código (LUN) o por nombre (Lunes, Miércoles)
+     */
+    private static Horario.Dia dia(String valor) {
+        String normalizado = normalizar(valor).toUpperCase(Locale.ROOT);
+        if (normalizado.length() >= 3) {
+            String codigo = normalizado.substring(0, 3);
+            for (Horario.Dia dia : Horario.Dia.values()) {
+                if (dia.name().equals(codigo)) {
+                    return dia;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Día inválido: " + valor);
+    }
+    
+    /**
+     * Minúsculas, sin tildes y con guion bajo en lugar de espacios
+     */
+    private static String normalizar(String texto) {
+        String sinTildes = Normalizer.normalize(texto.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinTildes.toLowerCase(Locale.ROOT).replaceAll("\\s+", "_");
+    }
+}
@@ -0,0 +1,328 @@
+package com.cwiesse.horarios.service;
+
+import com.cwiesse.horarios.dao.CursoDao;
+import com.cwiesse.horarios.dao.HorarioDao;
+import com.cwiesse.horarios.dao.HorarioListener;
+import com.cwiesse.horarios.dao.impl.CursoDaoImpl;
+import com.cwiesse.horarios.dao.impl.HorarioDaoImpl;
+import com.cwiesse.horarios.model.Curso;
+import com.cwiesse.horarios.model.Horario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de los horarios para detectar choques sin consultar la BD.
+ * Por cada docente, aula y sección (nivel + grado) y por cada día guarda los
+ * intervalos ordenados por inicio, en minutos del día. Se carga al iniciar la
+ * aplicación y se actualiza con cada cambio confirmado (HorarioListener).
+ * 
+ * La base de datos sigue siendo la fuente de verdad: el guardado vuelve a
+ * verificar dentro de su transacción y, si el índice no coincide, se recarga
+ * con invalidar().
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class HorarioIndex implements HorarioListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HorarioIndex.class);
+    private static final HorarioIndex INSTANCE = new HorarioIndex();
+    
+    private static final int DOCENTE = 0;
+    private static final int AULA = 1;
+    private static final int SECCION = 2;
+    
+    private final HorarioDao horarioDao = new HorarioDaoImpl();
+    private final CursoDao cursoDao = new CursoDaoImpl();
+    
+    // null mientras no se haya cargado
+    private volatile Datos datos;
+    
+    private HorarioIndex() {
+    }
+    
+    public static HorarioIndex getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Carga (o recarga) todos los horarios desde la base de datos; si la
+     * consulta falla se conserva el índice actual
+     */
+    public void cargar() {
+        horarioDao.leerTodos().ifPresent(this::cargar);
+    }
+    
+    /**
+     * Reemplaza el índice con los horarios dados
+     */
+    public void cargar(List<Horario> horarios) {
+        long inicio = System.nanoTime();
+        
+        Datos nuevos = new Datos();
+        for (Horario h : horarios) {
+            if (h.getCurso() != null) {
+                nuevos.seccionPorCurso.put(h.getCursoId(), seccion(h.getCurso()));
+            }
+            agregar(nuevos, entrada(nuevos, h));
+        }
+        
+        synchronized (this) {
+            this.datos = nuevos;
+        }
+        logger.info("Índice de horarios cargado: {} horarios en {} ms", horarios.size(),
+                    (System.nanoTime() - inicio) / 1_000_000);
+    }
+    
+    /**
+     * Descarta el índice y lo vuelve a cargar (cuando no coincide con la BD)
+     */
+    public void invalidar() {
+        logger.warn("Índice de horarios desincronizado con la base de datos, se recarga");
+        cargar();
+    }
+    
+    public boolean isCargado() {
+        return datos != null;
+    }
+    
+    /**
+     * Verifica si el docente tiene otro horario solapado ese día
+     */
+    public boolean existeChoqueDocente(Integer docenteId, Horario.Dia dia, LocalTime horaInicio,
+                                       LocalTime horaFin, Integer horarioIdExcluir) {
+        return existeChoque(DOCENTE, docenteId, dia, horaInicio, horaFin, horarioIdExcluir);
+    }
+    
+    /**
+     * Verifica si el aula tiene otro horario solapado ese día
+     */
+    public boolean existeChoqueAula(Integer aulaId, Horario.Dia dia, LocalTime horaInicio,
+                                    LocalTime horaFin, Integer horarioIdExcluir) {
+        return existeChoque(AULA, aulaId, dia, horaInicio, horaFin, horarioIdExcluir);
+    }
+    
+    /**
+     * Verifica si la sección del curso tiene otro curso solapado ese día
+     */
+    public boolean existeChoqueSeccion(Integer cursoId, Horario.Dia dia, LocalTime horaInicio,
+                                       LocalTime horaFin, Integer horarioIdExcluir) {
+        Datos d = datos;
+        Integer seccion = d == null ? null : seccionDeCurso(d, cursoId);
+        return seccion != null && existeChoque(SECCION, seccion, dia, horaInicio, horaFin, horarioIdExcluir);
+    }
+    
+    /**
+     * Verifica choques de docente, aula y sección. Si el índice no está
+     * cargado devuelve false y la verificación queda a cargo de la BD.
+     */
+    public boolean hayChoque(Horario horario) {
+        return existeChoqueDocente(horario.getDocenteId(), horario.getDia(), horario.getHoraInicio(),
+                                   horario.getHoraFin(), horario.getId())
+            || existeChoqueAula(horario.getAulaId(), horario.getDia(), horario.getHoraInicio(),
+                                horario.getHoraFin(), horario.getId())
+            || existeChoqueSeccion(horario.getCursoId(), horario.getDia(), horario.getHoraInicio(),
+                                   horario.getHoraFin(), horario.getId());
+    }
+    
+    @Override
+    public void alGuardar(Horario horario) {
+        Datos d = datos;
+        if (d == null) {
+            return;
+        }
+        synchronized (this) {
+            Entrada anterior = d.porHorario.get(horario.getId());
+            if (anterior != null) {
+                quitar(d, anterior);
+            }
+            // El curso adjunto puede ser el anterior si solo se cambió cursoId
+            if (horario.getCurso() != null && horario.getCurso().getNivel() != null
+                    && horario.getCursoId() != null && horario.getCursoId().equals(horario.getCurso().getId())) {
+                d.seccionPorCurso.put(horario.getCursoId(), seccion(horario.getCurso()));
+            }
+            agregar(d, entrada(d, horario));
+        }
+    }
+    
+    @Override
+    public void alEliminar(Integer id) {
+        Datos d = datos;
+        if (d == null) {
+            return;
+        }
+        synchronized (this) {
+            Entrada anterior = d.porHorario.get(id);
+            if (anterior != null) {
+                quitar(d, anterior);
+            }
+        }
+    }
+    
+    private boolean existeChoque(int tipo, Integer recursoId, Horario.Dia dia, LocalTime horaInicio,
+                                 LocalTime horaFin, Integer horarioIdExcluir) {
+        Datos d = datos;
+        if (d == null || recursoId == null) {
+            return false;
+        }
+        Intervalos intervalos = d.porRecurso.get(clave(tipo, recursoId, dia.ordinal()));
+        return intervalos != null && intervalos.solapa(minutos(horaInicio), minutos(horaFin),
+                                                       horarioIdExcluir == null ? -1 : horarioIdExcluir);
+    }
+    
+    private Entrada entrada(Datos d, Horario h) {
+        Integer seccion = seccionDeCurso(d, h.getCursoId());
+        return new Entrada(h.getId(), h.getDocenteId(), h.getAulaId(), seccion == null ? -1 : seccion,
+                           h.getDia().ordinal(), minutos(h.getHoraInicio()), minutos(h.getHoraFin()));
+    }
+    
+    /**
+     * Sección del curso; si no se conoce aún, se consulta una sola vez
+     */
+    private Integer seccionDeCurso(Datos d, Integer cursoId) {
+        Integer seccion = d.seccionPorCurso.get(cursoId);
+        if (seccion == null && cursoId != null) {
+            seccion = cursoDao.buscarPorId(cursoId).map(HorarioIndex::seccion).orElse(null);
+            if (seccion != null) {
+                d.seccionPorCurso.put(cursoId, seccion);
+            }
+        }
+        return seccion;
+    }
+    
+    private static void agregar(Datos d, Entrada e) {
+        d.porHorario.put(e.id, e);
+        d.porRecurso.merge(clave(DOCENTE, e.docenteId, e.dia), Intervalos.de(e), Intervalos::con);
+        d.porRecurso.merge(clave(AULA, e.aulaId, e.dia), Intervalos.de(e), Intervalos::con);
+        if (e.seccion >= 0) {
+            d.porRecurso.merge(clave(SECCION, e.seccion, e.dia), Intervalos.de(e), Intervalos::con);
+        }
+    }
+    
+    private static void quitar(Datos d, Entrada e) {
+        d.porHorario.remove(e.id);
+        d.porRecurso.computeIfPresent(clave(DOCENTE, e.docenteId, e.dia), (k, v) -> v.sin(e.id));
+        d.porRecurso.computeIfPresent(clave(AULA, e.aulaId, e.dia), (k, v) -> v.sin(e.id));
+        if (e.seccion >= 0) {
+            d.porRecurso.computeIfPresent(clave(SECCION, e.seccion, e.dia), (k, v) -> v.sin(e.id));
+        }
+    }
+    
+    private static long clave(int tipo, int recursoId, int dia) {
+        return ((long) tipo << 40) | ((long) recursoId << 8) | dia;
+    }
+    
+    private static int seccion(Curso curso) {
+        return curso.getNivel().ordinal() * 100 + curso.getGrado();
+    }
+    
+    private static int minutos(LocalTime hora) {
+        return hora.getHour() * 60 + hora.getMinute();
+    }
+    
+    private static final class Datos {
+        final Map<Long, Intervalos> porRecurso = new ConcurrentHashMap<>();
+        final Map<Integer, Entrada> porHorario = new ConcurrentHashMap<>();
+        final Map<Integer, Integer> seccionPorCurso = new ConcurrentHashMap<>();
+    }
+    
+    private static final class Entrada {
+        final int id;
+        final int docenteId;
+        final int aulaId;
+        final int seccion;
+        final int dia;
+        final int inicio;
+        final int fin;
+        
+        Entrada(int id, int docenteId, int aulaId, int seccion, int dia, int inicio, int fin) {
+            this.id = id;
+            this.docenteId = docenteId;
+            this.aulaId = aulaId;
+            this.seccion = seccion;
+            this.dia = dia;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+    }
+    
+    /**
+     * Intervalos de un recurso en un día, ordenados por inicio. Es inmutable:
+     * cada cambio crea una copia (son pocos intervalos por recurso y día).
+     */
+    private static final class Intervalos {
+        final int[] inicios;
+        final int[] fines;
+        final int[] ids;
+        
+        Intervalos(int[] inicios, int[] fines, int[] ids) {
+            this.inicios = inicios;
+            this.fines = fines;
+            this.ids = ids;
+        }
+        
+        static Intervalos de(Entrada e) {
+            return new Intervalos(new int[] { e.inicio }, new int[] { e.fin }, new int[] { e.id });
+        }
+        
+        /**
+         * Hay solapamiento si inicioOtro < fin AND finOtro > inicio
+         */
+        boolean solapa(int inicio, int fin, int idExcluir) {
+            for (int i = 0; i < inicios.length && inicios[i] < fin; i++) {
+                if (fines[i] > inicio && ids[i] != idExcluir) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        Intervalos con(Intervalos otro) {
+            Intervalos r = this;
+            for (int i = 0; i < otro.ids.length; i++) {
+                r = r.insertar(otro.inicios[i], otro.fines[i], otro.ids[i]);
+            }
+            return r;
+        }
+        
+        private Intervalos insertar(int inicio, int fin, int id) {
+            int pos = Arrays.binarySearch(inicios, inicio);
+            pos = pos < 0 ? -pos - 1 : pos;
+            return new Intervalos(insertar(inicios, pos, inicio), insertar(fines, pos, fin),
+                                  insertar(ids, pos, id));
+        }
+        
+        Intervalos sin(int id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    if (ids.length == 1) {
+                        return null;
+                    }
+                    return new Intervalos(quitar(inicios, i), quitar(fines, i), quitar(ids, i));
+                }
+            }
+            return this;
+        }
+        
+        private static int[] insertar(int[] a, int pos, int valor) {
+            int[] r = new int[a.length + 1];
+            System.arraycopy(a, 0, r, 0, pos);
+            r[pos] = valor;
+            System.arraycopy(a, pos, r, pos + 1, a.length - pos);
+            return r;
+        }
+        
+        private static int[] quitar(int[] a, int pos) {
+            int[] r = new int[a.length - 1];
+            System.arraycopy(a, 0, r, 0, pos);
+            System.arraycopy(a, pos + 1, r, pos, a.length - pos - 1);
+            return r;
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.cwiesse.horarios.service;
+
+import com.cwiesse.horarios.dao.AulaDao;
+import com.cwiesse.horarios.dao.CatalogoListener;
+import com.cwiesse.horarios.dao.ClavePagina;
+import com.cwiesse.horarios.dao.CursoDao;
+import com.cwiesse.horarios.dao.DocenteDao;
+import com.cwiesse.horarios.dao.FiltroListado;
+import com.cwiesse.horarios.dao.HorarioListener;
+import com.cwiesse.horarios.dao.Pagina;
+import com.cwiesse.horarios.dao.impl.AulaDaoImpl;
+import com.cwiesse.horarios.dao.impl.CursoDaoImpl;
+import com.cwiesse.horarios.dao.impl.DocenteDaoImpl;
+import com.cwiesse.horarios.dao.impl.HorarioDaoImpl;
+import com.cwiesse.horarios.model.Aula;
+import com.cwiesse.horarios.model.Curso;
+import com.cwiesse.horarios.model.Docente;
+import com.cwiesse.horarios.model.Horario;
+import com.cwiesse.horarios.model.HorarioResumen;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Vista inmutable y versionada de todos los horarios, indexada por ID,
+ * docente, aula, curso y día, para las lecturas que recorren el horario
+ * completo sin consultar la BD: el listado paginado, la exportación y las
+ * validaciones de lotes.
+ * 
+ * La vista se publica en una referencia atómica: los lectores toman la actual
+ * con actual() sin bloqueo y nunca ven un cambio a medias. Cada cambio
+ * confirmado (HorarioListener) publica una vista nueva con la versión
+ * siguiente, copiando solo los índices del horario afectado; el resto de
+ * listas se comparte con la anterior.
+ * 
+ * Los horarios de la vista son compartidos: no deben modificarse.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class HorarioSnapshot implements HorarioListener, CatalogoListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HorarioSnapshot.class);
+    private static final HorarioSnapshot INSTANCE = new HorarioSnapshot();
+    // Orden de los listados del DAO: día y hora de inicio
+    private static final Comparator<Horario> ORDEN = Comparator.comparing(Horario::getDia)
+            .thenComparing(Horario::getHoraInicio)
+            .thenComparing(Horario::getId);
+    
+    private final DocenteDao docenteDao = new DocenteDaoImpl();
+    private final AulaDao aulaDao = new AulaDaoImpl();
+    private final CursoDao cursoDao = new CursoDaoImpl();
+    
+    // null mientras no se haya cargado; solo se reemplaza dentro de synchronized
+    private final AtomicReference<Vista> vista = new AtomicReference<>();
+    
+    private HorarioSnapshot() {
+    }
+    
+    public static HorarioSnapshot getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Vista actual, si ya se cargó
+     */
+    public Optional<Vista> actual() {
+        return Optional.ofNullable(vista.get());
+    }
+    
+    /**
+     * Carga (o recarga) todos los horarios desde la base de datos; si la
+     * consulta falla se conserva la vista actual (o ninguna)
+     */
+    public synchronized void cargar() {
+        new HorarioDaoImpl().leerTodos().ifPresent(this::cargar);
+    }
+    
+    /**
+     * Reemplaza la vista con los horarios dados
+     */
+    public synchronized void cargar(List<Horario> horarios) {
+        Vista anterior = vista.get();
+        Vista nueva = new Vista(anterior == null ? 1 : anterior.version + 1);
+        for (Horario h : horarios) {
+            nueva.porId.put(h.getId(), h);
+            agregar(nueva.porDocente, h.getDocenteId(), h);
+            agregar(nueva.porAula, h.getAulaId(), h);
+            agregar(nueva.porCurso, h.getCursoId(), h);
+            agregar(nueva.porDia, h.getDia(), h);
+        }
+        ordenar(nueva.porDocente);
+        ordenar(nueva.porAula);
+        ordenar(nueva.porCurso);
+        ordenar(nueva.porDia);
+        
+        vista.set(nueva);
+        logger.info("Vista de horarios cargada: versión {}, {} horarios", nueva.version, horarios.size());
+    }
+    
+    @Override
+    public synchronized void alGuardar(Horario horario) {
+        Vista anterior = vista.get();
+        if (anterior == null) {
+            return;
+        }
+        Horario copia = copiar(anterior, horario);
+        Vista nueva = anterior.siguiente();
+        Horario previo = nueva.porId.put(copia.getId(), copia);
+        nueva.reemplazar(previo, copia);
+        vista.set(nueva);
+    }
+    
+    @Override
+    public synchronized void alEliminar(Integer id) {
+        Vista anterior = vista.get();
+        if (anterior == null || !anterior.porId.containsKey(id)) {
+            return;
+        }
+        Vista nueva = anterior.siguiente();
+        nueva.reemplazar(nueva.porId.remove(id), null);
+        vista.set(nueva);
+    }
+    
+    /**
+     * Los horarios de la vista incluyen docente, aula y curso: se vuelve a
+     * leer solo el catálogo que cambió y se reemplaza en los horarios, sin
+     * consultar los horarios
+     */
+    @Override
+    public synchronized void alCambiar(Class<?> catalogo) {
+        Vista anterior = vista.get();
+        if (anterior == null) {
+            return;
+        }
+        
+        Consumer<Horario> actualizar;
+        int leidos;
+        if (catalogo == Docente.class) {
+            Map<Integer, Docente> docentes = porId(docenteDao.listarTodos(), Docente::getId);
+            actualizar = h -> h.setDocente(docentes.getOrDefault(h.getDocenteId(), h.getDocente()));
+            leidos = docentes.size();
+        } else if (catalogo == Aula.class) {
+            Map<Integer, Aula> aulas = porId(aulaDao.listarTodas(), Aula::getId);
+            actualizar = h -> h.setAula(aulas.getOrDefault(h.getAulaId(), h.getAula()));
+            leidos = aulas.size();
+        } else if (catalogo == Curso.class) {
+            Map<Integer, Curso> cursos = porId(cursoDao.listarTodos(), Curso::getId);
+            actualizar = h -> h.setCurso(cursos.getOrDefault(h.getCursoId(), h.getCurso()));
+            leidos = cursos.size();
+        } else {
+            return;
+        }
+        if (leidos == 0) {
+            // Vacío si falló la consulta: se mantiene la vista actual
+            logger.warn("No se pudo leer {}: la vista de horarios no se actualizó", catalogo.getSimpleName());
+            return;
+        }
+        
+        List<Horario> horarios = new ArrayList<>(anterior.porId.size());
+        for (Horario h : anterior.porId.values()) {
+            Horario copia = copiaSimple(h);
+            actualizar.accept(copia);
+            horarios.add(copia);
+        }
+        cargar(horarios);
+    }
+    
+    /**
+     * Copia propia del horario guardado (el que llega es del llamador y puede
+     * seguir cambiando), con docente, aula y curso compartidos con la vista
+     */
+    private Horario copiar(Vista v, Horario h) {
+        Horario copia = copiaSimple(h);
+        copia.setDocente(relacionado(v.porDocente, h.getDocenteId(), Horario::getDocente,
+                                     () -> docenteDao.buscarPorId(h.getDocenteId()).orElse(h.getDocente())));
+        copia.setAula(relacionado(v.porAula, h.getAulaId(), Horario::getAula,
+                                  () -> aulaDao.buscarPorId(h.getAulaId()).orElse(h.getAula())));
+        copia.setCurso(relacionado(v.porCurso, h.getCursoId(), Horario::getCurso,
+                                   () -> cursoDao.buscarPorId(h.getCursoId()).orElse(h.getCurso())));
+        return copia;
+    }
+    
+    /**
+     * Copia con los mismos datos y las mismas entidades relacionadas
+     */
+    private static Horario copiaSimple(Horario h) {
+        Horario copia = new Horario(h.getId(), h.getDocenteId(), h.getAulaId(), h.getCursoId(),
+                                    h.getDia(), h.getHoraInicio(), h.getHoraFin());
+        if (h.getFechaCreacion() != null) {
+            copia.setFechaCreacion(h.getFechaCreacion());
+        }
+        copia.setDocente(h.getDocente());
+        copia.setAula(h.getAula());
+        copia.setCurso(h.getCurso());
+        return copia;
+    }
+    
+    private static <T> Map<Integer, T> porId(List<T> entidades, Function<T, Integer> id) {
+        Map<Integer, T> porId = new HashMap<>();
+        for (T entidad : entidades) {
+            porId.put(id.apply(entidad), entidad);
+        }
+        return porId;
+    }
+    
+    /**
+     * Entidad relacionada tomada de otro horario de la vista; si ninguno la
+     * tiene aún, se consulta una sola vez
+     */
+    private static <T> T relacionado(Map<Integer, List<Horario>> indice, Integer id,
+                                     Function<Horario, T> extraer, Supplier<T> cargar) {
+        List<Horario> horarios = indice.get(id);
+        if (horarios != null && !horarios.isEmpty() && extraer.apply(horarios.get(0)) != null) {
+            return extraer.apply(horarios.get(0));
+        }
+        return cargar.get();
+    }
+    
+    private static <K> void agregar(Map<K, List<Horario>> indice, K clave, Horario h) {
+        indice.computeIfAbsent(clave, k -> new ArrayList<>()).add(h);
+    }
+    
+    private static <K> void ordenar(Map<K, List<Horario>> indice) {
+        indice.replaceAll((k, lista) -> {
+            lista.sort(ORDEN);
+            return Collections.unmodifiableList(lista);
+        });
+    }
+    
+    /**
+     * Horarios en una versión de la vista. Inmutable una vez publicada.
+     */
+    public static final class Vista {
+        
+        private final long version;
+        private final Map<Integer, Horario> porId;
+        private final Map<Integer, List<Horario>> porDocente;
+        private final Map<Integer, List<Horario>> porAula;
+        private final Map<Integer, List<Horario>> porCurso;
+        private final Map<Horario.Dia, List<Horario>> porDia;
+        
+        private Vista(long version) {
+            this.version = version;
+            this.porId = new HashMap<>();
+            this.porDocente = new HashMap<>();
+            this.porAula = new HashMap<>();
+            this.porCurso = new HashMap<>();
+            this.porDia = new EnumMap<>(Horario.Dia.class);
+        }
+        
+        // Copia de los índices (no de las listas) con la versión siguiente
+        private Vista(Vista anterior) {
+            this.version = anterior.version + 1;
+            this.porId = new HashMap<>(anterior.porId);
+            this.porDocente = new HashMap<>(anterior.porDocente);
+            this.porAula = new HashMap<>(anterior.porAula);
+            this.porCurso = new HashMap<>(anterior.porCurso);
+            this.porDia = new EnumMap<>(anterior.porDia);
+        }
+        
+        private Vista siguiente() {
+            return new Vista(this);
+        }
+        
+        /**
+         * Cambia el horario previo por el nuevo en las listas afectadas
+         * (previo o nuevo pueden ser null); cada lista tocada se copia
+         */
+        private void reemplazar(Horario previo, Horario nuevo) {
+            if (previo != null) {
+                quitar(porDocente, previo.getDocenteId(), previo.getId());
+                quitar(porAula, previo.getAulaId(), previo.getId());
+                quitar(porCurso, previo.getCursoId(), previo.getId());
+                quitar(porDia, previo.getDia(), previo.getId());
+            }
+            if (nuevo != null) {
+                poner(porDocente, nuevo.getDocenteId(), nuevo);
+                poner(porAula, nuevo.getAulaId(), nuevo);
+                poner(porCurso, nuevo.getCursoId(), nuevo);
+                poner(porDia, nuevo.getDia(), nuevo);
+            }
+        }
+        
+        private static <K> void quitar(Map<K, List<Horario>> indice, K clave, Integer id) {
+            List<Horario> lista = indice.get(clave);
+            if (lista == null) {
+                return;
+            }
+            List<Horario> copia = new ArrayList<>(lista);
+            copia.removeIf(h -> h.getId().equals(id));
+            if (copia.isEmpty()) {
+                indice.remove(clave);
+            } else {
+                indice.put(clave, Collections.unmodifiableList(copia));
+            }
+        }
+        
+        private static <K> void poner(Map<K, List<Horario>> indice, K clave, Horario h) {
+            List<Horario> lista = indice.get(clave);
+            List<Horario> copia = lista == null ? new ArrayList<>() : new ArrayList<>(lista);
+            int pos = Collections.binarySearch(copia, h, ORDEN);
+            copia.add(pos < 0 ? -pos - 1 : pos, h);
+            indice.put(clave, Collections.unmodifiableList(copia));
+        }
+        
+        /**
+         * Aumenta con cada cambio publicado
+         */
+        public long getVersion() {
+            return version;
+        }
+        
+        public int getTotal() {
+            return porId.size();
+        }
+        
+        public Optional<Horario> buscarPorId(Integer id) {
+            return Optional.ofNullable(porId.get(id));
+        }
+        
+        /**
+         * Todos los horarios, en orden de día y hora de inicio
+         */
+        public List<Horario> todos() {
+            List<Horario> todos = new ArrayList<>(porId.size());
+            for (Horario.Dia dia : Horario.Dia.values()) {
+                todos.addAll(porDia(dia));
+            }
+            return todos;
+        }
+        
+        public List<Horario> porDocente(Integer docenteId) {
+            return porDocente.getOrDefault(docenteId, Collections.emptyList());
+        }
+        
+        public List<Horario> porAula(Integer aulaId) {
+            return porAula.getOrDefault(aulaId, Collections.emptyList());
+        }
+        
+        public List<Horario> porCurso(Integer cursoId) {
+            return porCurso.getOrDefault(cursoId, Collections.emptyList());
+        }
+        
+        public List<Horario> porDia(Horario.Dia dia) {
+            return porDia.getOrDefault(dia, Collections.emptyList());
+        }
+        
+        /**
+         * Página del listado con los filtros dados: mismo orden y mismas
+         * claves de página que HorarioDao.listarPagina, sin consultar la BD
+         */
+        public Pagina<HorarioResumen> listarPagina(FiltroListado filtro, ClavePagina clave, int limite) {
+            List<Horario> horarios = filtrados(filtro);
+            
+            int desde = 0;
+            int hasta = horarios.size();
+            if (clave != null) {
+                try {
+                    // Horario de referencia con los valores de la clave (día como ordinal + 1)
+                    Horario referencia = new Horario(Integer.valueOf(clave.get(2)), null, null, null,
+                            Horario.Dia.values()[Integer.parseInt(clave.get(0)) - 1],
+                            LocalTime.parse(clave.get(1)), null);
+                    int pos = Collections.binarySearch(horarios, referencia, ORDEN);
+                    if (clave.isAtras()) {
+                        hasta = pos >= 0 ? pos : -pos - 1;
+                    } else {
+                        desde = pos >= 0 ? pos + 1 : -pos - 1;
+                    }
+                } catch (RuntimeException e) {
+                    // Token alterado o de otro listado: se vuelve a la primera página
+                    logger.debug("Clave de página inválida: {}", e.getMessage());
+                    clave = null;
+                }
+            }
+            
+            // Como la consulta: limite + 1 filas, en orden inverso si la clave va hacia atrás
+            List<HorarioResumen> filas = new ArrayList<>(limite + 1);
+            if (clave != null && clave.isAtras()) {
+                for (int i = hasta - 1; i >= 0 && filas.size() <= limite; i--) {
+                    filas.add(resumen(horarios.get(i)));
+                }
+            } else {
+                for (int i = desde; i < hasta && filas.size() <= limite; i++) {
+                    filas.add(resumen(horarios.get(i)));
+                }
+            }
+            return Pagina.armar(filas, clave, limite, h -> new String[] {
+                String.valueOf(h.getDia().ordinal() + 1), h.getHoraInicio().toString(), String.valueOf(h.getId()) });
+        }
+        
+        /**
+         * Entrega los horarios filtrados en el orden del listado (como
+         * HorarioDao.recorrer)
+         */
+        public void recorrer(FiltroListado filtro, Consumer<HorarioResumen> consumidor) {
+            for (Horario h : filtrados(filtro)) {
+                consumidor.accept(resumen(h));
+            }
+        }
+        
+        private List<Horario> filtrados(FiltroListado filtro) {
+            // Se parte del índice más selectivo disponible; todos vienen en orden
+            List<Horario> base;
+            if (filtro.getDocenteId() != null) {
+                base = porDocente(filtro.getDocenteId());
+            } else if (filtro.getAulaId() != null) {
+                base = porAula(filtro.getAulaId());
+            } else if (filtro.getDia() != null) {
+                base = porDia(filtro.getDia());
+            } else {
+                base = todos();
+            }
+            
+            List<Horario> filtrados = new ArrayList<>();
+            for (Horario h : base) {
+                if (cumple(h, filtro)) {
+                    filtrados.add(h);
+                }
+            }
+            return filtrados;
+        }
+        
+        private static boolean cumple(Horario h, FiltroListado filtro) {
+            Curso curso = h.getCurso();
+            return (filtro.getDia() == null || filtro.getDia() == h.getDia())
+                && (filtro.getDocenteId() == null || filtro.getDocenteId().equals(h.getDocenteId()))
+                && (filtro.getAulaId() == null || filtro.getAulaId().equals(h.getAulaId()))
+                && (filtro.getNivel() == null || (curso != null && filtro.getNivel() == curso.getNivel()))
+                && (filtro.getGrado() == null || (curso != null && filtro.getGrado().equals(curso.getGrado())));
+        }
+        
+        private static HorarioResumen resumen(Horario h) {
+            Docente d = h.getDocente();
+            Aula a = h.getAula();
+            Curso c = h.getCurso();
+            // Nombre del docente como CONCAT_WS en la consulta: sin partes nulas
+            String docenteNombre = d == null ? null
+                    : Stream.of(d.getNombre(), d.getApellidoPaterno(), d.getApellidoMaterno())
+                            .filter(Objects::nonNull).collect(Collectors.joining(" "));
+            return new HorarioResumen(h.getId(), h.getDocenteId(), h.getAulaId(), h.getCursoId(), h.getDia(),
+                    h.getHoraInicio().toSecondOfDay() / 60, h.getHoraFin().toSecondOfDay() / 60,
+                    docenteNombre,
+                    c == null ? null : c.getNombre(),
+                    c == null ? null : c.getNivel(),
+                    c == null ? null : c.getGrado(),
+                    a == null ? null : a.getCodigo(),
+                    a == null ? null : a.getNombre());
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package com.cwiesse.horarios.service;
+
+import com.cwiesse.horarios.dao.CursoDao;
+import com.cwiesse.horarios.dao.HorarioDao;
+import com.cwiesse.horarios.dao.HorarioListener;
+import com.cwiesse.horarios.dao.impl.CursoDaoImpl;
+import com.cwiesse.horarios.dao.impl.HorarioDaoImpl;
+import com.cwiesse.horarios.model.Curso;
+import com.cwiesse.horarios.model.Horario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ocupación semanal de docentes, aulas y secciones como mapas de bits.
+ * Cada día de cada recurso es un long[] con una franja de 5 minutos por bit
+ * (00:00 a 24:00), de modo que solapamiento, franjas libres e intersección de
+ * varios recursos se resuelven con AND/OR por palabra.
+ * 
+ * Se mantiene al día con los cambios de HorarioDao (HorarioListener). Cada
+ * cambio recalcula solo el día del recurso afectado a partir de sus horarios,
+ * así un horario que se quita no borra bits de otro que se solape con él.
+ * 
+ * Una carga arma mapas nuevos y los publica de una vez, así los lectores
+ * (sin bloqueo) nunca ven una ocupación vacía o a medio armar. Mientras no
+ * se haya cargado no hay ocupación y se ignoran los cambios.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class OcupacionSemanal implements HorarioListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OcupacionSemanal.class);
+    private static final OcupacionSemanal INSTANCE = new OcupacionSemanal();
+    
+    public enum Recurso {
+        DOCENTE, AULA, SECCION
+    }
+    
+    public static final int MINUTOS_POR_FRANJA = 5;
+    public static final int FRANJAS_POR_DIA = 24 * 60 / MINUTOS_POR_FRANJA;
+    private static final int PALABRAS = (FRANJAS_POR_DIA + 63) / 64;
+    private static final long[] VACIO = new long[PALABRAS];
+    
+    private final CursoDao cursoDao = new CursoDaoImpl();
+    
+    // null mientras no se haya cargado; los cambios se aplican bajo this
+    private volatile Datos datos;
+    private final Map<Integer, Integer> seccionPorCurso = new ConcurrentHashMap<>();
+    
+    private OcupacionSemanal() {
+    }
+    
+    public static OcupacionSemanal getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Carga la ocupación de todos los horarios desde la base de datos; si la
+     * consulta falla se conserva la actual
+     */
+    public void cargar() {
+        HorarioDao horarioDao = new HorarioDaoImpl();
+        horarioDao.leerTodos().ifPresent(this::cargar);
+    }
+    
+    /**
+     * Reemplaza la ocupación con la de los horarios dados
+     */
+    public void cargar(List<Horario> horarios) {
+        Datos nuevos = new Datos();
+        Set<Long> claves = new HashSet<>();
+        for (Horario h : horarios) {
+            if (h.getCurso() != null) {
+                seccionPorCurso.put(h.getCursoId(), seccion(h.getCurso()));
+            }
+            claves.addAll(registrar(nuevos, h));
+        }
+        for (Long clave : claves) {
+            recalcular(nuevos, clave);
+        }
+        
+        synchronized (this) {
+            this.datos = nuevos;
+        }
+        logger.info("Ocupación semanal cargada: {} horarios, {} recursos-día", horarios.size(), claves.size());
+    }
+    
+    public boolean isCargada() {
+        return datos != null;
+    }
+    
+    @Override
+    public synchronized void alGuardar(Horario horario) {
+        Datos d = datos;
+        if (d == null) {
+            return;
+        }
+        // El curso adjunto puede ser el anterior si solo se cambió cursoId
+        if (horario.getCurso() != null && horario.getCurso().getNivel() != null
+                && horario.getCursoId() != null && horario.getCursoId().equals(horario.getCurso().getId())) {
+            seccionPorCurso.put(horario.getCursoId(), seccion(horario.getCurso()));
+        }
+        Set<Long> afectadas = new HashSet<>(desregistrar(d, horario.getId()));
+        afectadas.addAll(registrar(d, horario));
+        for (Long clave : afectadas) {
+            recalcular(d, clave);
+        }
+    }
+    
+    @Override
+    public synchronized void alEliminar(Integer id) {
+        Datos d = datos;
+        if (d == null) {
+            return;
+        }
+        for (Long clave : desregistrar(d, id)) {
+            recalcular(d, clave);
+        }
+    }
+    
+    /**
+     * Verifica si el recurso está libre en todo el intervalo.
+     * Para SECCION, id es el de un curso de esa sección.
+     */
+    public boolean estaLibre(Recurso recurso, Integer id, Horario.Dia dia, LocalTime inicio, LocalTime fin) {
+        return !seSolapa(ocupacion(recurso, id, dia), mascara(inicio, fin));
+    }
+    
+    /**
+     * De los recursos dados, los que están libres en todo el intervalo
+     * (por ejemplo, las aulas libres el martes de 10:00 a 11:30)
+     */
+    public List<Integer> libres(Recurso recurso, Collection<Integer> ids, Horario.Dia dia,
+                                LocalTime inicio, LocalTime fin) {
+        long[] mascara = mascara(inicio, fin);
+        List<Integer> libres = new ArrayList<>();
+        for (Integer id : ids) {
+            if (!seSolapa(ocupacion(recurso, id, dia), mascara)) {
+                libres.add(id);
+            }
+        }
+        return libres;
+    }
+    
+    /**
+     * Bits ocupados del recurso en el día (copia); vacío si no se ha cargado
+     */
+    public long[] ocupacion(Recurso recurso, Integer id, Horario.Dia dia) {
+        Datos d = datos;
+        if (recurso == Recurso.SECCION) {
+            id = id == null ? null : seccionDeCurso(id);
+        }
+        if (d == null || id == null) {
+            return VACIO.clone();
+        }
+        long[] bits = d.ocupacion.get(clave(recurso, id, dia.ordinal()));
+        return bits == null ? VACIO.clone() : bits.clone();
+    }
+    
+    /**
+     * Unión (OR) de la ocupación de un docente, un aula y la sección de un
+     * curso; los parámetros nulos se ignoran
+     */
+    public long[] ocupacionCombinada(Horario.Dia dia, Integer docenteId, Integer aulaId, Integer cursoId) {
+        long[] resultado = new long[PALABRAS];
+        if (docenteId != null) {
+            or(resultado, ocupacion(Recurso.DOCENTE, docenteId, dia));
+        }
+        if (aulaId != null) {
+            or(resultado, ocupacion(Recurso.AULA, aulaId, dia));
+        }
+        if (cursoId != null) {
+            or(resultado, ocupacion(Recurso.SECCION, cursoId, dia));
+        }
+        return resultado;
+    }
+    
+    /**
+     * Franjas libres de al menos minutosMinimos dentro de [desde, hasta)
+     */
+    public static List<Franja> franjasLibres(long[] ocupados, LocalTime desde, LocalTime hasta,
+                                             int minutosMinimos) {
+        int inicio = minutos(desde) / MINUTOS_POR_FRANJA;
+        int limite = (minutos(hasta) + MINUTOS_POR_FRANJA - 1) / MINUTOS_POR_FRANJA;
+        int minimas = Math.max(1, (minutosMinimos + MINUTOS_POR_FRANJA - 1) / MINUTOS_POR_FRANJA);
+        
+        List<Franja> franjas = new ArrayList<>();
+        int i = siguienteLibre(ocupados, inicio, limite);
+        while (i < limite) {
+            int fin = Math.min(siguienteOcupada(ocupados, i, limite), limite);
+            if (fin - i >= minimas) {
+                franjas.add(new Franja(hora(i), hora(fin)));
+            }
+            i = siguienteLibre(ocupados, fin, limite);
+        }
+        return franjas;
+    }
+    
+    /**
+     * Bits de las franjas que toca el intervalo [inicio, fin)
+     */
+    public static long[] mascara(LocalTime inicio, LocalTime fin) {
+        long[] bits = new long[PALABRAS];
+        marcar(bits, minutos(inicio), minutos(fin));
+        return bits;
+    }
+    
+    /**
+     * true si algún bit está en ambos mapas (AND por palabra)
+     */
+    public static boolean seSolapa(long[] a, long[] b) {
+        for (int i = 0; i < PALABRAS; i++) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static void or(long[] destino, long[] otro) {
+        for (int i = 0; i < PALABRAS; i++) {
+            destino[i] |= otro[i];
+        }
+    }
+    
+    /**
+     * Marca las franjas de [inicioMin, finMin): se redondea hacia afuera
+     */
+    private static void marcar(long[] bits, int inicioMin, int finMin) {
+        int desde = inicioMin / MINUTOS_POR_FRANJA;
+        int hasta = Math.min(FRANJAS_POR_DIA, (finMin + MINUTOS_POR_FRANJA - 1) / MINUTOS_POR_FRANJA);
+        for (int palabra = desde >>> 6; desde < hasta; palabra++) {
+            int fin = Math.min(hasta, (palabra + 1) << 6);
+            long mascara = (fin - desde == 64) ? -1L : ((1L << (fin - desde)) - 1) << (desde & 63);
+            bits[palabra] |= mascara;
+            desde = fin;
+        }
+    }
+    
+    private static int siguienteOcupada(long[] bits, int desde, int limite) {
+        for (int palabra = desde >>> 6; palabra < PALABRAS && (palabra << 6) < limite; palabra++) {
+            long w = bits[palabra];
+            if (palabra == desde >>> 6) {
+                w &= -1L << (desde & 63);
+            }
+            if (w != 0) {
+                return (palabra << 6) + Long.numberOfTrailingZeros(w);
+            }
+        }
+        return limite;
+    }
+    
+    private static int siguienteLibre(long[] bits, int desde, int limite) {
+        for (int palabra = desde >>> 6; palabra < PALABRAS && (palabra << 6) < limite; palabra++) {
+            long w = ~bits[palabra];
+            if (palabra == desde >>> 6) {
+                w &= -1L << (desde & 63);
+            }
+            if (w != 0) {
+                return Math.min(limite, (palabra << 6) + Long.numberOfTrailingZeros(w));
+            }
+        }
+        return limite;
+    }
+    
+    /**
+     * Registra el horario y devuelve las claves recurso-día afectadas
+     */
+    private Set<Long> registrar(Datos d, Horario h) {
+        Integer seccion = seccionDeCurso(h.getCursoId());
+        Entrada e = new Entrada(h.getDocenteId(), h.getAulaId(), seccion == null ? -1 : seccion,
+                                h.getDia().ordinal(), minutos(h.getHoraInicio()), minutos(h.getHoraFin()));
+        d.entradas.put(h.getId(), e);
+        Set<Long> claves = claves(e);
+        for (Long clave : claves) {
+            d.horariosPorClave.computeIfAbsent(clave, k -> new HashSet<>()).add(h.getId());
+        }
+        return claves;
+    }
+    
+    private static Set<Long> desregistrar(Datos d, Integer id) {
+        Entrada e = d.entradas.remove(id);
+        if (e == null) {
+            return Set.of();
+        }
+        Set<Long> claves = claves(e);
+        for (Long clave : claves) {
+            Set<Integer> ids = d.horariosPorClave.get(clave);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+        return claves;
+    }
+    
+    /**
+     * Recalcula los bits de un recurso-día a partir de sus horarios
+     */
+    private static void recalcular(Datos d, Long clave) {
+        Set<Integer> ids = d.horariosPorClave.get(clave);
+        if (ids == null || ids.isEmpty()) {
+            d.horariosPorClave.remove(clave);
+            d.ocupacion.remove(clave);
+            return;
+        }
+        long[] bits = new long[PALABRAS];
+        for (Integer id : ids) {
+            Entrada e = d.entradas.get(id);
+            marcar(bits, e.inicio, e.fin);
+        }
+        d.ocupacion.put(clave, bits);
+    }
+    
+    private static Set<Long> claves(Entrada e) {
+        Set<Long> claves = new HashSet<>(4);
+        claves.add(clave(Recurso.DOCENTE, e.docenteId, e.dia));
+        claves.add(clave(Recurso.AULA, e.aulaId, e.dia));
+        if (e.seccion >= 0) {
+            claves.add(clave(Recurso.SECCION, e.seccion, e.dia));
+        }
+        return claves;
+    }
+    
+    private Integer seccionDeCurso(Integer cursoId) {
+        Integer seccion = seccionPorCurso.get(cursoId);
+        if (seccion == null && cursoId != null) {
+            seccion = cursoDao.buscarPorId(cursoId).map(OcupacionSemanal::seccion).orElse(null);
+            if (seccion != null) {
+                seccionPorCurso.put(cursoId, seccion);
+            }
+        }
+        return seccion;
+    }
+    
+    private static long clave(Recurso recurso, int id, int dia) {
+        return ((long) recurso.ordinal() << 40) | ((long) id << 8) | dia;
+    }
+    
+    private static int seccion(Curso curso) {
+        return curso.getNivel().ordinal() * 100 + curso.getGrado();
+    }
+    
+    private static int minutos(LocalTime hora) {
+        return hora.getHour() * 60 + hora.getMinute();
+    }
+    
+    private static LocalTime hora(int franja) {
+        int min = franja * MINUTOS_POR_FRANJA;
+        return min >= 24 * 60 ? LocalTime.MAX.withSecond(0).withNano(0) : LocalTime.of(min / 60, min % 60);
+    }
+    
+    /**
+     * Intervalo libre [inicio, fin)
+     */
+    public static final class Franja {
+        private final LocalTime inicio;
+        private final LocalTime fin;
+        
+        public Franja(LocalTime inicio, LocalTime fin) {
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+        
+        public LocalTime getInicio() {
+            return inicio;
+        }
+        
+        public LocalTime getFin() {
+            return fin;
+        }
+        
+        @Override
+        public String toString() {
+            return inicio + "-" + fin;
+        }
+    }
+    
+    private static final class Datos {
+        // Lecturas sin bloqueo: cada long[] se reemplaza completo, nunca se modifica
+        final Map<Long, long[]> ocupacion = new ConcurrentHashMap<>();
+        // Estado para recalcular (protegido por la instancia)
+        final Map<Integer, Entrada> entradas = new HashMap<>();
+        final Map<Long, Set<Integer>> horariosPorClave = new HashMap<>();
+    }
+    
+    private static final class Entrada {
+        final int docenteId;
+        final int aulaId;
+        final int seccion;
+        final int dia;
+        final int inicio;
+        final int fin;
+        
+        Entrada(int docenteId, int aulaId, int seccion, int dia, int inicio, int fin) {
+            this.docenteId = docenteId;
+            this.aulaId = aulaId;
+            this.seccion = seccion;
+            this.dia = dia;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+    }
+}
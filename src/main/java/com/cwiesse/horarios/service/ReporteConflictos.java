@@ -0,0 +1,103 @@
+package com.cwiesse.horarios.service;
+
+import com.cwiesse.horarios.model.Horario;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de validar un lote de horarios: filas inválidas y todos los
+ * choques encontrados (dentro del lote o contra los horarios existentes).
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class ReporteConflictos {
+    
+    public enum Tipo {
+        DOCENTE, AULA, SECCION
+    }
+    
+    private final List<Conflicto> conflictos = new ArrayList<>();
+    private final List<String> errores = new ArrayList<>();
+    
+    void agregarConflicto(Conflicto conflicto) {
+        conflictos.add(conflicto);
+    }
+    
+    void agregarError(int fila, String mensaje) {
+        errores.add("Fila " + (fila + 1) + ": " + mensaje);
+    }
+    
+    public List<Conflicto> getConflictos() {
+        return Collections.unmodifiableList(conflictos);
+    }
+    
+    /**
+     * Filas que no se pudieron validar (datos incompletos u horas inválidas)
+     */
+    public List<String> getErrores() {
+        return Collections.unmodifiableList(errores);
+    }
+    
+    public boolean isValido() {
+        return conflictos.isEmpty() && errores.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        return "ReporteConflictos{conflictos=" + conflictos.size() + ", errores=" + errores.size() + "}";
+    }
+    
+    /**
+     * Choque entre dos horarios. La fila es la posición en el lote
+     * (0 en adelante) o -1 si el horario ya existía.
+     */
+    public static class Conflicto {
+        
+        private final Tipo tipo;
+        private final Horario horario;
+        private final int fila;
+        private final Horario otro;
+        private final int filaOtro;
+        
+        Conflicto(Tipo tipo, Horario horario, int fila, Horario otro, int filaOtro) {
+            this.tipo = tipo;
+            this.horario = horario;
+            this.fila = fila;
+            this.otro = otro;
+            this.filaOtro = filaOtro;
+        }
+        
+        public Tipo getTipo() {
+            return tipo;
+        }
+        
+        public Horario getHorario() {
+            return horario;
+        }
+        
+        public int getFila() {
+            return fila;
+        }
+        
+        public Horario getOtro() {
+            return otro;
+        }
+        
+        public int getFilaOtro() {
+            return filaOtro;
+        }
+        
+        public boolean isContraExistente() {
+            return filaOtro < 0;
+        }
+        
+        @Override
+        public String toString() {
+            return tipo + ": fila " + (fila + 1) + " con " + (filaOtro < 0 ? "horario " + otro.getId() : "fila " + (filaOtro + 1))
+                   + " (" + otro.getDia() + " " + otro.getHoraInicio() + "-" + otro.getHoraFin() + ")";
+        }
+    }
+}
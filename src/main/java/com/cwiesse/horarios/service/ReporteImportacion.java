@@ -0,0 +1,78 @@
+package com.cwiesse.horarios.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de una importación desde Excel: filas leídas, insertadas y
+ * errores por fila (se guardan los primeros MAX_ERRORES mensajes).
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class ReporteImportacion {
+    
+    private static final int MAX_ERRORES = 1000;
+    
+    private final String tipo;
+    private int filasLeidas;
+    private int insertadas;
+    private int totalErrores;
+    private final List<String> errores = new ArrayList<>();
+    
+    public ReporteImportacion(String tipo) {
+        this.tipo = tipo;
+    }
+    
+    void filaLeida() {
+        filasLeidas++;
+    }
+    
+    void sumarInsertadas(int cantidad) {
+        insertadas += cantidad;
+    }
+    
+    /**
+     * @param fila número de fila en la hoja (desde 1)
+     */
+    void agregarError(int fila, String mensaje) {
+        totalErrores++;
+        if (errores.size() < MAX_ERRORES) {
+            errores.add(fila > 0 ? "Fila " + fila + ": " + mensaje : mensaje);
+        }
+    }
+    
+    public String getTipo() {
+        return tipo;
+    }
+    
+    public int getFilasLeidas() {
+        return filasLeidas;
+    }
+    
+    public int getInsertadas() {
+        return insertadas;
+    }
+    
+    public int getTotalErrores() {
+        return totalErrores;
+    }
+    
+    public List<String> getErrores() {
+        return Collections.unmodifiableList(errores);
+    }
+    
+    /**
+     * true si hubo más errores de los que se guardaron
+     */
+    public boolean isErroresTruncados() {
+        return totalErrores > errores.size();
+    }
+    
+    @Override
+    public String toString() {
+        return "ReporteImportacion{tipo=" + tipo + ", leidas=" + filasLeidas + ", insertadas=" + insertadas
+               + ", errores=" + totalErrores + "}";
+    }
+}
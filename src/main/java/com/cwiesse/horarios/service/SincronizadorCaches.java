@@ -0,0 +1,132 @@
+package com.cwiesse.horarios.service;
+
+import com.cwiesse.horarios.dao.impl.CachingHorarioDao;
+import com.cwiesse.horarios.dao.impl.CambiosCatalogo;
+import com.cwiesse.horarios.dao.impl.DaoFactory;
+import com.cwiesse.horarios.dao.impl.VersionDatos;
+import com.cwiesse.horarios.model.Aula;
+import com.cwiesse.horarios.model.Curso;
+import com.cwiesse.horarios.model.Docente;
+import com.cwiesse.horarios.util.DBConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantiene las cachés de este nodo al día con los cambios hechos en otros
+ * nodos, sin un broker de mensajes: cada pocos segundos compara las versiones
+ * de datos_version con las conocidas (VersionDatos) e invalida solo las
+ * cachés de las entidades que cambiaron.
+ * 
+ * Un cambio de docente, aula o curso se avisa a los CatalogoListener; un
+ * cambio de horarios recarga con una sola consulta el índice de choques, la
+ * ocupación semanal y la vista de horarios, y vacía la caché de horarios.
+ * La versión se da por conocida solo después de aplicar el cambio: si la
+ * recarga falla, se conserva lo cargado y se reintenta en la revisión siguiente.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class SincronizadorCaches {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SincronizadorCaches.class);
+    private static final Map<String, Class<?>> CATALOGOS = Map.of(
+            VersionDatos.DOCENTE, Docente.class,
+            VersionDatos.AULA, Aula.class,
+            VersionDatos.CURSO, Curso.class);
+    
+    private final DBConnection dbConnection;
+    private final ScheduledExecutorService revisor;
+    
+    public SincronizadorCaches(DBConnection dbConnection) {
+        this.dbConnection = dbConnection;
+        this.revisor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "horarios-sincronizador-caches");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+    
+    /**
+     * Lee las versiones actuales como punto de partida y empieza la revisión.
+     * Debe llamarse antes de cargar las cachés, para no perder los cambios
+     * hechos entre la carga y la primera revisión.
+     * 
+     * @param intervaloSegundos segundos entre revisiones
+     */
+    public void iniciar(int intervaloSegundos) {
+        revisar();
+        revisor.scheduleWithFixedDelay(this::revisar, intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+        logger.info("Sincronización de cachés entre nodos cada {} s", intervaloSegundos);
+    }
+    
+    /**
+     * Detiene la revisión periódica
+     */
+    public void detener() {
+        revisor.shutdownNow();
+    }
+    
+    /**
+     * Compara las versiones e invalida las cachés de las entidades que
+     * cambiaron en otro nodo
+     */
+    void revisar() {
+        Map<String, VersionDatos.Version> versiones;
+        Connection conn = null;
+        try {
+            // Misma fuente que las recargas: con réplica, no se invalida antes
+            // de que el cambio haya llegado a ella
+            conn = dbConnection.getReadConnection();
+            versiones = VersionDatos.leer(conn);
+        } catch (SQLException e) {
+            logger.error("Error al leer versiones de datos: {}", e.getMessage());
+            return;
+        } finally {
+            dbConnection.closeConnection(conn);
+        }
+        
+        try {
+            for (Map.Entry<String, VersionDatos.Version> version : versiones.entrySet()) {
+                if (!VersionDatos.esPosterior(version.getKey(), version.getValue())) {
+                    continue;
+                }
+                logger.info("Cambios de {} en otro nodo (versión {}), se invalidan las cachés",
+                            version.getKey(), version.getValue().getNumero());
+                
+                Class<?> catalogo = CATALOGOS.get(version.getKey());
+                if (catalogo != null) {
+                    CambiosCatalogo.notificarExterno(catalogo);
+                } else if (VersionDatos.HORARIO.equals(version.getKey()) && !recargarHorarios()) {
+                    continue;
+                }
+                VersionDatos.actualizar(version.getKey(), version.getValue());
+            }
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría las revisiones siguientes
+            logger.error("Error al invalidar cachés: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * @return false si no se pudieron leer los horarios: se conserva lo cargado
+     */
+    private boolean recargarHorarios() {
+        CachingHorarioDao horarioCache = DaoFactory.getHorarioCache();
+        if (horarioCache != null) {
+            horarioCache.invalidar();
+        }
+        
+        if (!CargaHorarios.getInstance().cargar()) {
+            logger.warn("No se pudieron recargar los horarios; se reintenta en la próxima revisión");
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,282 @@
+package com.cwiesse.horarios.service;
+
+import com.cwiesse.horarios.dao.CursoDao;
+import com.cwiesse.horarios.dao.HorarioDao;
+import com.cwiesse.horarios.dao.impl.CursoDaoImpl;
+import com.cwiesse.horarios.dao.impl.HorarioDaoImpl;
+import com.cwiesse.horarios.model.Curso;
+import com.cwiesse.horarios.model.Horario;
+import com.cwiesse.horarios.service.ReporteConflictos.Conflicto;
+import com.cwiesse.horarios.service.ReporteConflictos.Tipo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Valida un lote completo de horarios (por ejemplo, al importar un periodo)
+ * en una sola pasada, sin consultas por fila.
+ * 
+ * Cada horario genera un intervalo por docente, aula y sección; todos se
+ * ordenan por (tipo, recurso, día, hora de inicio) y un barrido mantiene los
+ * intervalos activos del grupo: cada intervalo choca con los activos cuyo fin
+ * es mayor que su inicio. Costo O(n log n + choques). Se detectan los choques
+ * dentro del lote y contra los horarios existentes; los choques entre dos
+ * horarios existentes no se reportan.
+ * 
+ * Para validar varios lotes seguidos contra los mismos existentes (la
+ * importación por tramos), Existentes los ordena una sola vez y se mantiene
+ * ordenado al agregar lo insertado: cada lote ordena solo sus intervalos y
+ * los barre contra los grupos (recurso y día) que toca.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class ValidadorLoteHorarios {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ValidadorLoteHorarios.class);
+    
+    private final HorarioDao horarioDao;
+    private final CursoDao cursoDao;
+    
+    public ValidadorLoteHorarios() {
+        this.horarioDao = new HorarioDaoImpl();
+        this.cursoDao = new CursoDaoImpl();
+    }
+    
+    /**
+     * Valida el lote contra todos los horarios registrados (de la vista en
+     * memoria si está cargada). Un horario del lote con ID reemplaza al
+     * existente con ese ID.
+     */
+    public ReporteConflictos validar(List<Horario> lote) {
+        Map<Integer, Integer> secciones = new HashMap<>();
+        for (Curso curso : cursoDao.listarTodos()) {
+            secciones.put(curso.getId(), seccion(curso));
+        }
+        List<Horario> existentes = HorarioSnapshot.getInstance().actual()
+                .map(HorarioSnapshot.Vista::todos)
+                .orElseGet(horarioDao::listarTodos);
+        return validar(lote, existentes, secciones);
+    }
+    
+    /**
+     * Valida el lote contra los horarios existentes dados
+     * 
+     * @param secciones sección (nivel * 100 + grado) por ID de curso
+     */
+    public ReporteConflictos validar(List<Horario> lote, List<Horario> existentes,
+                                     Map<Integer, Integer> secciones) {
+        return validar(lote, new Existentes(existentes, secciones));
+    }
+    
+    /**
+     * Valida el lote contra los existentes ya ordenados: solo se ordenan los
+     * intervalos del lote, y cada grupo se mezcla con el mismo grupo de los
+     * existentes
+     */
+    public ReporteConflictos validar(List<Horario> lote, Existentes existentes) {
+        long inicio = System.nanoTime();
+        ReporteConflictos reporte = new ReporteConflictos();
+        List<Intervalo> nuevos = new ArrayList<>(lote.size() * 3);
+        
+        Set<Integer> reemplazados = new HashSet<>();
+        for (int i = 0; i < lote.size(); i++) {
+            Horario h = lote.get(i);
+            if (h.getDocenteId() == null || h.getAulaId() == null || h.getCursoId() == null
+                    || h.getDia() == null || h.getHoraInicio() == null || h.getHoraFin() == null) {
+                reporte.agregarError(i, "datos incompletos");
+                continue;
+            }
+            if (!h.getHoraInicio().isBefore(h.getHoraFin())) {
+                reporte.agregarError(i, "la hora de inicio debe ser menor que la hora de fin");
+                continue;
+            }
+            if (h.getId() != null) {
+                reemplazados.add(h.getId());
+            }
+            agregar(nuevos, h, i, existentes.secciones);
+        }
+        nuevos.sort(null);
+        
+        List<Intervalo> intervalos = new ArrayList<>(nuevos.size() * 2);
+        int desde = 0;
+        while (desde < nuevos.size()) {
+            int hasta = desde + 1;
+            while (hasta < nuevos.size() && nuevos.get(hasta).mismoGrupo(nuevos.get(desde))) {
+                hasta++;
+            }
+            List<Intervalo> grupo = existentes.grupos.getOrDefault(nuevos.get(desde).grupo(), List.of());
+            mezclar(grupo, nuevos.subList(desde, hasta), reemplazados, intervalos);
+            desde = hasta;
+        }
+        barrer(intervalos, reporte);
+        
+        logger.info("Lote de {} horarios validado contra {} existentes en {} ms: {}", lote.size(),
+                    existentes.cantidad, (System.nanoTime() - inicio) / 1_000_000, reporte);
+        return reporte;
+    }
+    
+    /**
+     * Mezcla por inicio un grupo de existentes y el mismo grupo del lote,
+     * ambos ordenados, omitiendo los existentes que el lote reemplaza
+     */
+    private static void mezclar(List<Intervalo> existentes, List<Intervalo> nuevos, Set<Integer> reemplazados,
+                                List<Intervalo> destino) {
+        int e = 0;
+        for (Intervalo nuevo : nuevos) {
+            while (e < existentes.size() && existentes.get(e).inicio <= nuevo.inicio) {
+                agregarExistente(existentes.get(e++), reemplazados, destino);
+            }
+            destino.add(nuevo);
+        }
+        while (e < existentes.size()) {
+            agregarExistente(existentes.get(e++), reemplazados, destino);
+        }
+    }
+    
+    private static void agregarExistente(Intervalo existente, Set<Integer> reemplazados, List<Intervalo> destino) {
+        if (!reemplazados.contains(existente.horario.getId())) {
+            destino.add(existente);
+        }
+    }
+    
+    private static void agregar(List<Intervalo> intervalos, Horario h, int fila, Map<Integer, Integer> secciones) {
+        int dia = h.getDia().ordinal();
+        int inicio = h.getHoraInicio().toSecondOfDay();
+        int fin = h.getHoraFin().toSecondOfDay();
+        intervalos.add(new Intervalo(Tipo.DOCENTE, h.getDocenteId(), dia, inicio, fin, h, fila));
+        intervalos.add(new Intervalo(Tipo.AULA, h.getAulaId(), dia, inicio, fin, h, fila));
+        
+        Integer seccion = h.getCurso() != null && h.getCurso().getNivel() != null
+                ? Integer.valueOf(seccion(h.getCurso())) : secciones.get(h.getCursoId());
+        if (seccion != null) {
+            intervalos.add(new Intervalo(Tipo.SECCION, seccion, dia, inicio, fin, h, fila));
+        }
+    }
+    
+    /**
+     * Barrido por grupo (tipo, recurso, día) con la lista de intervalos activos
+     */
+    private static void barrer(List<Intervalo> intervalos, ReporteConflictos reporte) {
+        List<Intervalo> activos = new ArrayList<>();
+        Intervalo anterior = null;
+        
+        for (Intervalo actual : intervalos) {
+            if (anterior == null || !actual.mismoGrupo(anterior)) {
+                activos.clear();
+            } else {
+                activos.removeIf(a -> a.fin <= actual.inicio);
+            }
+            
+            for (Intervalo activo : activos) {
+                // Solo interesan los choques en los que participa el lote
+                if (actual.fila >= 0) {
+                    reporte.agregarConflicto(new Conflicto(actual.tipo, actual.horario, actual.fila,
+                                                           activo.horario, activo.fila));
+                } else if (activo.fila >= 0) {
+                    reporte.agregarConflicto(new Conflicto(activo.tipo, activo.horario, activo.fila,
+                                                           actual.horario, actual.fila));
+                }
+            }
+            
+            activos.add(actual);
+            anterior = actual;
+        }
+    }
+    
+    private static int seccion(Curso curso) {
+        return curso.getNivel().ordinal() * 100 + curso.getGrado();
+    }
+    
+    /**
+     * Intervalos de los horarios existentes por grupo (tipo, recurso, día),
+     * cada grupo ordenado por inicio. Se ordenan una vez al crearlo; agregar()
+     * inserta en su lugar, sin volver a ordenar.
+     */
+    public static final class Existentes {
+        
+        private final Map<Integer, Integer> secciones;
+        private final Map<Long, List<Intervalo>> grupos = new HashMap<>();
+        private int cantidad;
+        
+        /**
+         * @param secciones sección (nivel * 100 + grado) por ID de curso
+         */
+        public Existentes(List<Horario> horarios, Map<Integer, Integer> secciones) {
+            this.secciones = secciones;
+            List<Intervalo> intervalos = new ArrayList<>(horarios.size() * 3);
+            for (Horario h : horarios) {
+                ValidadorLoteHorarios.agregar(intervalos, h, -1, secciones);
+            }
+            intervalos.sort(null);
+            for (Intervalo intervalo : intervalos) {
+                grupos.computeIfAbsent(intervalo.grupo(), k -> new ArrayList<>()).add(intervalo);
+            }
+            cantidad = horarios.size();
+        }
+        
+        /**
+         * Agrega un horario (por ejemplo, recién insertado) manteniendo el orden
+         */
+        public void agregar(Horario horario) {
+            List<Intervalo> intervalos = new ArrayList<>(3);
+            ValidadorLoteHorarios.agregar(intervalos, horario, -1, secciones);
+            for (Intervalo intervalo : intervalos) {
+                List<Intervalo> grupo = grupos.computeIfAbsent(intervalo.grupo(), k -> new ArrayList<>());
+                int pos = Collections.binarySearch(grupo, intervalo);
+                grupo.add(pos < 0 ? -pos - 1 : pos, intervalo);
+            }
+            cantidad++;
+        }
+    }
+    
+    private static final class Intervalo implements Comparable<Intervalo> {
+        final Tipo tipo;
+        final int recurso;
+        final int dia;
+        final int inicio;
+        final int fin;
+        final Horario horario;
+        final int fila;
+        
+        Intervalo(Tipo tipo, int recurso, int dia, int inicio, int fin, Horario horario, int fila) {
+            this.tipo = tipo;
+            this.recurso = recurso;
+            this.dia = dia;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.horario = horario;
+            this.fila = fila;
+        }
+        
+        boolean mismoGrupo(Intervalo otro) {
+            return tipo == otro.tipo && recurso == otro.recurso && dia == otro.dia;
+        }
+        
+        long grupo() {
+            return ((long) tipo.ordinal() << 40) | ((long) recurso << 8) | dia;
+        }
+        
+        @Override
+        public int compareTo(Intervalo o) {
+            int c = tipo.compareTo(o.tipo);
+            if (c == 0) {
+                c = Integer.compare(recurso, o.recurso);
+            }
+            if (c == 0) {
+                c = Integer.compare(dia, o.dia);
+            }
+            if (c == 0) {
+                c = Integer.compare(inicio, o.inicio);
+            }
+            return c;
+        }
+    }
+}
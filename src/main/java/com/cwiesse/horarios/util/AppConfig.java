@@ -0,0 +1,94 @@
+package com.cwiesse.horarios.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Properties;
+
+/**
+ * Acceso a los parámetros de la aplicación en application.properties.
+ * El archivo se lee una sola vez; los valores ausentes o inválidos toman el
+ * valor por defecto indicado.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public final class AppConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AppConfig.class);
+    private static final Properties PROPS = cargar();
+    
+    private AppConfig() {
+    }
+    
+    private static Properties cargar() {
+        Properties props = new Properties();
+        try (InputStream input = AppConfig.class.getClassLoader()
+                .getResourceAsStream("application.properties")) {
+            if (input != null) {
+                props.load(input);
+            } else {
+                logger.error("No se encontró application.properties");
+            }
+        } catch (IOException e) {
+            logger.error("Error al cargar application.properties: {}", e.getMessage());
+        }
+        return props;
+    }
+    
+    public static String get(String clave, String porDefecto) {
+        String valor = PROPS.getProperty(clave);
+        return valor == null || valor.trim().isEmpty() ? porDefecto : valor.trim();
+    }
+    
+    public static int getEntero(String clave, int porDefecto) {
+        String valor = get(clave, null);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            logger.warn("Valor inválido para {}: {}", clave, valor);
+            return porDefecto;
+        }
+    }
+    
+    public static long getLargo(String clave, long porDefecto) {
+        String valor = get(clave, null);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            logger.warn("Valor inválido para {}: {}", clave, valor);
+            return porDefecto;
+        }
+    }
+    
+    public static boolean getBooleano(String clave, boolean porDefecto) {
+        String valor = get(clave, null);
+        return valor == null ? porDefecto : Boolean.parseBoolean(valor);
+    }
+    
+    /**
+     * Hora en formato HH:mm
+     */
+    public static LocalTime getHora(String clave, LocalTime porDefecto) {
+        String valor = get(clave, null);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return LocalTime.parse(valor);
+        } catch (DateTimeParseException e) {
+            logger.warn("Hora inválida para {}: {}", clave, valor);
+            return porDefecto;
+        }
+    }
+}
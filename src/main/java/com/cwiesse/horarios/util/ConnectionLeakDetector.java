@@ -0,0 +1,223 @@
+package com.cwiesse.horarios.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detector de fugas de recursos JDBC.
+ * Envuelve cada conexión prestada para registrar las sentencias que se crean
+ * sobre ella; al devolverla cierra y contabiliza las que quedaron abiertas.
+ * Además revisa periódicamente las conexiones prestadas y registra la traza
+ * de quien la obtuvo cuando se retiene más tiempo que el umbral configurado.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class ConnectionLeakDetector {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionLeakDetector.class);
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    
+    private final long umbralMs;
+    private final Set<ConexionRastreada> prestadas = ConcurrentHashMap.newKeySet();
+    private final Set<String> origenesReportados = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sentenciasNoCerradas = new AtomicLong();
+    private final AtomicLong conexionesRetenidas = new AtomicLong();
+    private final ScheduledExecutorService revisor;
+    
+    /**
+     * @param umbralMs tiempo máximo de retención antes de reportar la conexión (0 desactiva la revisión)
+     */
+    public ConnectionLeakDetector(long umbralMs) {
+        this.umbralMs = umbralMs;
+        
+        if (umbralMs > 0) {
+            this.revisor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "horarios-leak-detector");
+                t.setDaemon(true);
+                return t;
+            });
+            long periodo = Math.max(1000, umbralMs / 2);
+            revisor.scheduleAtFixedRate(this::revisarRetenidas, periodo, periodo, TimeUnit.MILLISECONDS);
+        } else {
+            this.revisor = null;
+        }
+    }
+    
+    /**
+     * Envuelve una conexión recién prestada por el pool
+     */
+    public Connection envolver(Connection conn) {
+        ConexionRastreada rastreada = new ConexionRastreada(conn, origenLlamada(),
+                umbralMs > 0 ? new Throwable("Conexión obtenida aquí") : null);
+        prestadas.add(rastreada);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, rastreada);
+    }
+    
+    /**
+     * Número de conexiones prestadas que aún no se devolvieron
+     */
+    public int getPrestadas() {
+        return prestadas.size();
+    }
+    
+    public long getSentenciasNoCerradas() {
+        return sentenciasNoCerradas.get();
+    }
+    
+    public long getConexionesRetenidas() {
+        return conexionesRetenidas.get();
+    }
+    
+    /**
+     * Detiene la revisión periódica
+     */
+    public void detener() {
+        if (revisor != null) {
+            revisor.shutdownNow();
+        }
+    }
+    
+    private void revisarRetenidas() {
+        long ahora = System.currentTimeMillis();
+        for (ConexionRastreada c : prestadas) {
+            if (!c.reportada && ahora - c.prestadaEn > umbralMs) {
+                c.reportada = true;
+                conexionesRetenidas.incrementAndGet();
+                logger.warn("Conexión retenida {} ms (umbral {} ms) por {}",
+                            ahora - c.prestadaEn, umbralMs, c.origen, c.traza);
+            }
+        }
+    }
+    
+    private void devuelta(ConexionRastreada c) {
+        prestadas.remove(c);
+        
+        int abiertas = 0;
+        for (Statement stmt : c.sentencias) {
+            try {
+                if (!stmt.isClosed()) {
+                    abiertas++;
+                    ResultSet rs = stmt.getResultSet();
+                    if (rs != null && !rs.isClosed()) {
+                        abiertas++;
+                    }
+                    stmt.close();
+                }
+            } catch (SQLException e) {
+                logger.debug("No se pudo cerrar sentencia huérfana: {}", e.getMessage());
+            }
+        }
+        
+        if (abiertas > 0) {
+            sentenciasNoCerradas.addAndGet(abiertas);
+            // Un aviso por punto de origen para no inundar el log
+            if (origenesReportados.add(c.origen)) {
+                logger.warn("{} sentencia(s)/ResultSet sin cerrar al devolver la conexión obtenida en {}",
+                            abiertas, c.origen);
+            }
+        }
+    }
+    
+    /**
+     * Primer marco de la pila fuera de la capa de conexión y de JdbcTemplate
+     * (normalmente el método DAO)
+     */
+    private static String origenLlamada() {
+        return WALKER.walk(frames -> frames
+                .filter(f -> !f.getClassName().startsWith("com.cwiesse.horarios.util.")
+                          && !f.getClassName().startsWith("com.cwiesse.horarios.dao.jdbc."))
+                .findFirst()
+                .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse("desconocido"));
+    }
+    
+    /**
+     * Manejador del proxy de Connection: registra las sentencias creadas y
+     * notifica al detector cuando la conexión se devuelve.
+     */
+    private final class ConexionRastreada implements InvocationHandler {
+        
+        private final Connection delegada;
+        private final String origen;
+        private final Throwable traza;
+        private final long prestadaEn = System.currentTimeMillis();
+        private final List<Statement> sentencias = new ArrayList<>(4);
+        private volatile boolean reportada;
+        private boolean cerrada;
+        
+        ConexionRastreada(Connection delegada, String origen, Throwable traza) {
+            this.delegada = delegada;
+            this.origen = origen;
+            this.traza = traza;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!cerrada) {
+                        cerrada = true;
+                        devuelta(this);
+                        delegada.close();
+                    }
+                    return null;
+                case "isClosed":
+                    return cerrada || delegada.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionRastreada[" + origen + "] " + delegada;
+                default:
+                    break;
+            }
+            
+            if (cerrada) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+            
+            Object resultado;
+            try {
+                resultado = method.invoke(delegada, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            
+            if (resultado instanceof Statement) {
+                // Se descartan las ya cerradas: en una conexión de larga vida (UnitOfWork,
+                // importación por lotes) la lista solo guarda las que siguen abiertas
+                sentencias.removeIf(ConnectionLeakDetector::estaCerrada);
+                sentencias.add((Statement) resultado);
+            }
+            return resultado;
+        }
+    }
+    
+    private static boolean estaCerrada(Statement stmt) {
+        try {
+            return stmt.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package com.cwiesse.horarios.util;
 
-import java.io.IOException;
-import java.io.InputStream;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Clase Singleton para gestionar la conexión a la base de datos MySQL.
- * Lee la configuración desde application.properties
+ * Lee la configuración de application.properties con AppConfig. Si db.jndi.enabled=true
+ * usa el DataSource del contenedor (java:comp/env/jdbc/horarios, declarado en
+ * META-INF/context.xml); si la búsqueda falla, crea su propio pool HikariCP.
+ * Todos los DAO obtienen sus conexiones a través de esta clase, que las
+ * envuelve con un detector de fugas y mide la latencia de cada préstamo.
+ * Si se configura db.read.url, las consultas de solo lectura pueden pedirse
+ * con getReadConnection() y se enrutan a la réplica de lectura.
  * 
  * @author Carlos Wiesse
  * @version 1.0
@@ -19,16 +28,63 @@ import org.slf4j.LoggerFactory;
 public class DBConnection {
     
     private static final Logger logger = LoggerFactory.getLogger(DBConnection.class);
-    private static DBConnection instance;
+    private static volatile DBConnection instance;
     
     private String url;
     private String username;
     private String password;
     private String driver;
     
+    // Parámetros del pool
+    private int poolMinSize = 5;
+    private int poolMaxSize = 20;
+    private long borrowTimeoutMs = 5000;
+    private long validationTimeoutMs = 3000;
+    private long idleTimeoutMs = 600000;
+    private long maxLifetimeMs = 1800000;
+    
+    // DataSource JNDI administrado por el contenedor
+    private boolean jndiEnabled = false;
+    private String jndiName = "java:comp/env/jdbc/horarios";
+    
+    private DataSource dataSource;
+    private HikariDataSource pool;
+    
+    // Réplica de lectura (opcional)
+    private String readUrl;
+    private String readUsername;
+    private String readPassword;
+    private long readBorrowTimeoutMs = 1000;
+    private long readRetryAfterMs = 30000;
+    private HikariDataSource readPool;
+    private volatile long replicaNoDisponibleHasta;
+    private final AtomicLong lecturasDesviadas = new AtomicLong();
+    
+    // Instrumentación
+    private long leakThresholdMs = 30000;
+    private ConnectionLeakDetector leakDetector;
+    private final LatencyRecorder latenciaPrestamo = new LatencyRecorder(2048);
+    private final LatencyRecorder latenciaPrestamoLectura = new LatencyRecorder(2048);
+    
+    // Bloqueos con nombre para guardados concurrentes
+    private String lockProviderTipo = "mysql";
+    private long lockTimeoutMs = 5000;
+    private LockProvider lockProvider;
+    
+    // Filas por executeBatch en las operaciones por lote de los DAO
+    private int tamanoLote = 500;
+    
     // Constructor privado (Singleton)
     private DBConnection() {
         cargarConfiguracion();
+        if (!jndiEnabled || !buscarDataSourceJndi()) {
+            inicializarPool();
+        }
+        if (readUrl != null) {
+            inicializarPoolLectura();
+        }
+        this.leakDetector = new ConnectionLeakDetector(leakThresholdMs);
+        this.lockProvider = crearLockProvider();
     }
     
     /**
@@ -46,48 +102,158 @@ public class DBConnection {
     }
     
     /**
-     * Carga la configuración desde application.properties
+     * Carga la configuración desde application.properties (vía AppConfig)
      */
     private void cargarConfiguracion() {
-        Properties props = new Properties();
-        try (InputStream input = getClass().getClassLoader()
-                .getResourceAsStream("application.properties")) {
-            
-            if (input == null) {
-                logger.error("No se encontró application.properties");
-                // Configuración por defecto
-                this.url = "jdbc:mysql://localhost:3306/horarios_cwiesse?useSSL=false&serverTimezone=America/Lima";
-                this.username = "root";
-                this.password = "";
-                this.driver = "com.mysql.cj.jdbc.Driver";
-                return;
-            }
-            
-            props.load(input);
-            this.url = props.getProperty("db.url");
-            this.username = props.getProperty("db.username");
-            this.password = props.getProperty("db.password");
-            this.driver = props.getProperty("db.driver", "com.mysql.cj.jdbc.Driver");
-            
-            logger.info("Configuración de BD cargada correctamente");
-            
-        } catch (IOException e) {
-            logger.error("Error al cargar application.properties: {}", e.getMessage());
+        this.url = AppConfig.get("db.url",
+                "jdbc:mysql://localhost:3306/horarios_cwiesse?useSSL=false&serverTimezone=America/Lima");
+        this.username = AppConfig.get("db.username", "root");
+        this.password = AppConfig.get("db.password", "");
+        this.driver = AppConfig.get("db.driver", "com.mysql.cj.jdbc.Driver");
+        
+        this.poolMinSize = AppConfig.getEntero("db.pool.minSize", poolMinSize);
+        this.poolMaxSize = AppConfig.getEntero("db.pool.maxSize", poolMaxSize);
+        this.borrowTimeoutMs = AppConfig.getLargo("db.pool.borrowTimeoutMs", borrowTimeoutMs);
+        this.validationTimeoutMs = AppConfig.getLargo("db.pool.validationTimeoutMs", validationTimeoutMs);
+        this.idleTimeoutMs = AppConfig.getLargo("db.pool.idleTimeoutMs", idleTimeoutMs);
+        this.maxLifetimeMs = AppConfig.getLargo("db.pool.maxLifetimeMs", maxLifetimeMs);
+        this.leakThresholdMs = AppConfig.getLargo("db.leak.thresholdMs", leakThresholdMs);
+        this.lockProviderTipo = AppConfig.get("db.lock.provider", lockProviderTipo);
+        this.lockTimeoutMs = AppConfig.getLargo("db.lock.timeoutMs", lockTimeoutMs);
+        this.tamanoLote = Math.max(1, AppConfig.getEntero("db.batch.size", tamanoLote));
+        
+        this.jndiEnabled = AppConfig.getBooleano("db.jndi.enabled", false);
+        this.jndiName = AppConfig.get("db.jndi.name", jndiName);
+        
+        this.readUrl = AppConfig.get("db.read.url", null);
+        if (readUrl != null) {
+            this.readUsername = AppConfig.get("db.read.username", username);
+            this.readPassword = AppConfig.get("db.read.password", password);
+            this.readBorrowTimeoutMs = AppConfig.getLargo("db.read.borrowTimeoutMs", readBorrowTimeoutMs);
+            this.readRetryAfterMs = AppConfig.getLargo("db.read.retryAfterMs", readRetryAfterMs);
+        }
+        
+        logger.info("Configuración de BD cargada");
+    }
+    
+    /**
+     * Busca el DataSource del contenedor y comprueba que entregue conexiones.
+     * 
+     * @return true si se usará el DataSource JNDI, false para usar el pool propio
+     */
+    private boolean buscarDataSourceJndi() {
+        DataSource ds;
+        try {
+            ds = (DataSource) new InitialContext().lookup(jndiName);
+        } catch (NamingException | ClassCastException e) {
+            logger.warn("DataSource JNDI {} no disponible ({}), se usará el pool propio",
+                        jndiName, e.getMessage());
+            return false;
+        }
+        
+        // El recurso puede existir pero estar mal configurado (driver, URL...)
+        try (Connection conn = ds.getConnection()) {
+            logger.debug("Conexión de prueba JNDI válida: {}", conn.isValid(2));
+        } catch (SQLException e) {
+            logger.warn("DataSource JNDI {} no entrega conexiones ({}), se usará el pool propio",
+                        jndiName, e.getMessage());
+            return false;
         }
+        
+        this.dataSource = ds;
+        logger.info("Usando DataSource JNDI {}", jndiName);
+        return true;
+    }
+    
+    /**
+     * Crea el pool de conexiones con la configuración cargada.
+     * Las conexiones se validan al ser prestadas, las ociosas se retiran tras
+     * idleTimeoutMs y ninguna conexión física vive más de maxLifetimeMs.
+     */
+    private void inicializarPool() {
+        HikariConfig config = crearConfiguracionPool("horarios-pool", url, username, password, borrowTimeoutMs);
+        this.pool = new HikariDataSource(config);
+        this.dataSource = pool;
+        logger.info("Pool de conexiones iniciado (min={}, max={})",
+                    config.getMinimumIdle(), poolMaxSize);
     }
     
     /**
-     * Obtiene una conexión a la base de datos
+     * Crea el pool de la réplica de lectura, con el mismo dimensionamiento que
+     * el principal y un tiempo de espera corto para desviar pronto al primario.
+     */
+    private void inicializarPoolLectura() {
+        HikariConfig config = crearConfiguracionPool("horarios-pool-lectura", readUrl,
+                                                     readUsername, readPassword, readBorrowTimeoutMs);
+        config.setReadOnly(true);
+        this.readPool = new HikariDataSource(config);
+        logger.info("Pool de réplica de lectura iniciado ({})", readUrl);
+    }
+    
+    /**
+     * Bloqueos de MySQL (válidos entre varios nodos) o en memoria (un solo nodo)
+     */
+    private LockProvider crearLockProvider() {
+        if ("memoria".equalsIgnoreCase(lockProviderTipo)) {
+            logger.info("Bloqueos de guardado en memoria (timeout {} ms)", lockTimeoutMs);
+            return new LocalLockProvider(lockTimeoutMs);
+        }
+        logger.info("Bloqueos de guardado con GET_LOCK de MySQL (timeout {} ms)", lockTimeoutMs);
+        return new MySqlLockProvider(lockTimeoutMs);
+    }
+    
+    private HikariConfig crearConfiguracionPool(String nombre, String jdbcUrl, String usuario,
+                                                String clave, long esperaMs) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(nombre);
+        config.setDriverClassName(driver);
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(usuario);
+        config.setPassword(clave);
+        
+        config.setMinimumIdle(Math.min(poolMinSize, poolMaxSize));
+        config.setMaximumPoolSize(poolMaxSize);
+        config.setConnectionTimeout(esperaMs);
+        config.setValidationTimeout(validationTimeoutMs);
+        config.setIdleTimeout(idleTimeoutMs);
+        config.setMaxLifetime(maxLifetimeMs);
+        
+        // No fallar al desplegar si MySQL aún no está disponible
+        config.setInitializationFailTimeout(-1);
+        
+        // Caché de sentencias preparadas del driver (se reutilizan por conexión)
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        // executeBatch envía el lote como un INSERT multi-fila (un viaje por lote)
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        
+        return config;
+    }
+    
+    /**
+     * Obtiene una conexión del pool (propio o JNDI). Si no hay conexiones
+     * libres espera hasta el tiempo configurado antes de lanzar SQLException.
+     * Si hay una UnitOfWork activa en el hilo, devuelve su conexión compartida.
      */
     public Connection getConnection() throws SQLException {
+        UnitOfWork uow = UnitOfWork.actual().orElse(null);
+        if (uow != null) {
+            return uow.getConexion();
+        }
+        return obtenerConexionFisica();
+    }
+    
+    /**
+     * Presta una conexión del pool principal sin considerar la UnitOfWork
+     */
+    Connection obtenerConexionFisica() throws SQLException {
+        long inicio = System.nanoTime();
         try {
-            Class.forName(driver);
-            Connection conn = DriverManager.getConnection(url, username, password);
-            logger.debug("Conexión a BD establecida");
-            return conn;
-        } catch (ClassNotFoundException e) {
-            logger.error("Driver MySQL no encontrado: {}", e.getMessage());
-            throw new SQLException("Driver no encontrado", e);
+            Connection conn = dataSource.getConnection();
+            latenciaPrestamo.registrar(System.nanoTime() - inicio);
+            logger.debug("Conexión obtenida del pool");
+            return leakDetector.envolver(conn);
         } catch (SQLException e) {
             logger.error("Error al conectar con BD: {}", e.getMessage());
             throw e;
@@ -95,19 +261,135 @@ public class DBConnection {
     }
     
     /**
-     * Cierra una conexión de forma segura
+     * Obtiene una conexión para consultas de solo lectura (listados).
+     * Usa la réplica si está configurada; si falla, desvía al primario y no
+     * vuelve a intentar la réplica hasta pasados db.read.retryAfterMs.
+     * Las escrituras y las validaciones de choque deben usar getConnection().
+     * Dentro de una UnitOfWork se usa su conexión, para leer lo ya escrito.
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (UnitOfWork.actual().isPresent()) {
+            return getConnection();
+        }
+        if (readPool == null || System.currentTimeMillis() < replicaNoDisponibleHasta) {
+            return getConnection();
+        }
+        
+        long inicio = System.nanoTime();
+        try {
+            Connection conn = readPool.getConnection();
+            latenciaPrestamoLectura.registrar(System.nanoTime() - inicio);
+            logger.debug("Conexión obtenida de la réplica de lectura");
+            return leakDetector.envolver(conn);
+        } catch (SQLException e) {
+            replicaNoDisponibleHasta = System.currentTimeMillis() + readRetryAfterMs;
+            lecturasDesviadas.incrementAndGet();
+            logger.warn("Réplica de lectura no disponible ({}), se usa el primario por {} ms",
+                        e.getMessage(), readRetryAfterMs);
+            return getConnection();
+        }
+    }
+    
+    /**
+     * Indica si hay una réplica de lectura configurada
+     */
+    public boolean hasReadReplica() {
+        return readPool != null;
+    }
+    
+    /**
+     * Número de veces que una lectura se desvió al primario por fallo de la réplica
+     */
+    public long getLecturasDesviadas() {
+        return lecturasDesviadas.get();
+    }
+    
+    /**
+     * Devuelve el DataSource subyacente
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+    
+    /**
+     * Indica si las conexiones provienen del DataSource JNDI del contenedor
+     */
+    public boolean isJndi() {
+        return pool == null;
+    }
+    
+    /**
+     * Devuelve una conexión al pool de forma segura
      */
     public void closeConnection(Connection conn) {
         if (conn != null) {
             try {
                 conn.close();
-                logger.debug("Conexión a BD cerrada");
+                logger.debug("Conexión devuelta al pool");
             } catch (SQLException e) {
                 logger.error("Error al cerrar conexión: {}", e.getMessage());
             }
         }
     }
     
+    /**
+     * Proveedor de bloqueos configurado con db.lock.provider
+     */
+    public LockProvider getLockProvider() {
+        return lockProvider;
+    }
+    
+    /**
+     * Filas por executeBatch en insertarLote/actualizarLote/eliminarLote (db.batch.size)
+     */
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+    
+    /**
+     * Contadores actuales del pool: activas, ociosas, hilos en espera,
+     * latencia de préstamo (p50/p99) y recursos no cerrados
+     */
+    public PoolStats getEstadisticas() {
+        int activas = leakDetector.getPrestadas();
+        int ociosas = -1;
+        int enEspera = -1;
+        int total = -1;
+        
+        if (pool != null && pool.getHikariPoolMXBean() != null) {
+            HikariPoolMXBean mx = pool.getHikariPoolMXBean();
+            activas = mx.getActiveConnections();
+            ociosas = mx.getIdleConnections();
+            enEspera = mx.getThreadsAwaitingConnection();
+            total = mx.getTotalConnections();
+        }
+        
+        return new PoolStats(activas, ociosas, enEspera, total,
+                             latenciaPrestamo.getTotal(),
+                             latenciaPrestamo.percentilMs(50),
+                             latenciaPrestamo.percentilMs(99),
+                             leakDetector.getSentenciasNoCerradas(),
+                             leakDetector.getConexionesRetenidas());
+    }
+    
+    /**
+     * Contadores del pool de la réplica de lectura, o null si no hay réplica.
+     * Los contadores de fugas son comunes a ambos pools.
+     */
+    public PoolStats getEstadisticasLectura() {
+        if (readPool == null || readPool.getHikariPoolMXBean() == null) {
+            return null;
+        }
+        HikariPoolMXBean mx = readPool.getHikariPoolMXBean();
+        return new PoolStats(mx.getActiveConnections(), mx.getIdleConnections(),
+                             mx.getThreadsAwaitingConnection(), mx.getTotalConnections(),
+                             latenciaPrestamoLectura.getTotal(),
+                             latenciaPrestamoLectura.percentilMs(50),
+                             latenciaPrestamoLectura.percentilMs(99),
+                             leakDetector.getSentenciasNoCerradas(),
+                             leakDetector.getConexionesRetenidas());
+    }
+    
     /**
      * Verifica si la conexión está funcionando
      */
@@ -119,4 +401,30 @@ public class DBConnection {
             return false;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Cierra el pool propio y todas sus conexiones físicas (al detener la aplicación).
+     * El DataSource JNDI lo administra el contenedor y no se cierra aquí.
+     */
+    public void cerrar() {
+        leakDetector.detener();
+        if (pool != null && !pool.isClosed()) {
+            pool.close();
+            logger.info("Pool de conexiones cerrado");
+        }
+        if (readPool != null && !readPool.isClosed()) {
+            readPool.close();
+            logger.info("Pool de réplica de lectura cerrado");
+        }
+    }
+    
+    /**
+     * Cierra el pool si la instancia ya fue creada
+     */
+    public static void shutdown() {
+        DBConnection actual = instance;
+        if (actual != null) {
+            actual.cerrar();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.cwiesse.horarios.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro de latencias con ventana circular de tamaño fijo.
+ * Guarda las últimas N muestras (en nanosegundos) y calcula percentiles
+ * sobre esa ventana, sin crecer en memoria.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class LatencyRecorder {
+    
+    private final long[] muestras;
+    private int siguiente;
+    private int cantidad;
+    private final AtomicLong total = new AtomicLong();
+    
+    public LatencyRecorder(int capacidad) {
+        this.muestras = new long[capacidad];
+    }
+    
+    /**
+     * Registra una muestra en nanosegundos
+     */
+    public synchronized void registrar(long nanos) {
+        muestras[siguiente] = nanos;
+        siguiente = (siguiente + 1) % muestras.length;
+        if (cantidad < muestras.length) {
+            cantidad++;
+        }
+        total.incrementAndGet();
+    }
+    
+    /**
+     * Número total de muestras registradas desde el inicio
+     */
+    public long getTotal() {
+        return total.get();
+    }
+    
+    /**
+     * Percentil (0-100) de la ventana actual, en milisegundos
+     */
+    public double percentilMs(double percentil) {
+        long[] copia;
+        synchronized (this) {
+            if (cantidad == 0) {
+                return 0;
+            }
+            copia = Arrays.copyOf(muestras, cantidad);
+        }
+        Arrays.sort(copia);
+        int indice = (int) Math.ceil(percentil / 100.0 * copia.length) - 1;
+        indice = Math.max(0, Math.min(indice, copia.length - 1));
+        return copia[indice] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,76 @@
+package com.cwiesse.horarios.util;
+
+import com.google.common.util.concurrent.Striped;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Bloqueos en memoria de la JVM (Striped de Guava).
+ * Solo protegen dentro de una instancia: para un único nodo o para pruebas.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class LocalLockProvider implements LockProvider {
+    
+    private final Striped<Lock> locks = Striped.lock(64);
+    private final long timeoutMs;
+    private final LatencyRecorder espera = new LatencyRecorder(1024);
+    private final AtomicLong tiemposAgotados = new AtomicLong();
+    
+    public LocalLockProvider(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+    
+    @Override
+    public Bloqueo adquirir(Connection conn, Collection<String> claves) throws SQLException {
+        long inicio = System.nanoTime();
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<Lock> tomados = new ArrayList<>(claves.size());
+        
+        try {
+            // bulkGet entrega los locks en un orden fijo
+            for (Lock lock : locks.bulkGet(claves)) {
+                if (!lock.tryLock(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    tiemposAgotados.incrementAndGet();
+                    liberar(tomados);
+                    throw new SQLTimeoutException("Tiempo de espera agotado para el bloqueo " + claves);
+                }
+                tomados.add(lock);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            liberar(tomados);
+            throw new SQLException("Interrumpido mientras esperaba el bloqueo " + claves, e);
+        } finally {
+            espera.registrar(System.nanoTime() - inicio);
+        }
+        
+        return () -> liberar(tomados);
+    }
+    
+    @Override
+    public LatencyRecorder getEspera() {
+        return espera;
+    }
+    
+    @Override
+    public long getTiemposAgotados() {
+        return tiemposAgotados.get();
+    }
+    
+    private static void liberar(List<Lock> tomados) {
+        for (int i = tomados.size() - 1; i >= 0; i--) {
+            tomados.get(i).unlock();
+        }
+        tomados.clear();
+    }
+}
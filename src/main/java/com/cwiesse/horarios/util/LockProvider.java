@@ -0,0 +1,47 @@
+package com.cwiesse.horarios.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * Proveedor de bloqueos con nombre para serializar guardados que compiten por
+ * el mismo recurso (por ejemplo, un docente o un aula en un día).
+ * Las claves se adquieren siempre en orden determinista para evitar
+ * interbloqueos entre peticiones que piden las mismas claves.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public interface LockProvider {
+    
+    /**
+     * Adquiere todas las claves o ninguna.
+     * 
+     * @param conn conexión de la transacción en curso (algunas implementaciones
+     *             ligan el bloqueo a la sesión de base de datos)
+     * @param claves claves a bloquear
+     * @return bloqueo que se libera al cerrarlo
+     * @throws java.sql.SQLTimeoutException si no se obtuvieron dentro del tiempo máximo
+     */
+    Bloqueo adquirir(Connection conn, Collection<String> claves) throws SQLException;
+    
+    /**
+     * Tiempo de espera para adquirir los bloqueos
+     */
+    LatencyRecorder getEspera();
+    
+    /**
+     * Número de veces que se agotó el tiempo de espera
+     */
+    long getTiemposAgotados();
+    
+    /**
+     * Bloqueo adquirido; close() lo libera
+     */
+    interface Bloqueo extends AutoCloseable {
+        
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,111 @@
+package com.cwiesse.horarios.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloqueos con nombre de MySQL (GET_LOCK / RELEASE_LOCK).
+ * Son visibles para todas las instancias de la aplicación que usan la misma
+ * base de datos, por lo que protegen también despliegues con varios nodos.
+ * El bloqueo pertenece a la sesión de la conexión recibida: debe liberarse
+ * antes de devolver esa conexión al pool.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class MySqlLockProvider implements LockProvider {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MySqlLockProvider.class);
+    
+    // MySQL limita el nombre del bloqueo a 64 caracteres
+    private static final String PREFIJO = "horarios:";
+    private static final int LONGITUD_MAXIMA = 64;
+    
+    private final long timeoutMs;
+    private final LatencyRecorder espera = new LatencyRecorder(1024);
+    private final AtomicLong tiemposAgotados = new AtomicLong();
+    
+    public MySqlLockProvider(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+    
+    @Override
+    public Bloqueo adquirir(Connection conn, Collection<String> claves) throws SQLException {
+        long inicio = System.nanoTime();
+        long limite = inicio + timeoutMs * 1_000_000L;
+        List<String> tomados = new ArrayList<>(claves.size());
+        
+        try {
+            // TreeSet: orden determinista y sin duplicados
+            for (String clave : new TreeSet<>(claves)) {
+                String nombre = nombreBloqueo(clave);
+                long restanteMs = Math.max(0, (limite - System.nanoTime()) / 1_000_000L);
+                
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+                    stmt.setString(1, nombre);
+                    // GET_LOCK recibe segundos
+                    stmt.setLong(2, (restanteMs + 999) / 1000);
+                    
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                        int resultado = rs.getInt(1);
+                        if (rs.wasNull()) {
+                            throw new SQLException("Error al adquirir el bloqueo " + nombre);
+                        }
+                        if (resultado != 1) {
+                            tiemposAgotados.incrementAndGet();
+                            throw new SQLTimeoutException("Tiempo de espera agotado para el bloqueo " + nombre);
+                        }
+                    }
+                }
+                tomados.add(nombre);
+            }
+        } catch (SQLException e) {
+            liberar(conn, tomados);
+            throw e;
+        } finally {
+            espera.registrar(System.nanoTime() - inicio);
+        }
+        
+        return () -> liberar(conn, tomados);
+    }
+    
+    @Override
+    public LatencyRecorder getEspera() {
+        return espera;
+    }
+    
+    @Override
+    public long getTiemposAgotados() {
+        return tiemposAgotados.get();
+    }
+    
+    private void liberar(Connection conn, List<String> tomados) {
+        for (int i = tomados.size() - 1; i >= 0; i--) {
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                stmt.setString(1, tomados.get(i));
+                stmt.executeQuery().close();
+            } catch (SQLException e) {
+                // Si la sesión se cerró, MySQL ya liberó el bloqueo
+                logger.warn("No se pudo liberar el bloqueo {}: {}", tomados.get(i), e.getMessage());
+            }
+        }
+        tomados.clear();
+    }
+    
+    private static String nombreBloqueo(String clave) {
+        String nombre = PREFIJO + clave;
+        return nombre.length() <= LONGITUD_MAXIMA ? nombre : nombre.substring(0, LONGITUD_MAXIMA);
+    }
+}
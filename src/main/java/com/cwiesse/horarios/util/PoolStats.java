@@ -0,0 +1,93 @@
+package com.cwiesse.horarios.util;
+
+/**
+ * Instantánea de los contadores del pool de conexiones para monitoreo.
+ * Los valores que el DataSource no expone (por ejemplo, ociosas y en espera
+ * con el DataSource JNDI) se informan como -1.
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class PoolStats {
+    
+    private final int activas;
+    private final int ociosas;
+    private final int enEspera;
+    private final int total;
+    private final long prestamos;
+    private final double prestamoP50Ms;
+    private final double prestamoP99Ms;
+    private final long sentenciasNoCerradas;
+    private final long conexionesRetenidas;
+    
+    public PoolStats(int activas, int ociosas, int enEspera, int total, long prestamos,
+                     double prestamoP50Ms, double prestamoP99Ms,
+                     long sentenciasNoCerradas, long conexionesRetenidas) {
+        this.activas = activas;
+        this.ociosas = ociosas;
+        this.enEspera = enEspera;
+        this.total = total;
+        this.prestamos = prestamos;
+        this.prestamoP50Ms = prestamoP50Ms;
+        this.prestamoP99Ms = prestamoP99Ms;
+        this.sentenciasNoCerradas = sentenciasNoCerradas;
+        this.conexionesRetenidas = conexionesRetenidas;
+    }
+    
+    public int getActivas() {
+        return activas;
+    }
+    
+    public int getOciosas() {
+        return ociosas;
+    }
+    
+    public int getEnEspera() {
+        return enEspera;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public long getPrestamos() {
+        return prestamos;
+    }
+    
+    public double getPrestamoP50Ms() {
+        return prestamoP50Ms;
+    }
+    
+    public double getPrestamoP99Ms() {
+        return prestamoP99Ms;
+    }
+    
+    /**
+     * Sentencias o ResultSet que seguían abiertos al devolver la conexión
+     */
+    public long getSentenciasNoCerradas() {
+        return sentenciasNoCerradas;
+    }
+    
+    /**
+     * Conexiones retenidas más tiempo que el umbral de fuga
+     */
+    public long getConexionesRetenidas() {
+        return conexionesRetenidas;
+    }
+    
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "activas=" + activas +
+                ", ociosas=" + ociosas +
+                ", enEspera=" + enEspera +
+                ", total=" + total +
+                ", prestamos=" + prestamos +
+                ", prestamoP50Ms=" + String.format("%.3f", prestamoP50Ms) +
+                ", prestamoP99Ms=" + String.format("%.3f", prestamoP99Ms) +
+                ", sentenciasNoCerradas=" + sentenciasNoCerradas +
+                ", conexionesRetenidas=" + conexionesRetenidas +
+                '}';
+    }
+}
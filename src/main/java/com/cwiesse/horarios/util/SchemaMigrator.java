@@ -0,0 +1,298 @@
+package com.cwiesse.horarios.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aplica al iniciar las migraciones de esquema de db/migration, en el orden
+ * de db/migration/migraciones.txt. Cada archivo se llama V{n}__{descripcion}.sql
+ * y se aplica una sola vez; la tabla schema_version guarda la versión y el
+ * checksum SHA-256 de cada migración aplicada.
+ * 
+ * Si el checksum de una migración ya aplicada cambió, se detiene sin aplicar
+ * las siguientes: las migraciones aplicadas no se modifican. Con varios nodos,
+ * solo uno migra a la vez (bloqueo "schema_version" de db.lock.provider).
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public class SchemaMigrator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+    private static final String DIRECTORIO = "db/migration/";
+    private static final String INDICE = DIRECTORIO + "migraciones.txt";
+    // ER_DUP_KEYNAME: el índice ya existe (creado a mano antes de las migraciones)
+    private static final int ERROR_INDICE_DUPLICADO = 1061;
+    
+    private final DBConnection dbConnection;
+    
+    public SchemaMigrator(DBConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+    
+    /**
+     * Aplica las migraciones pendientes
+     * 
+     * @return true si el esquema quedó al día
+     */
+    public boolean migrar() {
+        List<Migracion> migraciones;
+        try {
+            migraciones = leerMigraciones();
+        } catch (IOException | IllegalStateException e) {
+            logger.error("Error al leer las migraciones: {}", e.getMessage());
+            return false;
+        }
+        
+        Connection conn = null;
+        try {
+            conn = dbConnection.getConnection();
+            crearTablaVersiones(conn);
+            
+            LockProvider.Bloqueo bloqueo = dbConnection.getLockProvider()
+                    .adquirir(conn, List.of("schema_version"));
+            try {
+                Map<Integer, String> aplicadas = leerAplicadas(conn);
+                int nuevas = 0;
+                
+                for (Migracion migracion : migraciones) {
+                    String checksum = aplicadas.get(migracion.version);
+                    if (checksum == null) {
+                        aplicar(conn, migracion);
+                        nuevas++;
+                    } else if (!checksum.equals(migracion.checksum)) {
+                        logger.error("La migración V{} ({}) cambió después de aplicarse; " +
+                                     "no se aplican las siguientes", migracion.version, migracion.archivo);
+                        return false;
+                    }
+                }
+                
+                logger.info("Esquema al día: {} migraciones, {} aplicadas ahora", migraciones.size(), nuevas);
+                return true;
+            } finally {
+                bloqueo.close();
+            }
+            
+        } catch (SQLException e) {
+            logger.error("Error al migrar el esquema: {}", e.getMessage());
+            return false;
+        } finally {
+            dbConnection.closeConnection(conn);
+        }
+    }
+    
+    private void crearTablaVersiones(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                         "version INT PRIMARY KEY, " +
+                         "archivo VARCHAR(200) NOT NULL, " +
+                         "checksum CHAR(64) NOT NULL, " +
+                         "aplicada_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                         "duracion_ms INT NOT NULL" +
+                         ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+        }
+    }
+    
+    private Map<Integer, String> leerAplicadas(Connection conn) throws SQLException {
+        Map<Integer, String> aplicadas = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                aplicadas.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        return aplicadas;
+    }
+    
+    /**
+     * Ejecuta las sentencias de la migración y la registra. MySQL confirma
+     * cada DDL por separado, así que una migración fallida puede quedar a
+     * medias: por eso las sentencias deben poder repetirse (IF NOT EXISTS).
+     */
+    private void aplicar(Connection conn, Migracion migracion) throws SQLException {
+        long inicio = System.currentTimeMillis();
+        
+        try (Statement stmt = conn.createStatement()) {
+            for (String sentencia : migracion.sentencias) {
+                try {
+                    stmt.execute(sentencia);
+                } catch (SQLException e) {
+                    if (e.getErrorCode() != ERROR_INDICE_DUPLICADO) {
+                        throw new SQLException("V" + migracion.version + ": " + e.getMessage(), e);
+                    }
+                    logger.warn("V{}: el índice ya existía, se omite: {}", migracion.version, e.getMessage());
+                }
+            }
+        }
+        
+        String sql = "INSERT INTO schema_version (version, archivo, checksum, duracion_ms) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, migracion.version);
+            stmt.setString(2, migracion.archivo);
+            stmt.setString(3, migracion.checksum);
+            stmt.setInt(4, (int) (System.currentTimeMillis() - inicio));
+            stmt.executeUpdate();
+        }
+        
+        logger.info("Migración aplicada: {}", migracion.archivo);
+    }
+    
+    private List<Migracion> leerMigraciones() throws IOException {
+        List<Migracion> migraciones = new ArrayList<>();
+        int anterior = 0;
+        
+        for (String archivo : leerLineas(INDICE)) {
+            Migracion migracion = new Migracion(archivo, String.join("\n", leerLineas(DIRECTORIO + archivo)));
+            if (migracion.version <= anterior) {
+                throw new IllegalStateException("Versión fuera de orden en " + INDICE + ": " + archivo);
+            }
+            anterior = migracion.version;
+            migraciones.add(migracion);
+        }
+        return migraciones;
+    }
+    
+    /**
+     * Líneas del recurso, sin comentarios (--, #) ni líneas vacías
+     */
+    private static List<String> leerLineas(String recurso) throws IOException {
+        InputStream input = SchemaMigrator.class.getClassLoader().getResourceAsStream(recurso);
+        if (input == null) {
+            throw new IOException("No se encontró " + recurso);
+        }
+        
+        List<String> lineas = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                linea = linea.trim();
+                if (!linea.isEmpty() && !linea.startsWith("--") && !linea.startsWith("#")) {
+                    lineas.add(linea);
+                }
+            }
+        }
+        return lineas;
+    }
+    
+    /**
+     * Archivo de migración: versión, checksum y sentencias separadas por ";"
+     * (fuera de comillas y comentarios; no se admite DELIMITER)
+     */
+    private static final class Migracion {
+        
+        private final String archivo;
+        private final int version;
+        private final String checksum;
+        private final List<String> sentencias = new ArrayList<>();
+        
+        Migracion(String archivo, String contenido) {
+            this.archivo = archivo;
+            int separador = archivo.indexOf("__");
+            if (!archivo.startsWith("V") || separador < 2 || !archivo.endsWith(".sql")) {
+                throw new IllegalStateException("Nombre de migración inválido: " + archivo);
+            }
+            try {
+                this.version = Integer.parseInt(archivo.substring(1, separador));
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Nombre de migración inválido: " + archivo);
+            }
+            this.checksum = sha256(contenido);
+            
+            separarSentencias(contenido);
+        }
+        
+        /**
+         * Separa por ";" ignorando los que van dentro de literales ('...',
+         * "...", `...`) o de comentarios de línea (-- y #) y de bloque
+         */
+        private void separarSentencias(String contenido) {
+            StringBuilder actual = new StringBuilder();
+            int i = 0;
+            while (i < contenido.length()) {
+                char c = contenido.charAt(i);
+                int fin;
+                if (c == '\'' || c == '"' || c == '`') {
+                    fin = finDeLiteral(contenido, i, c);
+                } else if (c == '#' || esComentarioGuiones(contenido, i)) {
+                    fin = contenido.indexOf('\n', i);
+                    fin = fin < 0 ? contenido.length() : fin;
+                } else if (contenido.startsWith("/*", i)) {
+                    fin = contenido.indexOf("*/", i + 2);
+                    fin = fin < 0 ? contenido.length() : fin + 2;
+                } else if (c == ';') {
+                    agregar(actual);
+                    i++;
+                    continue;
+                } else {
+                    fin = i + 1;
+                }
+                actual.append(contenido, i, fin);
+                i = fin;
+            }
+            agregar(actual);
+        }
+        
+        private void agregar(StringBuilder sentencia) {
+            if (!sentencia.toString().isBlank()) {
+                sentencias.add(sentencia.toString().trim());
+            }
+            sentencia.setLength(0);
+        }
+        
+        // En MySQL, "--" inicia comentario solo si le sigue un espacio o fin de línea
+        private static boolean esComentarioGuiones(String contenido, int i) {
+            return contenido.startsWith("--", i)
+                && (i + 2 == contenido.length() || Character.isWhitespace(contenido.charAt(i + 2)));
+        }
+        
+        /**
+         * Posición siguiente al cierre del literal que empieza en inicio; la
+         * comilla duplicada o precedida de barra invertida no lo cierra
+         */
+        private static int finDeLiteral(String contenido, int inicio, char comilla) {
+            int i = inicio + 1;
+            while (i < contenido.length()) {
+                char c = contenido.charAt(i);
+                if (c == '\\' && comilla != '`') {
+                    i += 2;
+                } else if (c == comilla) {
+                    if (i + 1 < contenido.length() && contenido.charAt(i + 1) == comilla) {
+                        i += 2;
+                    } else {
+                        return i + 1;
+                    }
+                } else {
+                    i++;
+                }
+            }
+            throw new IllegalStateException("Literal sin cerrar en la migración");
+        }
+        
+        private static String sha256(String contenido) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                return HexFormat.of().formatHex(digest.digest(contenido.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.cwiesse.horarios.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Unidad de trabajo ligada al hilo (y por tanto a la petición HTTP).
+ * Mientras está activa, DBConnection entrega siempre la misma conexión con
+ * autocommit desactivado, de modo que todas las operaciones DAO de la petición
+ * comparten una conexión y una transacción. Mantiene además un mapa de
+ * identidad para que buscarPorId no repita consultas.
+ * 
+ * Uso:
+ * <pre>
+ * try (UnitOfWork uow = UnitOfWork.iniciar()) {
+ *     ...operaciones DAO...
+ *     uow.commit();
+ * }   // si no se confirmó, se hace rollback
+ * </pre>
+ * 
+ * @author Carlos Wiesse
+ * @version 1.0
+ */
+public final class UnitOfWork implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UnitOfWork.class);
+    private static final ThreadLocal<UnitOfWork> ACTUAL = new ThreadLocal<>();
+    
+    private final UnitOfWork raiz;
+    private final Connection conexion;
+    private final Connection vinculada;
+    private final Map<Class<?>, Map<Object, Object>> identidades;
+    private final List<Runnable> alConfirmar;
+    private final List<Runnable> alTerminar;
+    private boolean soloRollback;
+    private boolean terminada;
+    
+    // Unidad principal: dueña de la conexión
+    private UnitOfWork(Connection conexion) {
+        this.raiz = this;
+        this.conexion = conexion;
+        this.vinculada = vincular(conexion, this);
+        this.identidades = new HashMap<>();
+        this.alConfirmar = new ArrayList<>();
+        this.alTerminar = new ArrayList<>();
+    }
+    
+    // Unidad anidada: participa en la transacción de la principal
+    private UnitOfWork(UnitOfWork raiz) {
+        this.raiz = raiz;
+        this.conexion = raiz.conexion;
+        this.vinculada = raiz.vinculada;
+        this.identidades = raiz.identidades;
+        this.alConfirmar = raiz.alConfirmar;
+        this.alTerminar = raiz.alTerminar;
+    }
+    
+    /**
+     * Inicia una unidad de trabajo en el hilo actual. Si ya hay una activa,
+     * la nueva participa en ella: su commit no confirma nada y su rollback
+     * marca toda la transacción para deshacerse.
+     */
+    public static UnitOfWork iniciar() throws SQLException {
+        UnitOfWork actual = ACTUAL.get();
+        if (actual != null) {
+            return new UnitOfWork(actual);
+        }
+        
+        Connection conn = DBConnection.getInstance().obtenerConexionFisica();
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        UnitOfWork uow = new UnitOfWork(conn);
+        ACTUAL.set(uow);
+        logger.debug("Unidad de trabajo iniciada");
+        return uow;
+    }
+    
+    /**
+     * Unidad de trabajo activa en el hilo actual, si existe
+     */
+    public static Optional<UnitOfWork> actual() {
+        return Optional.ofNullable(ACTUAL.get());
+    }
+    
+    /**
+     * Conexión compartida. Cerrarla, confirmarla o cambiar su autocommit no
+     * tiene efecto: eso lo controla la unidad de trabajo.
+     */
+    public Connection getConexion() {
+        return vinculada;
+    }
+    
+    /**
+     * Confirma la transacción y ejecuta las acciones registradas con alConfirmar
+     */
+    public void commit() throws SQLException {
+        if (raiz != this) {
+            terminada = true;
+            return;
+        }
+        if (terminada) {
+            throw new IllegalStateException("La unidad de trabajo ya terminó");
+        }
+        if (soloRollback) {
+            rollback();
+            throw new SQLException("La transacción fue marcada para deshacerse");
+        }
+        
+        conexion.commit();
+        terminada = true;
+        logger.debug("Unidad de trabajo confirmada");
+        
+        for (Runnable accion : alConfirmar) {
+            try {
+                accion.run();
+            } catch (RuntimeException e) {
+                logger.error("Error en acción posterior al commit: {}", e.getMessage(), e);
+            }
+        }
+    }
+    
+    /**
+     * Deshace la transacción (en una unidad anidada, la marca para deshacerse)
+     */
+    public void rollback() {
+        if (raiz != this) {
+            raiz.soloRollback = true;
+            terminada = true;
+            return;
+        }
+        if (terminada) {
+            return;
+        }
+        try {
+            conexion.rollback();
+            logger.debug("Unidad de trabajo deshecha");
+        } catch (SQLException e) {
+            logger.error("Error al deshacer la unidad de trabajo: {}", e.getMessage());
+        }
+        terminada = true;
+        identidades.clear();
+    }
+    
+    /**
+     * Registra una acción a ejecutar solo si la transacción se confirma
+     * (por ejemplo, actualizar índices o cachés en memoria)
+     */
+    public void alConfirmar(Runnable accion) {
+        alConfirmar.add(accion);
+    }
+    
+    /**
+     * Registra una acción a ejecutar al cerrar la unidad principal, tanto si
+     * se confirmó como si se deshizo, antes de devolver la conexión (por
+     * ejemplo, liberar bloqueos con nombre tomados en su sesión). En una
+     * unidad anidada, la acción espera al fin de la transacción real.
+     */
+    public void alTerminar(Runnable accion) {
+        alTerminar.add(accion);
+    }
+    
+    /**
+     * Busca una entidad ya cargada en esta unidad de trabajo
+     */
+    public <T> Optional<T> buscarEnMapa(Class<T> tipo, Object id) {
+        Map<Object, Object> porId = identidades.get(tipo);
+        return porId == null ? Optional.empty() : Optional.ofNullable(tipo.cast(porId.get(id)));
+    }
+    
+    /**
+     * Registra una entidad cargada o modificada en esta unidad de trabajo
+     */
+    public <T> void registrar(Class<T> tipo, Object id, T entidad) {
+        if (id != null && entidad != null) {
+            identidades.computeIfAbsent(tipo, k -> new HashMap<>()).put(id, entidad);
+        }
+    }
+    
+    /**
+     * Quita una entidad del mapa de identidad (por ejemplo, al eliminarla)
+     */
+    public void quitar(Class<?> tipo, Object id) {
+        Map<Object, Object> porId = identidades.get(tipo);
+        if (porId != null) {
+            porId.remove(id);
+        }
+    }
+    
+    /**
+     * Cierra la unidad: si no se confirmó, deshace; ejecuta las acciones de
+     * alTerminar y luego devuelve la conexión.
+     * Una unidad anidada que se cierra sin commit marca la transacción para
+     * deshacerse (por ejemplo, si terminó con una excepción).
+     */
+    @Override
+    public void close() {
+        if (raiz != this) {
+            if (!terminada) {
+                raiz.soloRollback = true;
+            }
+            return;
+        }
+        if (!terminada) {
+            rollback();
+        }
+        // En orden inverso al registro, como los bloqueos anidados
+        for (int i = alTerminar.size() - 1; i >= 0; i--) {
+            try {
+                alTerminar.get(i).run();
+            } catch (RuntimeException e) {
+                logger.error("Error en acción al terminar la transacción: {}", e.getMessage(), e);
+            }
+        }
+        alTerminar.clear();
+        ACTUAL.remove();
+        try {
+            conexion.setAutoCommit(true);
+        } catch (SQLException e) {
+            logger.debug("No se pudo restaurar autocommit: {}", e.getMessage());
+        }
+        DBConnection.getInstance().closeConnection(conexion);
+    }
+    
+    /**
+     * Proxy de la conexión que ignora close/commit/rollback/setAutoCommit de
+     * los DAO; un rollback solicitado por un DAO marca la unidad para deshacerse.
+     */
+    private static Connection vincular(Connection conn, UnitOfWork uow) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close":
+                case "commit":
+                case "setAutoCommit":
+                    return null;
+                case "rollback":
+                    if (args == null) {
+                        uow.soloRollback = true;
+                        return null;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(conn, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
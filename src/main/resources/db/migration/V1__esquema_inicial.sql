@@ -0,0 +1,59 @@
+-- Esquema inicial del sistema de horarios.
+-- IF NOT EXISTS: en instalaciones creadas a mano las tablas ya existen.
+
+CREATE TABLE IF NOT EXISTS usuario (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    password_hash VARCHAR(255) NOT NULL,
+    rol ENUM('ADMIN', 'DOCENTE') NOT NULL DEFAULT 'DOCENTE',
+    activo TINYINT(1) NOT NULL DEFAULT 1,
+    fecha_creacion TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS docente (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    dni VARCHAR(8) NOT NULL UNIQUE,
+    nombre VARCHAR(100) NOT NULL,
+    apellido_paterno VARCHAR(100) NOT NULL,
+    apellido_materno VARCHAR(100) NOT NULL,
+    email VARCHAR(150),
+    telefono VARCHAR(20),
+    estado TINYINT(1) NOT NULL DEFAULT 1,
+    fecha_registro TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS aula (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    codigo VARCHAR(20) NOT NULL UNIQUE,
+    nombre VARCHAR(100),
+    capacidad INT NOT NULL DEFAULT 30,
+    piso INT NOT NULL DEFAULT 1,
+    edificio VARCHAR(50),
+    estado TINYINT(1) NOT NULL DEFAULT 1
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS curso (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    codigo VARCHAR(20) NOT NULL UNIQUE,
+    nombre VARCHAR(100) NOT NULL,
+    nivel ENUM('PRIMARIA', 'SECUNDARIA') NOT NULL,
+    grado INT NOT NULL,
+    horas_semanales INT NOT NULL DEFAULT 0,
+    color VARCHAR(7),
+    estado TINYINT(1) NOT NULL DEFAULT 1
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS horario (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    docente_id INT NOT NULL,
+    aula_id INT NOT NULL,
+    curso_id INT NOT NULL,
+    dia ENUM('LUN', 'MAR', 'MIE', 'JUE', 'VIE') NOT NULL,
+    hora_inicio TIME NOT NULL,
+    hora_fin TIME NOT NULL,
+    fecha_creacion TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_horario_docente FOREIGN KEY (docente_id) REFERENCES docente (id),
+    CONSTRAINT fk_horario_aula FOREIGN KEY (aula_id) REFERENCES aula (id),
+    CONSTRAINT fk_horario_curso FOREIGN KEY (curso_id) REFERENCES curso (id),
+    CONSTRAINT chk_horario_horas CHECK (hora_fin > hora_inicio)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,16 @@
+-- Índices compuestos para las consultas frecuentes. Si un índice con el
+-- mismo nombre ya existe (creado a mano), SchemaMigrator lo omite.
+
+-- Choques por docente y por aula: igualdad en id y día, rango en las horas
+CREATE INDEX idx_horario_docente_dia ON horario (docente_id, dia, hora_inicio, hora_fin);
+CREATE INDEX idx_horario_aula_dia ON horario (aula_id, dia, hora_inicio, hora_fin);
+
+-- Listados ORDER BY dia, hora_inicio, id (InnoDB agrega la clave primaria)
+CREATE INDEX idx_horario_dia_inicio ON horario (dia, hora_inicio);
+
+-- Horarios por curso y choques por sección (nivel y grado del curso)
+CREATE INDEX idx_horario_curso_dia ON horario (curso_id, dia);
+CREATE INDEX idx_curso_seccion ON curso (nivel, grado, nombre);
+
+-- Listado de docentes por apellidos
+CREATE INDEX idx_docente_apellidos ON docente (apellido_paterno, apellido_materno, nombre);
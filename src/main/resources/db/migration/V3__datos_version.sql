@@ -0,0 +1,10 @@
+-- Versión de los datos por entidad: cada escritura incrementa la de su
+-- entidad y cada nodo la compara para invalidar sus cachés (VersionDatos).
+
+CREATE TABLE IF NOT EXISTS datos_version (
+    entidad VARCHAR(20) PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    actualizada_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT IGNORE INTO datos_version (entidad) VALUES ('docente'), ('aula'), ('curso'), ('horario');
@@ -75,6 +75,21 @@
                 </div>
             </div>
         </div>
+        
+        <div class="row mt-4">
+            <div class="col-md-4">
+                <div class="card text-center">
+                    <div class="card-body">
+                        <i class="bi bi-file-earmark-arrow-up fs-1 text-secondary"></i>
+                        <h5 class="card-title mt-3">Importar</h5>
+                        <p class="card-text">Cargar datos desde Excel</p>
+                        <a href="${pageContext.request.contextPath}/importar" class="btn btn-secondary">
+                            Importar Excel
+                        </a>
+                    </div>
+                </div>
+            </div>
+        </div>
     </div>
     
     <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.3.2/dist/js/bootstrap.bundle.min.js"></script>
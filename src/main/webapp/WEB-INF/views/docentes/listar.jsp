@@ -30,7 +30,7 @@
         <div class="d-flex justify-content-between align-items-center mb-4">
             <div>
                 <h2><i class="bi bi-person-badge"></i> Gestión de Docentes</h2>
-                <p class="text-muted">Total: ${totalDocentes} docentes</p>
+                <p class="text-muted">Mostrando ${docentes.size()} docentes</p>
             
                 <!-- creacion de boton para NUEVO DOCENTE y EXPORTAR EXCEL -->
             </div>
@@ -59,6 +59,22 @@
             </div>
         </c:if>
         
+        <form class="row g-2 mb-3" action="${pageContext.request.contextPath}/docentes" method="get">
+            <input type="hidden" name="action" value="listar">
+            <div class="col-md-3">
+                <select class="form-select" name="estado">
+                    <option value="">Todos los estados</option>
+                    <option value="1" ${param.estado == '1' ? 'selected' : ''}>Activos</option>
+                    <option value="0" ${param.estado == '0' ? 'selected' : ''}>Inactivos</option>
+                </select>
+            </div>
+            <div class="col-md-2">
+                <button type="submit" class="btn btn-outline-primary">
+                    <i class="bi bi-funnel"></i> Filtrar
+                </button>
+            </div>
+        </form>
+        
         <div class="card">
             <div class="card-body">
                 <div class="table-responsive">
@@ -91,6 +107,10 @@
                                         </c:choose>
                                     </td>
                                     <td class="text-center">
+                                        <a href="${pageContext.request.contextPath}/horarios?action=semana&docenteId=${docente.id}" 
+                                           class="btn btn-sm btn-info" title="Horario semanal">
+                                            <i class="bi bi-calendar-week"></i>
+                                        </a>
                                         <a href="${pageContext.request.contextPath}/docentes?action=editar&id=${docente.id}" 
                                            class="btn btn-sm btn-warning" title="Editar">
                                             <i class="bi bi-pencil"></i>
@@ -116,6 +136,21 @@
             </div>
         </div>
         
+        <nav class="mt-3">
+            <ul class="pagination justify-content-center">
+                <li class="page-item ${empty pagina.anterior ? 'disabled' : ''}">
+                    <a class="page-link" href="${pageContext.request.contextPath}/docentes?action=listar${filtroQuery}&antes=${pagina.anterior}">
+                        <i class="bi bi-chevron-left"></i> Anterior
+                    </a>
+                </li>
+                <li class="page-item ${empty pagina.siguiente ? 'disabled' : ''}">
+                    <a class="page-link" href="${pageContext.request.contextPath}/docentes?action=listar${filtroQuery}&despues=${pagina.siguiente}">
+                        Siguiente <i class="bi bi-chevron-right"></i>
+                    </a>
+                </li>
+            </ul>
+        </nav>
+        
         <div class="mt-3">
             <a href="${pageContext.request.contextPath}/dashboard" class="btn btn-secondary">
                 <i class="bi bi-arrow-left"></i> Volver al Dashboard
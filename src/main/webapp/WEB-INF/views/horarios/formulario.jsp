@@ -40,6 +40,18 @@
                         <c:if test="${not empty error}">
                             <div class="alert alert-danger alert-dismissible fade show" role="alert">
                                 <i class="bi bi-exclamation-circle"></i> ${error}
+                                <c:if test="${not empty choques}">
+                                    <ul class="mb-0 mt-2">
+                                        <c:forEach var="ch" items="${choques}">
+                                            <li>
+                                                ${ch.dia.nombre} ${ch.horaInicio} - ${ch.horaFin}:
+                                                <strong>${ch.curso.nombre}</strong>
+                                                (${ch.curso.nivel} - ${ch.curso.grado}° grado),
+                                                ${ch.docente.nombreCompleto}, aula ${ch.aula.codigo}
+                                            </li>
+                                        </c:forEach>
+                                    </ul>
+                                </c:if>
                                 <button type="button" class="btn-close" data-bs-dismiss="alert"></button>
                             </div>
                         </c:if>
@@ -154,6 +166,33 @@
                                 </div>
                             </div>
                             
+                            <div class="card mb-3">
+                                <div class="card-body">
+                                    <div class="row g-2 align-items-end">
+                                        <div class="col-md-4">
+                                            <label for="duracion" class="form-label">
+                                                <i class="bi bi-hourglass-split"></i> Duración (min)
+                                            </label>
+                                            <input type="number" class="form-control" id="duracion"
+                                                   min="5" step="5" value="45">
+                                        </div>
+                                        <div class="col-md-4">
+                                            <label for="capacidad" class="form-label">
+                                                <i class="bi bi-people"></i> Capacidad mínima
+                                            </label>
+                                            <input type="number" class="form-control" id="capacidad" min="1"
+                                                   placeholder="Si no se elige aula">
+                                        </div>
+                                        <div class="col-md-4">
+                                            <button type="button" class="btn btn-outline-primary w-100" id="btnDisponibilidad">
+                                                <i class="bi bi-search"></i> Buscar horarios libres
+                                            </button>
+                                        </div>
+                                    </div>
+                                    <div id="disponibilidad" class="mt-3"></div>
+                                </div>
+                            </div>
+                            
                             <div class="alert alert-info">
                                 <i class="bi bi-info-circle"></i>
                                 <strong>Importante:</strong>
@@ -196,6 +235,70 @@
                 return false;
             }
         });
+        
+        // Búsqueda de franjas libres para docente + sección (+ aula)
+        document.getElementById('btnDisponibilidad').addEventListener('click', function() {
+            const docenteId = document.getElementById('docenteId').value;
+            const cursoId = document.getElementById('cursoId').value;
+            const destino = document.getElementById('disponibilidad');
+            
+            if (!docenteId || !cursoId) {
+                destino.innerHTML = '<div class="text-danger">Seleccione docente y curso</div>';
+                return;
+            }
+            
+            const params = new URLSearchParams({
+                docenteId: docenteId,
+                cursoId: cursoId,
+                duracion: document.getElementById('duracion').value || '45'
+            });
+            const aulaId = document.getElementById('aulaId').value;
+            const capacidad = document.getElementById('capacidad').value;
+            if (aulaId) {
+                params.append('aulaId', aulaId);
+            } else if (capacidad) {
+                params.append('capacidad', capacidad);
+            }
+            
+            destino.textContent = 'Buscando...';
+            fetch('${pageContext.request.contextPath}/horarios/disponibilidad?' + params)
+                .then(r => r.json())
+                .then(data => mostrarDisponibilidad(data, destino))
+                .catch(() => destino.innerHTML = '<div class="text-danger">No se pudo consultar la disponibilidad</div>');
+        });
+        
+        function mostrarDisponibilidad(data, destino) {
+            destino.innerHTML = '';
+            data.dias.forEach(function(dia) {
+                const fila = document.createElement('div');
+                fila.className = 'mb-2';
+                const titulo = document.createElement('strong');
+                titulo.textContent = dia.nombre + ': ';
+                fila.appendChild(titulo);
+                
+                if (dia.franjas.length === 0) {
+                    fila.appendChild(document.createTextNode('sin franjas libres'));
+                }
+                dia.franjas.forEach(function(f) {
+                    const btn = document.createElement('button');
+                    btn.type = 'button';
+                    btn.className = 'btn btn-sm btn-outline-success me-1 mb-1';
+                    btn.textContent = f.inicio + '-' + f.fin + ' (' + f.aula + ')';
+                    btn.addEventListener('click', function() {
+                        const duracion = parseInt(data.duracion, 10);
+                        const partes = f.inicio.split(':');
+                        const fin = parseInt(partes[0], 10) * 60 + parseInt(partes[1], 10) + duracion;
+                        document.getElementById('dia').value = dia.dia;
+                        document.getElementById('aulaId').value = f.aulaId;
+                        document.getElementById('horaInicio').value = f.inicio;
+                        document.getElementById('horaFin').value =
+                            String(Math.floor(fin / 60)).padStart(2, '0') + ':' + String(fin % 60).padStart(2, '0');
+                    });
+                    fila.appendChild(btn);
+                });
+                destino.appendChild(fila);
+            });
+        }
     </script>
 </body>
 </html>
\ No newline at end of file
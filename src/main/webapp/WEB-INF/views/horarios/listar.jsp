@@ -30,7 +30,7 @@
         <div class="d-flex justify-content-between align-items-center mb-4">
             <div>
                 <h2><i class="bi bi-calendar3"></i> Gestión de Horarios</h2>
-                <p class="text-muted">Total: ${totalHorarios} horarios</p>
+                <p class="text-muted">Mostrando ${horarios.size()} horarios</p>
             </div>
             <div>
                 <a href="${pageContext.request.contextPath}/horarios?action=nuevo" class="btn btn-danger">
@@ -59,6 +59,54 @@
             </div>
         </c:if>
         
+        <form class="row g-2 mb-3" action="${pageContext.request.contextPath}/horarios" method="get">
+            <input type="hidden" name="action" value="listar">
+            <div class="col-md-2">
+                <select class="form-select" name="dia">
+                    <option value="">Todos los días</option>
+                    <c:forEach items="${dias}" var="d">
+                        <option value="${d}" ${param.dia == d.name() ? 'selected' : ''}>${d.nombre}</option>
+                    </c:forEach>
+                </select>
+            </div>
+            <div class="col-md-2">
+                <select class="form-select" name="nivel">
+                    <option value="">Todos los niveles</option>
+                    <option value="PRIMARIA" ${param.nivel == 'PRIMARIA' ? 'selected' : ''}>Primaria</option>
+                    <option value="SECUNDARIA" ${param.nivel == 'SECUNDARIA' ? 'selected' : ''}>Secundaria</option>
+                </select>
+            </div>
+            <div class="col-md-2">
+                <select class="form-select" name="grado">
+                    <option value="">Todos los grados</option>
+                    <c:forEach begin="1" end="6" var="g">
+                        <option value="${g}" ${param.grado == g ? 'selected' : ''}>${g}° grado</option>
+                    </c:forEach>
+                </select>
+            </div>
+            <div class="col-md-2">
+                <select class="form-select" name="docenteId">
+                    <option value="">Todos los docentes</option>
+                    <c:forEach items="${docentes}" var="d">
+                        <option value="${d.id}" ${param.docenteId == d.id ? 'selected' : ''}>${d.nombreCompleto}</option>
+                    </c:forEach>
+                </select>
+            </div>
+            <div class="col-md-2">
+                <select class="form-select" name="aulaId">
+                    <option value="">Todas las aulas</option>
+                    <c:forEach items="${aulas}" var="a">
+                        <option value="${a.id}" ${param.aulaId == a.id ? 'selected' : ''}>${a.codigo}</option>
+                    </c:forEach>
+                </select>
+            </div>
+            <div class="col-md-2">
+                <button type="submit" class="btn btn-outline-primary">
+                    <i class="bi bi-funnel"></i> Filtrar
+                </button>
+            </div>
+        </form>
+        
         <div class="card">
             <div class="card-body">
                 <div class="table-responsive">
@@ -86,16 +134,20 @@
                                     </td>
                                     <td>
                                         <i class="bi bi-person"></i>
-                                        ${horario.docente.nombreCompleto}
+                                        <a href="${pageContext.request.contextPath}/horarios?action=semana&docenteId=${horario.docenteId}"
+                                           title="Horario semanal del docente">${horario.docenteNombre}</a>
                                     </td>
                                     <td>
-                                        <strong>${horario.curso.nombre}</strong><br>
-                                        <small class="text-muted">${horario.curso.nivel} - ${horario.curso.grado}° grado</small>
+                                        <a href="${pageContext.request.contextPath}/horarios?action=semana&cursoId=${horario.cursoId}"
+                                           title="Horario semanal del curso"><strong>${horario.cursoNombre}</strong></a><br>
+                                        <small class="text-muted">${horario.cursoNivel} - ${horario.cursoGrado}° grado</small>
                                     </td>
                                     <td>
-                                        <span class="badge bg-secondary">${horario.aula.codigo}</span>
-                                        <c:if test="${not empty horario.aula.nombre}">
-                                            <br><small>${horario.aula.nombre}</small>
+                                        <a href="${pageContext.request.contextPath}/horarios?action=semana&aulaId=${horario.aulaId}"
+                                           class="badge bg-secondary text-decoration-none"
+                                           title="Horario semanal del aula">${horario.aulaCodigo}</a>
+                                        <c:if test="${not empty horario.aulaNombre}">
+                                            <br><small>${horario.aulaNombre}</small>
                                         </c:if>
                                     </td>
                                     <td class="text-center">
@@ -124,6 +176,21 @@
             </div>
         </div>
         
+        <nav class="mt-3">
+            <ul class="pagination justify-content-center">
+                <li class="page-item ${empty pagina.anterior ? 'disabled' : ''}">
+                    <a class="page-link" href="${pageContext.request.contextPath}/horarios?action=listar${filtroQuery}&antes=${pagina.anterior}">
+                        <i class="bi bi-chevron-left"></i> Anterior
+                    </a>
+                </li>
+                <li class="page-item ${empty pagina.siguiente ? 'disabled' : ''}">
+                    <a class="page-link" href="${pageContext.request.contextPath}/horarios?action=listar${filtroQuery}&despues=${pagina.siguiente}">
+                        Siguiente <i class="bi bi-chevron-right"></i>
+                    </a>
+                </li>
+            </ul>
+        </nav>
+        
         <div class="mt-3">
             <a href="${pageContext.request.contextPath}/dashboard" class="btn btn-secondary">
                 <i class="bi bi-arrow-left"></i> Volver al Dashboard
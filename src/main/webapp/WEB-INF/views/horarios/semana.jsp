@@ -0,0 +1,99 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<!DOCTYPE html>
+<html lang="es">
+<head>
+    <meta charset="UTF-8">
+    <meta name="viewport" content="width=device-width, initial-scale=1.0">
+    <title>Horario semanal - Sistema Horarios</title>
+    <link href="https://cdn.jsdelivr.net/npm/bootstrap@5.3.2/dist/css/bootstrap.min.css" rel="stylesheet">
+    <link rel="stylesheet" href="https://cdn.jsdelivr.net/npm/bootstrap-icons@1.11.2/font/bootstrap-icons.min.css">
+</head>
+<body>
+    <nav class="navbar navbar-expand-lg navbar-dark bg-primary">
+        <div class="container-fluid">
+            <a class="navbar-brand" href="${pageContext.request.contextPath}/dashboard">
+                <i class="bi bi-calendar-week"></i> Sistema Horarios
+            </a>
+            <div class="navbar-nav ms-auto">
+                <span class="navbar-text text-white me-3">
+                    <i class="bi bi-person-circle"></i> ${sessionScope.username}
+                </span>
+                <a class="btn btn-outline-light btn-sm" href="${pageContext.request.contextPath}/logout">
+                    <i class="bi bi-box-arrow-right"></i> Salir
+                </a>
+            </div>
+        </div>
+    </nav>
+    
+    <div class="container mt-4">
+        <div class="mb-4">
+            <h2><i class="bi bi-calendar-week"></i> Horario semanal: ${titulo}</h2>
+            <p class="text-muted">${total} horarios asignados</p>
+        </div>
+        
+        <c:forEach items="${dias}" var="d">
+            <c:if test="${not empty porDia[d]}">
+                <div class="card mb-3">
+                    <div class="card-header">
+                        <span class="badge bg-info">${d.nombre}</span>
+                    </div>
+                    <div class="card-body p-0">
+                        <table class="table table-hover mb-0">
+                            <thead class="table-light">
+                                <tr>
+                                    <th>Horario</th>
+                                    <th>Curso</th>
+                                    <th>Docente</th>
+                                    <th>Aula</th>
+                                </tr>
+                            </thead>
+                            <tbody>
+                                <c:forEach items="${porDia[d]}" var="horario">
+                                    <tr>
+                                        <td>
+                                            <i class="bi bi-clock"></i>
+                                            ${horario.horaInicio} - ${horario.horaFin}
+                                            <small class="text-muted">(${horario.duracionMinutos} min)</small>
+                                        </td>
+                                        <td>
+                                            <a href="${pageContext.request.contextPath}/horarios?action=semana&cursoId=${horario.cursoId}">
+                                                <strong>${horario.curso.nombre}</strong>
+                                            </a><br>
+                                            <small class="text-muted">${horario.curso.nivel} - ${horario.curso.grado}° grado</small>
+                                        </td>
+                                        <td>
+                                            <i class="bi bi-person"></i>
+                                            <a href="${pageContext.request.contextPath}/horarios?action=semana&docenteId=${horario.docenteId}">
+                                                ${horario.docente.nombreCompleto}
+                                            </a>
+                                        </td>
+                                        <td>
+                                            <a href="${pageContext.request.contextPath}/horarios?action=semana&aulaId=${horario.aulaId}"
+                                               class="badge bg-secondary text-decoration-none">${horario.aula.codigo}</a>
+                                        </td>
+                                    </tr>
+                                </c:forEach>
+                            </tbody>
+                        </table>
+                    </div>
+                </div>
+            </c:if>
+        </c:forEach>
+        
+        <c:if test="${total == 0}">
+            <div class="alert alert-info">
+                <i class="bi bi-info-circle"></i> No hay horarios asignados
+            </div>
+        </c:if>
+        
+        <div class="mt-3">
+            <a href="${pageContext.request.contextPath}/horarios?action=listar" class="btn btn-secondary">
+                <i class="bi bi-arrow-left"></i> Volver a Horarios
+            </a>
+        </div>
+    </div>
+    
+    <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.3.2/dist/js/bootstrap.bundle.min.js"></script>
+</body>
+</html>
\ No newline at end of file
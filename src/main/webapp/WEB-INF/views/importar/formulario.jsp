@@ -0,0 +1,118 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<!DOCTYPE html>
+<html lang="es">
+<head>
+    <meta charset="UTF-8">
+    <meta name="viewport" content="width=device-width, initial-scale=1.0">
+    <title>Importar desde Excel - Sistema Horarios</title>
+    <link href="https://cdn.jsdelivr.net/npm/bootstrap@5.3.2/dist/css/bootstrap.min.css" rel="stylesheet">
+    <link rel="stylesheet" href="https://cdn.jsdelivr.net/npm/bootstrap-icons@1.11.2/font/bootstrap-icons.min.css">
+</head>
+<body>
+    <nav class="navbar navbar-expand-lg navbar-dark bg-primary">
+        <div class="container-fluid">
+            <a class="navbar-brand" href="${pageContext.request.contextPath}/dashboard">
+                <i class="bi bi-calendar-week"></i> Sistema Horarios
+            </a>
+            <div class="navbar-nav ms-auto">
+                <span class="navbar-text text-white me-3">
+                    <i class="bi bi-person-circle"></i> ${sessionScope.username}
+                </span>
+                <a class="btn btn-outline-light btn-sm" href="${pageContext.request.contextPath}/logout">
+                    <i class="bi bi-box-arrow-right"></i> Salir
+                </a>
+            </div>
+        </div>
+    </nav>
+    
+    <div class="container mt-4">
+        <div class="row">
+            <div class="col-md-8 offset-md-2">
+                <div class="card">
+                    <div class="card-header bg-secondary text-white">
+                        <h4 class="mb-0">
+                            <i class="bi bi-file-earmark-arrow-up"></i> Importar desde Excel
+                        </h4>
+                    </div>
+                    <div class="card-body">
+                        <c:if test="${not empty error}">
+                            <div class="alert alert-danger alert-dismissible fade show" role="alert">
+                                <i class="bi bi-exclamation-circle"></i> ${error}
+                                <button type="button" class="btn-close" data-bs-dismiss="alert"></button>
+                            </div>
+                        </c:if>
+                        
+                        <c:if test="${not empty reporte}">
+                            <div class="alert ${reporte.totalErrores == 0 ? 'alert-success' : 'alert-warning'}">
+                                <i class="bi bi-info-circle"></i>
+                                <strong>${reporte.tipo}:</strong>
+                                ${reporte.filasLeidas} filas leídas,
+                                ${reporte.insertadas} registradas,
+                                ${reporte.totalErrores} con errores.
+                            </div>
+                            <c:if test="${reporte.totalErrores > 0}">
+                                <ul class="list-group mb-3" style="max-height: 300px; overflow-y: auto;">
+                                    <c:forEach var="e" items="${reporte.errores}">
+                                        <li class="list-group-item list-group-item-warning small">${e}</li>
+                                    </c:forEach>
+                                </ul>
+                                <c:if test="${reporte.erroresTruncados}">
+                                    <p class="text-muted small">
+                                        Se muestran los primeros ${reporte.errores.size()} errores.
+                                    </p>
+                                </c:if>
+                            </c:if>
+                        </c:if>
+                        
+                        <form action="${pageContext.request.contextPath}/importar" method="post" enctype="multipart/form-data">
+                            <div class="mb-3">
+                                <label for="tipo" class="form-label">
+                                    Importar <span class="text-danger">*</span>
+                                </label>
+                                <select class="form-select" id="tipo" name="tipo" required>
+                                    <option value="">Seleccione...</option>
+                                    <c:forEach var="t" items="${tipos}">
+                                        <option value="${t}" ${t == tipoSeleccionado ? 'selected' : ''}>${t}</option>
+                                    </c:forEach>
+                                </select>
+                            </div>
+                            
+                            <div class="mb-3">
+                                <label for="archivo" class="form-label">
+                                    Archivo Excel (.xlsx) <span class="text-danger">*</span>
+                                </label>
+                                <input type="file" class="form-control" id="archivo" name="archivo" accept=".xlsx" required>
+                            </div>
+                            
+                            <div class="alert alert-info small">
+                                <i class="bi bi-info-circle"></i>
+                                <strong>Nota:</strong> La primera fila de la hoja debe tener los nombres de las columnas:
+                                <ul class="mb-0 mt-2">
+                                    <li><strong>DOCENTES:</strong> dni, nombre, apellido_paterno, apellido_materno (email, telefono opcionales)</li>
+                                    <li><strong>AULAS:</strong> codigo, nombre, capacidad (piso, edificio opcionales)</li>
+                                    <li><strong>CURSOS:</strong> codigo, nombre, nivel, grado, horas_semanales (color opcional)</li>
+                                    <li><strong>HORARIOS:</strong> dni_docente, codigo_aula, codigo_curso, dia, hora_inicio, hora_fin</li>
+                                </ul>
+                            </div>
+                            
+                            <hr>
+                            
+                            <div class="d-flex justify-content-between">
+                                <a href="${pageContext.request.contextPath}/dashboard" class="btn btn-secondary">
+                                    <i class="bi bi-arrow-left"></i> Volver
+                                </a>
+                                <button type="submit" class="btn btn-primary">
+                                    <i class="bi bi-upload"></i> Importar
+                                </button>
+                            </div>
+                        </form>
+                    </div>
+                </div>
+            </div>
+        </div>
+    </div>
+    
+    <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.3.2/dist/js/bootstrap.bundle.min.js"></script>
+</body>
+</html>